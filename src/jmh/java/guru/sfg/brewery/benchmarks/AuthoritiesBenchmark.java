@@ -0,0 +1,97 @@
+package guru.sfg.brewery.benchmarks;
+
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+import org.springframework.security.core.GrantedAuthority;
+import org.springframework.security.core.authority.SimpleGrantedAuthority;
+
+import guru.sfg.brewery.bootstrap.DefaultBreweryLoader;
+import guru.sfg.brewery.domain.security.Authority;
+import guru.sfg.brewery.domain.security.Role;
+import guru.sfg.brewery.domain.security.User;
+
+/**
+ * Authority lookups as seen by one request: a fresh copy of the cached user (as handed out by
+ * JpaUserDetailsService) followed by a handful of @PreAuthorize checks. Run with -prof gc to compare
+ * gc.alloc.rate.norm between the legacy per-call stream rebuild, the compiled sets and the permission mask.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class AuthoritiesBenchmark {
+
+    @Param({ "1", "5" })
+    private int checksPerRequest;
+
+    private User             user;
+    private GrantedAuthority required;
+
+    @Setup
+    public void setup() {
+        Role admin = Role.builder()
+                .id(1)
+                .name("ADMIN")
+                .authorities(Stream.of(
+                        DefaultBreweryLoader.PERMISSION_BEER_CREATE, DefaultBreweryLoader.PERMISSION_BEER_READ,
+                        DefaultBreweryLoader.PERMISSION_BEER_UPDATE, DefaultBreweryLoader.PERMISSION_BEER_DELETE,
+                        DefaultBreweryLoader.PERMISSION_CUSTOMER_CREATE, DefaultBreweryLoader.PERMISSION_CUSTOMER_READ,
+                        DefaultBreweryLoader.PERMISSION_CUSTOMER_UPDATE, DefaultBreweryLoader.PERMISSION_CUSTOMER_DELETE,
+                        DefaultBreweryLoader.PERMISSION_BREWERY_CREATE, DefaultBreweryLoader.PERMISSION_BREWERY_READ,
+                        DefaultBreweryLoader.PERMISSION_BREWERY_UPDATE, DefaultBreweryLoader.PERMISSION_BREWERY_DELETE,
+                        DefaultBreweryLoader.PERMISSION_ORDER_CREATE, DefaultBreweryLoader.PERMISSION_ORDER_READ,
+                        DefaultBreweryLoader.PERMISSION_ORDER_PICKUP)
+                        .map(permission -> Authority.builder().permission(permission).build())
+                        .collect(Collectors.toSet()))
+                .build();
+
+        user = User.builder().id(1).username("spring").password("{noop}guru").role(admin).build();
+        required = new SimpleGrantedAuthority(DefaultBreweryLoader.PERMISSION_ORDER_READ);
+    }
+
+    @Benchmark
+    public void legacyStreamRebuild(Blackhole blackhole) {
+        User copy = user.toBuilder().build();
+        for (int i = 0; i < checksPerRequest; i++) {
+            Set<GrantedAuthority> authorities = copy.getRoles().stream()
+                    .map(Role::getAuthorities)
+                    .flatMap(Set::stream)
+                    .map(authority -> new SimpleGrantedAuthority(authority.getPermission()))
+                    .collect(Collectors.toSet());
+            blackhole.consume(authorities.contains(required));
+        }
+    }
+
+    @Benchmark
+    public void compiledAuthoritySets(Blackhole blackhole) {
+        User copy = user.toBuilder().build();
+        for (int i = 0; i < checksPerRequest; i++) {
+            blackhole.consume(copy.getAuthorities().contains(required));
+        }
+    }
+
+    @Benchmark
+    public void compiledPermissionMask(Blackhole blackhole) {
+        User copy = user.toBuilder().build();
+        for (int i = 0; i < checksPerRequest; i++) {
+            blackhole.consume(copy.getCompiledAuthorities().hasAuthority(DefaultBreweryLoader.PERMISSION_ORDER_READ));
+        }
+    }
+}
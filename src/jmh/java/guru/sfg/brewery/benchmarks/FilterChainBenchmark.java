@@ -0,0 +1,162 @@
+package guru.sfg.brewery.benchmarks;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Base64;
+import java.util.concurrent.TimeUnit;
+
+import javax.servlet.Filter;
+import javax.servlet.FilterChain;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.boot.SpringApplication;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.http.HttpHeaders;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.mock.web.MockHttpSession;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.context.SecurityContextImpl;
+import org.springframework.security.core.userdetails.UserDetails;
+import org.springframework.security.core.userdetails.UserDetailsService;
+import org.springframework.security.web.context.HttpSessionSecurityContextRepository;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+import org.springframework.test.web.servlet.setup.MockMvcBuilders;
+import org.springframework.web.context.WebApplicationContext;
+
+import guru.sfg.brewery.SfgBreweryUiApplication;
+import guru.sfg.brewery.security.classify.RequestClassifier;
+
+import static org.springframework.security.test.web.servlet.request.SecurityMockMvcRequestPostProcessors.httpBasic;
+import static org.springframework.security.test.web.servlet.setup.SecurityMockMvcConfigurers.springSecurity;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+
+/**
+ * One request of each category through the full security filter chain (both chains, the rate limiter and
+ * Google2FaFilter) and the dispatcher, against the running application context. The api request pays for
+ * a password check, so compare it against itself across changes rather than against the other categories.
+ * <p>
+ * The {@code proxy*} benchmarks call springSecurityFilterChain directly with a no-op terminal chain, which
+ * leaves out MockMvc and the dispatcher and measures security alone.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class FilterChainBenchmark {
+
+    private static final FilterChain NO_OP_CHAIN = (request, response) -> {
+    };
+
+    private ConfigurableApplicationContext context;
+    private MockMvc                        mockMvc;
+    private RequestClassifier              classifier;
+    private Filter                         springSecurityFilterChain;
+    private SecurityContextImpl            sessionContext;
+    private String                         basicAuthorization;
+
+    @Setup(Level.Trial)
+    public void setup() {
+        SpringApplication application = new SpringApplication(SfgBreweryUiApplication.class);
+        context = application.run(
+                "--server.port=0",
+                "--spring.profiles.active=dev",
+                "--logging.level.root=WARN",
+                "--logging.level.guru.sfg=WARN",
+                "--sfg.security.login-rate-limit.capacity=1000000000");
+
+        mockMvc = MockMvcBuilders.webAppContextSetup((WebApplicationContext) context)
+                .apply(springSecurity())
+                .build();
+        classifier = context.getBean(RequestClassifier.class);
+        springSecurityFilterChain = context.getBean("springSecurityFilterChain", Filter.class);
+
+        UserDetails user = context.getBean(UserDetailsService.class).loadUserByUsername("spring");
+        sessionContext = new SecurityContextImpl(
+                new UsernamePasswordAuthenticationToken(user, null, user.getAuthorities()));
+        basicAuthorization = "Basic "
+                + Base64.getEncoder().encodeToString("spring:guru".getBytes(StandardCharsets.UTF_8));
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        context.close();
+    }
+
+    @Benchmark
+    public MvcResult staticResource() throws Exception {
+        return mockMvc.perform(get("/resources/images/favicon.png")).andReturn();
+    }
+
+    @Benchmark
+    public MvcResult uiPage() throws Exception {
+        return mockMvc.perform(get("/")).andReturn();
+    }
+
+    @Benchmark
+    public MvcResult twoFactorPage() throws Exception {
+        return mockMvc.perform(get("/user/verify2fa")).andReturn();
+    }
+
+    @Benchmark
+    public MvcResult h2Console() throws Exception {
+        return mockMvc.perform(get("/h2-console/")).andReturn();
+    }
+
+    @Benchmark
+    public MvcResult apiWithBasicAuth() throws Exception {
+        return mockMvc.perform(get("/api/v1/beer").with(httpBasic("spring", "guru"))).andReturn();
+    }
+
+    @Benchmark
+    public MockHttpServletResponse proxyAuthenticatedUiPage() throws Exception {
+        MockHttpSession session = new MockHttpSession();
+        session.setAttribute(HttpSessionSecurityContextRepository.SPRING_SECURITY_CONTEXT_KEY, sessionContext);
+
+        MockHttpServletRequest request = request("/beers/find");
+        request.setSession(session);
+        return filter(request);
+    }
+
+    @Benchmark
+    public MockHttpServletResponse proxyApiWithBasicAuth() throws Exception {
+        MockHttpServletRequest request = request("/api/v1/beer");
+        request.addHeader(HttpHeaders.AUTHORIZATION, basicAuthorization);
+        return filter(request);
+    }
+
+    @Benchmark
+    public MockHttpServletResponse proxyStaticResource() throws Exception {
+        return filter(request("/resources/images/favicon.png"));
+    }
+
+    @Benchmark
+    public Object classifyOnly() {
+        return classifier.classify(request("/resources/images/favicon.png"));
+    }
+
+    private MockHttpServletResponse filter(MockHttpServletRequest request) throws Exception {
+        MockHttpServletResponse response = new MockHttpServletResponse();
+        springSecurityFilterChain.doFilter(request, response, NO_OP_CHAIN);
+        return response;
+    }
+
+    private static MockHttpServletRequest request(String path) {
+        MockHttpServletRequest request = new MockHttpServletRequest("GET", path);
+        request.setServletPath(path);
+        return request;
+    }
+}
@@ -0,0 +1,134 @@
+package guru.sfg.brewery.benchmarks;
+
+import java.sql.Timestamp;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.boot.SpringApplication;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Slice;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.security.core.userdetails.UserDetails;
+import org.springframework.security.core.userdetails.UserDetailsService;
+
+import guru.sfg.brewery.SfgBreweryUiApplication;
+import guru.sfg.brewery.bootstrap.DefaultBreweryLoader;
+import guru.sfg.brewery.domain.BeerOrder;
+import guru.sfg.brewery.domain.Customer;
+import guru.sfg.brewery.domain.OrderStatusEnum;
+import guru.sfg.brewery.repositories.BeerOrderRepository;
+import guru.sfg.brewery.repositories.BeerRepository;
+import guru.sfg.brewery.repositories.BeerSummary;
+import guru.sfg.brewery.repositories.CustomerRepository;
+import guru.sfg.brewery.web.model.BeerStyleEnum;
+
+/**
+ * The same page of beers and of (admin-scoped) orders read as a {@code Page}, which adds a {@code count(*)}
+ * whenever the page is full, and as a {@code Slice}, which reads one extra row instead. The repository
+ * calls are measured directly, so DTO mapping does not dilute the difference.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class ListingModeBenchmark {
+
+    private static final int PAGE_SIZE = 25;
+
+    @Param({ "1000", "50000" })
+    private int rows;
+
+    @Param({ "0", "20" })
+    private int pageNumber;
+
+    private ConfigurableApplicationContext context;
+    private BeerRepository                 beerRepository;
+    private BeerOrderRepository            beerOrderRepository;
+    private PageRequest                    pageRequest;
+
+    @Setup(Level.Trial)
+    public void setup() {
+        context = new SpringApplication(SfgBreweryUiApplication.class).run(
+                "--server.port=0",
+                "--spring.profiles.active=dev",
+                "--logging.level.root=WARN",
+                "--logging.level.guru.sfg=WARN");
+
+        beerRepository = context.getBean(BeerRepository.class);
+        beerOrderRepository = context.getBean(BeerOrderRepository.class);
+        pageRequest = PageRequest.of(pageNumber, PAGE_SIZE);
+
+        Customer stPete = context.getBean(CustomerRepository.class)
+                .findAllByCustomerName(DefaultBreweryLoader.ST_PETE_DISTRIBUTING).orElseThrow();
+        seed(context.getBean(JdbcTemplate.class), stPete.getId());
+
+        UserDetails user = context.getBean(UserDetailsService.class).loadUserByUsername("spring");
+        SecurityContextHolder.setStrategyName(SecurityContextHolder.MODE_GLOBAL);
+        SecurityContextHolder.getContext().setAuthentication(
+                new UsernamePasswordAuthenticationToken(user, null, user.getAuthorities()));
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        SecurityContextHolder.clearContext();
+        context.close();
+    }
+
+    @Benchmark
+    public Page<BeerSummary> beersPage() {
+        return beerRepository.findBeerSummaries(null, null, false, pageRequest);
+    }
+
+    @Benchmark
+    public Slice<BeerSummary> beersSlice() {
+        return beerRepository.findBeerSummarySlice(null, null, false, pageRequest);
+    }
+
+    @Benchmark
+    public Page<BeerOrder> ordersPage() {
+        return beerOrderRepository.findAllScoped(pageRequest);
+    }
+
+    @Benchmark
+    public Slice<BeerOrder> ordersSlice() {
+        return beerOrderRepository.findAllScopedSlice(pageRequest);
+    }
+
+    private void seed(JdbcTemplate jdbcTemplate, UUID customerId) {
+        Timestamp now = new Timestamp(System.currentTimeMillis());
+        List<Object[]> beers = new ArrayList<>(rows);
+        List<Object[]> orders = new ArrayList<>(rows);
+        for (int i = 0; i < rows; i++) {
+            beers.add(new Object[] { UUID.randomUUID().toString(), now, now, "Benchmark Beer " + i,
+                    BeerStyleEnum.ALE.ordinal(), String.format("9%012d", i) });
+            orders.add(new Object[] { UUID.randomUUID().toString(), now, now, customerId.toString(),
+                    OrderStatusEnum.NEW.ordinal() });
+        }
+
+        jdbcTemplate.batchUpdate("insert into beer (id, version, created_date, last_modified_date, beer_name, "
+                + "beer_style, upc) values (?, 0, ?, ?, ?, ?, ?)", beers);
+        jdbcTemplate.batchUpdate("insert into beer_order (id, version, created_date, last_modified_date, "
+                + "customer_id, order_status) values (?, 0, ?, ?, ?, ?)", orders);
+    }
+}
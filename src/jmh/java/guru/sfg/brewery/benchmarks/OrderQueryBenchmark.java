@@ -0,0 +1,121 @@
+package guru.sfg.brewery.benchmarks;
+
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+
+import javax.persistence.EntityManager;
+import javax.persistence.EntityManagerFactory;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.boot.SpringApplication;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.support.JpaRepositoryFactory;
+import org.springframework.data.repository.NoRepositoryBean;
+import org.springframework.data.repository.Repository;
+import org.springframework.data.repository.query.ExtensionAwareQueryMethodEvaluationContextProvider;
+import org.springframework.orm.jpa.SharedEntityManagerCreator;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.security.core.userdetails.UserDetails;
+import org.springframework.security.core.userdetails.UserDetailsService;
+import org.springframework.security.data.repository.query.SecurityEvaluationContextExtension;
+
+import guru.sfg.brewery.SfgBreweryUiApplication;
+import guru.sfg.brewery.bootstrap.DefaultBreweryLoader;
+import guru.sfg.brewery.domain.BeerOrder;
+import guru.sfg.brewery.domain.Customer;
+import guru.sfg.brewery.repositories.BeerOrderRepository;
+import guru.sfg.brewery.repositories.CustomerRepository;
+
+/**
+ * Fetching one order as an admin and as the owning customer: the former {@code findOrderByIdSecure} (SpEL
+ * evaluated against the security context on every call, {@code or} predicate) against the customer-scoped
+ * repository fragment that picks one of two fixed queries. The former query still runs through Spring Data's
+ * {@code @Query} pipeline with {@link SecurityEvaluationContextExtension}, on a repository built for the
+ * benchmark only.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class OrderQueryBenchmark {
+
+    @Param({ "spring", DefaultBreweryLoader.STPETE_USER })
+    private String username;
+
+    private ConfigurableApplicationContext context;
+    private BeerOrderRepository            beerOrderRepository;
+    private LegacyOrderRepository          legacyOrderRepository;
+    private UUID                           orderId;
+
+    @Setup(Level.Trial)
+    public void setup() {
+        context = new SpringApplication(SfgBreweryUiApplication.class).run(
+                "--server.port=0",
+                "--spring.profiles.active=dev",
+                "--logging.level.root=WARN",
+                "--logging.level.guru.sfg=WARN");
+
+        beerOrderRepository = context.getBean(BeerOrderRepository.class);
+        EntityManager entityManager = SharedEntityManagerCreator.createSharedEntityManager(
+                context.getBean(EntityManagerFactory.class));
+
+        JpaRepositoryFactory repositoryFactory = new JpaRepositoryFactory(entityManager);
+        repositoryFactory.setEvaluationContextProvider(new ExtensionAwareQueryMethodEvaluationContextProvider(
+                List.of(new SecurityEvaluationContextExtension())));
+        legacyOrderRepository = repositoryFactory.getRepository(LegacyOrderRepository.class);
+
+        Customer stPete = context.getBean(CustomerRepository.class)
+                .findAllByCustomerName(DefaultBreweryLoader.ST_PETE_DISTRIBUTING).orElseThrow();
+        orderId = beerOrderRepository.findAllByCustomer(stPete, Pageable.unpaged()).getContent().get(0).getId();
+
+        UserDetails user = context.getBean(UserDetailsService.class).loadUserByUsername(username);
+        SecurityContextHolder.setStrategyName(SecurityContextHolder.MODE_GLOBAL);
+        SecurityContextHolder.getContext().setAuthentication(
+                new UsernamePasswordAuthenticationToken(user, null, user.getAuthorities()));
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        SecurityContextHolder.clearContext();
+        context.close();
+    }
+
+    @Benchmark
+    public BeerOrder legacySpelQuery() {
+        return legacyOrderRepository.findOrderByIdSecure(orderId);
+    }
+
+    @Benchmark
+    public BeerOrder customerScopedQuery() {
+        return beerOrderRepository.findScopedById(orderId).orElse(null);
+    }
+
+    /**
+     * The query removed from BeerOrderRepository, verbatim. Kept out of the application's repository scan.
+     */
+    @NoRepositoryBean
+    public interface LegacyOrderRepository extends Repository<BeerOrder, UUID> {
+
+        @Query("select o from BeerOrder o where o.id = ?1 and "
+                + "(true = :#{hasAuthority('order.read')} or o.customer.id = ?#{principal?.customerId})")
+        BeerOrder findOrderByIdSecure(UUID orderId);
+    }
+}
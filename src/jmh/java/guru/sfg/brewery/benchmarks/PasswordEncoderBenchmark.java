@@ -0,0 +1,70 @@
+package guru.sfg.brewery.benchmarks;
+
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.security.crypto.password.DelegatingPasswordEncoder;
+import org.springframework.security.crypto.password.PasswordEncoder;
+
+import guru.sfg.brewery.security.SfgPasswordEncoderFactories;
+
+/**
+ * encode/matches for every encoder registered in {@link SfgPasswordEncoderFactories}. {@code rawMatches}
+ * calls the encoder directly with the unprefixed hash, so {@code delegatingMatches - rawMatches} is the
+ * cost of the DelegatingPasswordEncoder prefix dispatch. Run bcrypt15 on its own ({@code -p encodingId=bcrypt15})
+ * if the whole set takes too long.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 2, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class PasswordEncoderBenchmark {
+
+    private static final String RAW_PASSWORD = "guru";
+
+    @Param({ "bcrypt", "bcrypt15", "sha256", "ldap", "noop" })
+    private String encodingId;
+
+    private PasswordEncoder delegating;
+    private PasswordEncoder encoder;
+    private String          prefixedHash;
+    private String          rawHash;
+
+    @Setup
+    public void setup() {
+        Map<String, PasswordEncoder> encoders = SfgPasswordEncoderFactories.createEncoders();
+        encoder = encoders.get(encodingId);
+        delegating = new DelegatingPasswordEncoder(encodingId, encoders);
+
+        rawHash = encoder.encode(RAW_PASSWORD);
+        prefixedHash = "{" + encodingId + "}" + rawHash;
+    }
+
+    @Benchmark
+    public String delegatingEncode() {
+        return delegating.encode(RAW_PASSWORD);
+    }
+
+    @Benchmark
+    public boolean delegatingMatches() {
+        return delegating.matches(RAW_PASSWORD, prefixedHash);
+    }
+
+    @Benchmark
+    public boolean rawMatches() {
+        return encoder.matches(RAW_PASSWORD, rawHash);
+    }
+}
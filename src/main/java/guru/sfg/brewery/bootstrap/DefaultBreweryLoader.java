@@ -25,7 +25,6 @@ import org.springframework.security.crypto.password.PasswordEncoder;
 import org.springframework.stereotype.Component;
 
 import guru.sfg.brewery.domain.Beer;
-import guru.sfg.brewery.domain.BeerInventory;
 import guru.sfg.brewery.domain.BeerOrder;
 import guru.sfg.brewery.domain.BeerOrderLine;
 import guru.sfg.brewery.domain.Brewery;
@@ -34,7 +33,6 @@ import guru.sfg.brewery.domain.OrderStatusEnum;
 import guru.sfg.brewery.domain.security.Authority;
 import guru.sfg.brewery.domain.security.Role;
 import guru.sfg.brewery.domain.security.User;
-import guru.sfg.brewery.repositories.BeerInventoryRepository;
 import guru.sfg.brewery.repositories.BeerOrderRepository;
 import guru.sfg.brewery.repositories.BeerRepository;
 import guru.sfg.brewery.repositories.BreweryRepository;
@@ -42,6 +40,8 @@ import guru.sfg.brewery.repositories.CustomerRepository;
 import guru.sfg.brewery.repositories.security.AuthorityRepository;
 import guru.sfg.brewery.repositories.security.RoleRepository;
 import guru.sfg.brewery.repositories.security.UserRepository;
+import guru.sfg.brewery.security.apikey.ApiKeyHasher;
+import guru.sfg.brewery.services.BeerInventoryService;
 import guru.sfg.brewery.web.model.BeerStyleEnum;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
@@ -85,19 +85,22 @@ public class DefaultBreweryLoader implements CommandLineRunner {
     public static final String DUNEDIN_USER          = "dunedin";
     public static final String STPETE_USER           = "stpete";
 
+    public static final String CUSTOMER_API_SECRET = "password";
+
     public static final String BEER_1_UPC = "0631234200036";
     public static final String BEER_2_UPC = "0631234300019";
     public static final String BEER_3_UPC = "0083783375213";
 
     private final BreweryRepository       breweryRepository;
     private final BeerRepository          beerRepository;
-    private final BeerInventoryRepository beerInventoryRepository;
+    private final BeerInventoryService    beerInventoryService;
     private final BeerOrderRepository     beerOrderRepository;
     private final CustomerRepository      customerRepository;
     private final AuthorityRepository     authorityRepository;
     private final RoleRepository          roleRepository;
     private final UserRepository          userRepository;
     private final PasswordEncoder         passwordEncoder;
+    private final ApiKeyHasher            apiKeyHasher;
 
     @Override
     public void run(String... args) {
@@ -117,16 +120,19 @@ public class DefaultBreweryLoader implements CommandLineRunner {
         Customer stPeteCustomer = customerRepository.save(Customer.builder()
                 .customerName(ST_PETE_DISTRIBUTING)
                 .apiKey(UUID.randomUUID())
+                .apiSecret(apiKeyHasher.encode(CUSTOMER_API_SECRET))
                 .build());
 
         Customer dunedinCustomer = customerRepository.save(Customer.builder()
                 .customerName(DUNEDIN_DISTRIBUTING)
                 .apiKey(UUID.randomUUID())
+                .apiSecret(apiKeyHasher.encode(CUSTOMER_API_SECRET))
                 .build());
 
         Customer keyWestCustomer = customerRepository.save(Customer.builder()
                 .customerName(KEY_WEST_DISTRIBUTORS)
                 .apiKey(UUID.randomUUID())
+                .apiSecret(apiKeyHasher.encode(CUSTOMER_API_SECRET))
                 .build());
 
         // create users
@@ -281,6 +287,7 @@ public class DefaultBreweryLoader implements CommandLineRunner {
         Customer tastingRoom = Customer.builder()
                 .customerName(TASTING_ROOM)
                 .apiKey(UUID.randomUUID())
+                .apiSecret(apiKeyHasher.encode(CUSTOMER_API_SECRET))
                 .build();
 
         customerRepository.save(tastingRoom);
@@ -313,10 +320,7 @@ public class DefaultBreweryLoader implements CommandLineRunner {
                     .build();
 
             beerRepository.save(mangoBobs);
-            beerInventoryRepository.save(BeerInventory.builder()
-                    .beer(mangoBobs)
-                    .quantityOnHand(500)
-                    .build());
+            beerInventoryService.addInventory(mangoBobs, 500);
 
             Beer galaxyCat = Beer.builder()
                     .beerName("Galaxy Cat")
@@ -327,10 +331,7 @@ public class DefaultBreweryLoader implements CommandLineRunner {
                     .build();
 
             beerRepository.save(galaxyCat);
-            beerInventoryRepository.save(BeerInventory.builder()
-                    .beer(galaxyCat)
-                    .quantityOnHand(500)
-                    .build());
+            beerInventoryService.addInventory(galaxyCat, 500);
 
             Beer pinball = Beer.builder()
                     .beerName("Pinball Porter")
@@ -341,10 +342,7 @@ public class DefaultBreweryLoader implements CommandLineRunner {
                     .build();
 
             beerRepository.save(pinball);
-            beerInventoryRepository.save(BeerInventory.builder()
-                    .beer(pinball)
-                    .quantityOnHand(500)
-                    .build());
+            beerInventoryService.addInventory(pinball, 500);
 
         }
     }
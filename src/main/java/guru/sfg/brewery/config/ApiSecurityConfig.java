@@ -0,0 +1,65 @@
+package guru.sfg.brewery.config;
+
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.annotation.Order;
+import org.springframework.security.authentication.AuthenticationProvider;
+import org.springframework.security.config.annotation.authentication.builders.AuthenticationManagerBuilder;
+import org.springframework.security.config.annotation.web.builders.HttpSecurity;
+import org.springframework.security.config.annotation.web.configuration.WebSecurityConfigurerAdapter;
+import org.springframework.security.config.http.SessionCreationPolicy;
+import org.springframework.security.web.authentication.www.BasicAuthenticationFilter;
+import org.springframework.security.web.session.SessionManagementFilter;
+import org.springframework.security.web.util.matcher.AnyRequestMatcher;
+
+import guru.sfg.brewery.security.apikey.ApiKeyAuthFilter;
+import guru.sfg.brewery.security.apikey.ApiKeyIndex;
+import guru.sfg.brewery.security.classify.RequestCategory;
+import guru.sfg.brewery.security.classify.RequestClassifier;
+import guru.sfg.brewery.security.google.Google2FaFilter;
+import guru.sfg.brewery.security.ratelimit.LoginRateLimitFilter;
+import guru.sfg.brewery.security.ratelimit.LoginRateLimiter;
+import guru.sfg.brewery.security.token.ApiTokenAuthFilter;
+import guru.sfg.brewery.security.token.ApiTokenService;
+import lombok.RequiredArgsConstructor;
+
+/**
+ * Stateless chain for {@code /api/**}: bearer token, API key or HTTP Basic on every call, no HTTP session,
+ * no remember-me. Ordered ahead of the form-login chain in {@link SecurityConfig}.
+ */
+@Order(1)
+@RequiredArgsConstructor
+@Configuration
+public class ApiSecurityConfig extends WebSecurityConfigurerAdapter {
+
+    private final AuthenticationProvider authenticationProvider;
+    private final ApiKeyIndex            apiKeyIndex;
+    private final ApiTokenService        apiTokenService;
+    private final Google2FaFilter        google2FaFilter;
+    private final LoginRateLimiter       loginRateLimiter;
+    private final RequestClassifier      requestClassifier;
+
+    @Override
+    protected void configure(AuthenticationManagerBuilder auth) throws Exception {
+        auth.authenticationProvider(authenticationProvider);
+    }
+
+    @Override
+    protected void configure(HttpSecurity http) throws Exception {
+        http.requestMatcher(requestClassifier.matcher(RequestCategory.API))
+                .addFilterBefore(new LoginRateLimitFilter(LoginRateLimitFilter.BASIC_AUTHENTICATION, loginRateLimiter),
+                        BasicAuthenticationFilter.class)
+                .addFilterBefore(new ApiTokenAuthFilter(apiTokenService), BasicAuthenticationFilter.class)
+                .addFilterBefore(new ApiKeyAuthFilter(AnyRequestMatcher.INSTANCE, apiKeyIndex),
+                        BasicAuthenticationFilter.class)
+                .addFilterBefore(google2FaFilter, SessionManagementFilter.class)
+                .cors()
+                .and()
+                .sessionManagement().sessionCreationPolicy(SessionCreationPolicy.STATELESS)
+                .and()
+                .authorizeRequests().anyRequest().authenticated()
+                .and()
+                .httpBasic()
+                .and()
+                .csrf().disable();
+    }
+}
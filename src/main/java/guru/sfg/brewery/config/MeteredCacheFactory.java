@@ -0,0 +1,59 @@
+package guru.sfg.brewery.config;
+
+import java.time.Duration;
+
+import org.springframework.boot.context.properties.bind.Binder;
+import org.springframework.core.env.Environment;
+import org.springframework.stereotype.Component;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+
+/**
+ * Bounded Caffeine caches with hit/miss/eviction metrics under the given cache name. The prefixed variants
+ * read {@code <prefix>.maximum-size} and {@code <prefix>.ttl}, falling back to the given defaults.
+ */
+@Component
+public class MeteredCacheFactory {
+
+    private final MeterRegistry meterRegistry;
+    private final Binder        binder;
+
+    public MeteredCacheFactory(MeterRegistry meterRegistry, Environment environment) {
+        this.meterRegistry = meterRegistry;
+        this.binder = Binder.get(environment);
+    }
+
+    public <K, V> Cache<K, V> expireAfterWrite(String name, String prefix, long defaultMaximumSize,
+            Duration defaultTtl) {
+        return expireAfterWrite(name, maximumSize(prefix, defaultMaximumSize), ttl(prefix, defaultTtl));
+    }
+
+    public <K, V> Cache<K, V> expireAfterWrite(String name, long maximumSize, Duration ttl) {
+        return monitor(name, Caffeine.newBuilder().maximumSize(maximumSize).expireAfterWrite(ttl));
+    }
+
+    public <K, V> Cache<K, V> expireAfterAccess(String name, String prefix, long defaultMaximumSize,
+            Duration defaultTtl) {
+        return expireAfterAccess(name, maximumSize(prefix, defaultMaximumSize), ttl(prefix, defaultTtl));
+    }
+
+    public <K, V> Cache<K, V> expireAfterAccess(String name, long maximumSize, Duration idle) {
+        return monitor(name, Caffeine.newBuilder().maximumSize(maximumSize).expireAfterAccess(idle));
+    }
+
+    private <K, V> Cache<K, V> monitor(String name, Caffeine<Object, Object> builder) {
+        return CaffeineCacheMetrics.monitor(meterRegistry, builder.recordStats().<K, V>build(), name);
+    }
+
+    private long maximumSize(String prefix, long defaultMaximumSize) {
+        return binder.bind(prefix + ".maximum-size", Long.class).orElse(defaultMaximumSize);
+    }
+
+    private Duration ttl(String prefix, Duration defaultTtl) {
+        return binder.bind(prefix + ".ttl", Duration.class).orElse(defaultTtl);
+    }
+}
@@ -0,0 +1,26 @@
+package guru.sfg.brewery.config;
+
+import org.springframework.context.ApplicationContext;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.security.access.expression.method.MethodSecurityExpressionHandler;
+import org.springframework.security.config.annotation.method.configuration.EnableGlobalMethodSecurity;
+import org.springframework.security.config.annotation.method.configuration.GlobalMethodSecurityConfiguration;
+
+import guru.sfg.brewery.security.PermissionMaskMethodSecurityExpressionHandler;
+import lombok.RequiredArgsConstructor;
+
+@RequiredArgsConstructor
+@Configuration
+@EnableGlobalMethodSecurity(prePostEnabled = true)
+public class MethodSecurityConfig extends GlobalMethodSecurityConfiguration {
+
+    private final ApplicationContext applicationContext;
+
+    @Override
+    protected MethodSecurityExpressionHandler createExpressionHandler() {
+        PermissionMaskMethodSecurityExpressionHandler expressionHandler = new PermissionMaskMethodSecurityExpressionHandler();
+        // Resolves bean references such as @beerOrderAuthenticationManager in the perms expressions.
+        expressionHandler.setApplicationContext(applicationContext);
+        return expressionHandler;
+    }
+}
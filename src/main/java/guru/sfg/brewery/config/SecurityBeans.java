@@ -1,27 +1,34 @@
 package guru.sfg.brewery.config;
 
-import javax.sql.DataSource;
+import java.time.Duration;
 
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 import org.springframework.security.authentication.AuthenticationEventPublisher;
 import org.springframework.security.authentication.DefaultAuthenticationEventPublisher;
+import org.springframework.security.core.userdetails.UserDetailsService;
 import org.springframework.security.crypto.password.PasswordEncoder;
-import org.springframework.security.web.authentication.rememberme.JdbcTokenRepositoryImpl;
-import org.springframework.security.web.authentication.rememberme.PersistentTokenRepository;
 
 import com.warrenstrange.googleauth.GoogleAuthenticator;
 import com.warrenstrange.googleauth.GoogleAuthenticatorConfig;
 import com.warrenstrange.googleauth.ICredentialRepository;
 
+import guru.sfg.brewery.security.BCryptStrengthCalibrator;
+import guru.sfg.brewery.security.CachingDaoAuthenticationProvider;
+import guru.sfg.brewery.security.PasswordUpgradeService;
 import guru.sfg.brewery.security.SfgPasswordEncoderFactories;
+import guru.sfg.brewery.security.VerifiedCredentialCache;
+import guru.sfg.brewery.security.hashing.BoundedPasswordEncoder;
+import guru.sfg.brewery.security.ratelimit.LoginRateLimiter;
+import io.micrometer.core.instrument.MeterRegistry;
 
 @Configuration
 public class SecurityBeans {
 
     @Bean
-    GoogleAuthenticator googleAuthenticator(ICredentialRepository credentialRepository) {
+    GoogleAuthenticatorConfig googleAuthenticatorConfig() {
         GoogleAuthenticatorConfig.GoogleAuthenticatorConfigBuilder configBuilder = new GoogleAuthenticatorConfig.GoogleAuthenticatorConfigBuilder();
 
 //        configBuilder
@@ -29,7 +36,13 @@ public class SecurityBeans {
 //                .setWindowSize(10)
 //                .setNumberOfScratchCodes(0);
 
-        GoogleAuthenticator googleAuthenticator = new GoogleAuthenticator(configBuilder.build());
+        return configBuilder.build();
+    }
+
+    @Bean
+    GoogleAuthenticator googleAuthenticator(GoogleAuthenticatorConfig googleAuthenticatorConfig,
+            ICredentialRepository credentialRepository) {
+        GoogleAuthenticator googleAuthenticator = new GoogleAuthenticator(googleAuthenticatorConfig);
         googleAuthenticator.setCredentialRepository(credentialRepository);
         return googleAuthenticator;
     }
@@ -39,15 +52,28 @@ public class SecurityBeans {
         return new DefaultAuthenticationEventPublisher();
     }
 
-    @Bean
-    PersistentTokenRepository persistentTokenRepository(DataSource dataSource) {
-        JdbcTokenRepositoryImpl tokenRepository = new JdbcTokenRepositoryImpl();
-        tokenRepository.setDataSource(dataSource);
-        return tokenRepository;
+    @Bean(destroyMethod = "shutdown")
+    PasswordEncoder passwordEncoder(BCryptStrengthCalibrator bcryptStrengthCalibrator, MeterRegistry meterRegistry,
+            @Value("${sfg.security.password-hashing.threads:0}") int threads,
+            @Value("${sfg.security.password-hashing.queue-capacity:0}") int queueCapacity,
+            @Value("${sfg.security.password-hashing.wait-timeout:2s}") Duration waitTimeout) {
+        // 0 = size to the host: one hashing thread per core, four queued hashes per thread.
+        int hashingThreads = threads > 0 ? threads : Runtime.getRuntime().availableProcessors();
+        int hashingQueue = queueCapacity > 0 ? queueCapacity : hashingThreads * 4;
+        return new BoundedPasswordEncoder(
+                SfgPasswordEncoderFactories.createDelegatingPasswordEncoder(bcryptStrengthCalibrator.getStrength()),
+                hashingThreads, hashingQueue, waitTimeout, meterRegistry);
     }
-    
+
     @Bean
-    PasswordEncoder passwordEncoder() {
-        return SfgPasswordEncoderFactories.createDelegatingPasswordEncoder();
+    CachingDaoAuthenticationProvider authenticationProvider(UserDetailsService userDetailsService,
+            PasswordEncoder passwordEncoder, VerifiedCredentialCache verifiedCredentialCache,
+            PasswordUpgradeService passwordUpgradeService, LoginRateLimiter loginRateLimiter) {
+        // No UserDetailsPasswordService here: upgrades are queued by the provider, see PasswordUpgradeService.
+        CachingDaoAuthenticationProvider authenticationProvider = new CachingDaoAuthenticationProvider(
+                verifiedCredentialCache, passwordUpgradeService, loginRateLimiter);
+        authenticationProvider.setUserDetailsService(userDetailsService);
+        authenticationProvider.setPasswordEncoder(passwordEncoder);
+        return authenticationProvider;
     }
 }
@@ -1,35 +1,45 @@
 package guru.sfg.brewery.config;
 
-import org.springframework.context.annotation.Bean;
+import java.util.UUID;
+
 import org.springframework.context.annotation.Configuration;
 import org.springframework.security.authentication.AuthenticationManager;
-import org.springframework.security.config.annotation.method.configuration.EnableGlobalMethodSecurity;
+import org.springframework.security.authentication.AuthenticationProvider;
+import org.springframework.security.config.annotation.authentication.builders.AuthenticationManagerBuilder;
 import org.springframework.security.config.annotation.web.builders.HttpSecurity;
 import org.springframework.security.config.annotation.web.configuration.EnableWebSecurity;
 import org.springframework.security.config.annotation.web.configuration.WebSecurityConfigurerAdapter;
 import org.springframework.security.core.userdetails.UserDetailsService;
 import org.springframework.security.crypto.password.PasswordEncoder;
-import org.springframework.security.data.repository.query.SecurityEvaluationContextExtension;
-import org.springframework.security.web.authentication.rememberme.PersistentTokenRepository;
+import org.springframework.security.web.authentication.UsernamePasswordAuthenticationFilter;
 import org.springframework.security.web.session.SessionManagementFilter;
 import org.springframework.security.web.util.matcher.AntPathRequestMatcher;
+import org.springframework.security.web.util.matcher.OrRequestMatcher;
 
 import guru.sfg.brewery.security.AbstractRestAuthFilter;
 import guru.sfg.brewery.security.RestHeaderAuthFilter;
 import guru.sfg.brewery.security.RestUrlAuthFilter;
 import guru.sfg.brewery.security.SfgPasswordEncoderFactories;
+import guru.sfg.brewery.security.classify.RequestCategory;
+import guru.sfg.brewery.security.classify.RequestClassifier;
 import guru.sfg.brewery.security.google.Google2FaFilter;
+import guru.sfg.brewery.security.ratelimit.LoginRateLimitFilter;
+import guru.sfg.brewery.security.ratelimit.LoginRateLimiter;
+import guru.sfg.brewery.security.rememberme.CachedTokenRememberMeServices;
+import guru.sfg.brewery.security.rememberme.CoalescingPersistentTokenRepository;
 import lombok.RequiredArgsConstructor;
 
 @RequiredArgsConstructor
 @Configuration
 @EnableWebSecurity
-@EnableGlobalMethodSecurity(prePostEnabled = true)
 public class SecurityConfig extends WebSecurityConfigurerAdapter {
 
     private final UserDetailsService userDetailsService;
-    private final PersistentTokenRepository persistentTokenRepository;
+    private final CoalescingPersistentTokenRepository persistentTokenRepository;
     private final Google2FaFilter google2FaFilter;
+    private final AuthenticationProvider authenticationProvider;
+    private final LoginRateLimiter loginRateLimiter;
+    private final RequestClassifier requestClassifier;
     
     @SuppressWarnings("unused")
     private AbstractRestAuthFilter restHeaderAuthFilter(AuthenticationManager authenticationManager) {
@@ -45,16 +55,12 @@ public class SecurityConfig extends WebSecurityConfigurerAdapter {
         return filter;
     }
 
-    @Bean
-    SecurityEvaluationContextExtension securityEvaluationContextExtension() {
-        return new SecurityEvaluationContextExtension();
-    }
-
 //    @Autowired
 //    JpaUserDetailsService jpaUserDetailsService;
 
     @Override
     protected void configure(HttpSecurity http) throws Exception {
+        // /api/** is handled by the stateless chain in ApiSecurityConfig.
 //        http.addFilterBefore(
 //                restHeaderAuthFilter(authenticationManager()),
 //                UsernamePasswordAuthenticationFilter.class)
@@ -65,11 +71,14 @@ public class SecurityConfig extends WebSecurityConfigurerAdapter {
 //        // Don't need to re-disable csrf() protection as this setting is global.
 
         http.addFilterBefore(google2FaFilter, SessionManagementFilter.class);
+        http.addFilterBefore(new LoginRateLimitFilter(new OrRequestMatcher(
+                new AntPathRequestMatcher("/login", "POST"), LoginRateLimitFilter.BASIC_AUTHENTICATION), loginRateLimiter),
+                UsernamePasswordAuthenticationFilter.class);
         http.cors()
         .and()
         .authorizeRequests(authorize -> {
             authorize
-                    .antMatchers("/h2-console/**").permitAll() // NOT FOR PROD
+                    .requestMatchers(requestClassifier.matcher(RequestCategory.H2_CONSOLE)).permitAll() // NOT FOR PROD
                     .antMatchers("/", "/webjars/**", "/login", "/resources/**").permitAll();
 
         })
@@ -90,14 +99,25 @@ public class SecurityConfig extends WebSecurityConfigurerAdapter {
                             .permitAll();
                 })
                 .httpBasic()
-                .and().csrf().ignoringAntMatchers("/h2-console/**", "/api/**")
+                .and().csrf().ignoringRequestMatchers(requestClassifier.matcher(RequestCategory.H2_CONSOLE),
+                        requestClassifier.matcher(RequestCategory.API))
                 // .and().rememberMe().key("sfg-key").userDetailsService(userDetailsService);
-                .and().rememberMe().tokenRepository(persistentTokenRepository).userDetailsService(userDetailsService);
+                .and().rememberMe(rememberMeConfigurer -> {
+                    String key = UUID.randomUUID().toString();
+                    rememberMeConfigurer.key(key).rememberMeServices(
+                            new CachedTokenRememberMeServices(key, userDetailsService, persistentTokenRepository));
+                });
 
         // h2 console config
         http.headers().frameOptions().sameOrigin();
     }
 
+    @Override
+    protected void configure(AuthenticationManagerBuilder auth) throws Exception {
+        // JpaUserDetailsService + PasswordEncoder, fronted by the verified credential cache.
+        auth.authenticationProvider(authenticationProvider);
+    }
+
     // REPLACED BY JpaUserDetailsService.java
 //    @Override
 //    protected void configure(AuthenticationManagerBuilder auth) throws Exception {
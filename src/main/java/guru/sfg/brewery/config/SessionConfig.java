@@ -0,0 +1,27 @@
+package guru.sfg.brewery.config;
+
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.convert.ConversionService;
+import org.springframework.core.convert.support.GenericConversionService;
+
+import guru.sfg.brewery.security.session.CompactSessionSerializer;
+import io.micrometer.core.instrument.MeterRegistry;
+
+/**
+ * HTTP sessions are kept in the JDBC session store ({@code spring.session.store-type=jdbc}); this supplies
+ * the attribute serialization it uses.
+ */
+@Configuration
+public class SessionConfig {
+
+    @Bean
+    ConversionService springSessionConversionService(MeterRegistry meterRegistry) {
+        CompactSessionSerializer serializer = new CompactSessionSerializer(meterRegistry);
+
+        GenericConversionService conversionService = new GenericConversionService();
+        conversionService.addConverter(Object.class, byte[].class, serializer::serialize);
+        conversionService.addConverter(byte[].class, Object.class, serializer::deserialize);
+        return conversionService;
+    }
+}
@@ -23,11 +23,15 @@ import lombok.NoArgsConstructor;
 import lombok.Setter;
 import org.hibernate.annotations.Fetch;
 import org.hibernate.annotations.FetchMode;
+import org.hibernate.annotations.Generated;
+import org.hibernate.annotations.GenerationTime;
 
 import javax.persistence.CascadeType;
 import javax.persistence.Column;
 import javax.persistence.Entity;
+import javax.persistence.Index;
 import javax.persistence.OneToMany;
+import javax.persistence.Table;
 import java.math.BigDecimal;
 import java.sql.Timestamp;
 import java.util.HashSet;
@@ -40,6 +44,7 @@ import java.util.UUID;
 @Getter
 @Setter
 @Entity
+@Table(indexes = @Index(name = "beer_name_id_idx", columnList = "beerName, id"))
 @NoArgsConstructor
 public class Beer extends BaseEntity {
 
@@ -70,6 +75,14 @@ public class Beer extends BaseEntity {
     private Integer quantityToBrew;
     private BigDecimal price;
 
+    /**
+     * Sum of the beer's inventory rows, maintained by BeerInventoryService and checked by
+     * BeerQuantityReconciler. Never written through the entity; re-read after every insert/update.
+     */
+    @Generated(GenerationTime.ALWAYS)
+    @Column(insertable = false, updatable = false, columnDefinition = "integer default 0 not null")
+    private Integer quantityOnHand;
+
     @OneToMany(mappedBy = "beer", cascade = CascadeType.ALL)
     @Fetch(FetchMode.JOIN)
     private Set<BeerInventory> beerInventory = new HashSet<>();
@@ -44,10 +44,11 @@ public class Customer extends BaseEntity {
 
     @Builder
     public Customer(UUID id, Long version, Timestamp createdDate, Timestamp lastModifiedDate, String customerName,
-                    UUID apiKey, Set<BeerOrder> beerOrders) {
+                    UUID apiKey, String apiSecret, Set<BeerOrder> beerOrders) {
         super(id, version, createdDate, lastModifiedDate);
         this.customerName = customerName;
         this.apiKey = apiKey;
+        this.apiSecret = apiSecret;
         this.beerOrders = beerOrders;
     }
 
@@ -56,6 +57,12 @@ public class Customer extends BaseEntity {
     @Column(length = 36, columnDefinition = "varchar")
     private UUID apiKey;
 
+    /**
+     * Keyed hash (hex) of the API secret, see ApiKeyHasher.
+     */
+    @Column(length = 64)
+    private String apiSecret;
+
     @OneToMany(mappedBy = "customer")
     private Set<BeerOrder> beerOrders;
 
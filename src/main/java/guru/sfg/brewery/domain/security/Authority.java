@@ -3,10 +3,12 @@ package guru.sfg.brewery.domain.security;
 import java.util.Set;
 
 import javax.persistence.Entity;
+import javax.persistence.EntityListeners;
 import javax.persistence.GeneratedValue;
 import javax.persistence.GenerationType;
 import javax.persistence.Id;
 import javax.persistence.ManyToMany;
+import javax.persistence.Version;
 
 import lombok.AllArgsConstructor;
 import lombok.Builder;
@@ -15,6 +17,7 @@ import lombok.NoArgsConstructor;
 import lombok.Setter;
 
 @Entity
+@EntityListeners(AuthorityChangeListener.class)
 @NoArgsConstructor
 @AllArgsConstructor
 @Getter
@@ -26,6 +29,9 @@ public class Authority {
     private Integer id;
 
     private String permission;
+
+    @Version
+    private Long version;
     
     @ManyToMany(mappedBy = "authorities")
     private Set<Role> roles;
@@ -0,0 +1,33 @@
+package guru.sfg.brewery.domain.security;
+
+import javax.persistence.PostPersist;
+import javax.persistence.PostRemove;
+import javax.persistence.PostUpdate;
+
+import org.springframework.transaction.support.TransactionSynchronizationAdapter;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+/**
+ * Invalidates compiled authority sets whenever a {@link Role} or {@link Authority} is written. Both are
+ * versioned, so a change to a role's authorities alone also bumps the role and reaches this listener.
+ * Inside a transaction the sets are invalidated again after commit, so nothing compiled from the old rows
+ * in the meantime survives.
+ */
+public class AuthorityChangeListener {
+
+    @PostPersist
+    @PostUpdate
+    @PostRemove
+    public void onChange(Object entity) {
+        AuthoritySets.invalidate();
+
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronizationAdapter() {
+                @Override
+                public void afterCommit() {
+                    AuthoritySets.invalidate();
+                }
+            });
+        }
+    }
+}
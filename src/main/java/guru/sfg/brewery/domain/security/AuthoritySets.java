@@ -0,0 +1,86 @@
+package guru.sfg.brewery.domain.security;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.springframework.security.core.GrantedAuthority;
+import org.springframework.security.core.authority.SimpleGrantedAuthority;
+
+/**
+ * Compiles the role -> authority graph into immutable authority sets, shared by every user holding the
+ * same combination of roles. Authorities themselves are interned, so the same permission is always the
+ * same {@link GrantedAuthority} instance. Any change to a {@link Role} or {@link Authority} bumps the
+ * version, and sets compiled against an older version are rebuilt on next use.
+ */
+public final class AuthoritySets {
+
+    private static final AtomicLong                                       VERSION     = new AtomicLong();
+    private static final ConcurrentMap<String, GrantedAuthority>          AUTHORITIES = new ConcurrentHashMap<>();
+    private static final ConcurrentMap<List<Integer>, CompiledAuthorities> BY_ROLES    = new ConcurrentHashMap<>();
+
+    private AuthoritySets() {
+    }
+
+    public static long version() {
+        return VERSION.get();
+    }
+
+    public static void invalidate() {
+        VERSION.incrementAndGet();
+        BY_ROLES.clear();
+    }
+
+    public static GrantedAuthority authority(String permission) {
+        return AUTHORITIES.computeIfAbsent(permission, SimpleGrantedAuthority::new);
+    }
+
+    public static CompiledAuthorities compile(Collection<Role> roles) {
+        if (roles == null || roles.isEmpty()) {
+            return new CompiledAuthorities(Collections.emptySet(), version());
+        }
+
+        List<Integer> key = new ArrayList<>(roles.size());
+        for (Role role : roles) {
+            if (role.getId() == null) {
+                // Unsaved (synthetic) role: nothing stable to key on.
+                return build(roles);
+            }
+            key.add(role.getId());
+        }
+        Collections.sort(key);
+
+        CompiledAuthorities compiled = BY_ROLES.get(key);
+        if (compiled == null || !compiled.isCurrent()) {
+            compiled = build(roles);
+            BY_ROLES.put(key, compiled);
+        }
+        return compiled;
+    }
+
+    /**
+     * Compiles a plain list of permissions, e.g. from a token. Not cached.
+     */
+    public static CompiledAuthorities ofPermissions(Collection<String> permissions) {
+        Set<GrantedAuthority> authorities = new HashSet<>();
+        permissions.forEach(permission -> authorities.add(authority(permission)));
+        return new CompiledAuthorities(Collections.unmodifiableSet(authorities), version());
+    }
+
+    private static CompiledAuthorities build(Collection<Role> roles) {
+        long version = version();
+        Set<GrantedAuthority> authorities = new HashSet<>();
+        for (Role role : roles) {
+            if (role.getAuthorities() != null) {
+                role.getAuthorities().forEach(authority -> authorities.add(authority(authority.getPermission())));
+            }
+        }
+        return new CompiledAuthorities(Collections.unmodifiableSet(authorities), version);
+    }
+}
@@ -0,0 +1,41 @@
+package guru.sfg.brewery.domain.security;
+
+import java.io.Serializable;
+import java.util.Set;
+
+import org.springframework.security.core.GrantedAuthority;
+
+import lombok.Getter;
+
+/**
+ * Immutable, interned authority set for one combination of roles, stamped with the
+ * {@link AuthoritySets#version() version} it was compiled against. Registered permissions are also held
+ * as a {@link PermissionRegistry} bit mask.
+ */
+@Getter
+public class CompiledAuthorities implements Serializable {
+
+    private static final long serialVersionUID = 6406917317342370547L;
+
+    private final Set<GrantedAuthority> authorities;
+    private final long                  mask;
+    private final long                  version;
+
+    public CompiledAuthorities(Set<GrantedAuthority> authorities, long version) {
+        this.authorities = authorities;
+        this.mask = PermissionRegistry.mask(authorities);
+        this.version = version;
+    }
+
+    public boolean isCurrent() {
+        return version == AuthoritySets.version();
+    }
+
+    public boolean hasAuthority(String permission) {
+        long bit = PermissionRegistry.bit(permission);
+        if (bit != 0L) {
+            return (mask & bit) != 0L;
+        }
+        return authorities.contains(AuthoritySets.authority(permission));
+    }
+}
@@ -0,0 +1,87 @@
+package guru.sfg.brewery.domain.security;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import org.springframework.security.core.GrantedAuthority;
+
+import guru.sfg.brewery.bootstrap.DefaultBreweryLoader;
+
+/**
+ * Fixed bit positions for the brewery permissions. Positions follow the declaration order below, so a
+ * mask means the same thing in every node and across restarts; only ever append to the list. Permissions
+ * that are not registered have no bit and are checked against the authority set instead.
+ */
+public final class PermissionRegistry {
+
+    // @formatter:off
+    private static final List<String> PERMISSIONS = List.of(
+            DefaultBreweryLoader.PERMISSION_BEER_CREATE,
+            DefaultBreweryLoader.PERMISSION_BEER_READ,
+            DefaultBreweryLoader.PERMISSION_BEER_UPDATE,
+            DefaultBreweryLoader.PERMISSION_BEER_DELETE,
+            DefaultBreweryLoader.PERMISSION_CUSTOMER_CREATE,
+            DefaultBreweryLoader.PERMISSION_CUSTOMER_READ,
+            DefaultBreweryLoader.PERMISSION_CUSTOMER_UPDATE,
+            DefaultBreweryLoader.PERMISSION_CUSTOMER_DELETE,
+            DefaultBreweryLoader.PERMISSION_BREWERY_CREATE,
+            DefaultBreweryLoader.PERMISSION_BREWERY_READ,
+            DefaultBreweryLoader.PERMISSION_BREWERY_UPDATE,
+            DefaultBreweryLoader.PERMISSION_BREWERY_DELETE,
+            DefaultBreweryLoader.PERMISSION_ORDER_CREATE,
+            DefaultBreweryLoader.PERMISSION_ORDER_READ,
+            DefaultBreweryLoader.PERMISSION_ORDER_PICKUP,
+            DefaultBreweryLoader.PERMISSION_CUSTOMER_ORDER_CREATE,
+            DefaultBreweryLoader.PERMISSION_CUSTOMER_ORDER_READ,
+            DefaultBreweryLoader.PERMISSION_CUSTOMER_ORDER_PICKUP);
+    // @formatter:on
+
+    private static final Map<String, Long> BITS;
+
+    static {
+        if (PERMISSIONS.size() > Long.SIZE) {
+            throw new IllegalStateException("At most " + Long.SIZE + " permissions fit in a mask");
+        }
+        Map<String, Long> bits = new HashMap<>();
+        for (int i = 0; i < PERMISSIONS.size(); i++) {
+            bits.put(PERMISSIONS.get(i), 1L << i);
+        }
+        BITS = Collections.unmodifiableMap(bits);
+    }
+
+    private PermissionRegistry() {
+    }
+
+    /**
+     * @return the bit for the permission, or {@code 0} if it is not registered.
+     */
+    public static long bit(String permission) {
+        Long bit = BITS.get(permission);
+        return bit == null ? 0L : bit;
+    }
+
+    /**
+     * @return the registered permissions whose bits are set in the mask.
+     */
+    public static List<String> permissions(long mask) {
+        List<String> permissions = new ArrayList<>(Long.bitCount(mask));
+        for (int i = 0; i < PERMISSIONS.size(); i++) {
+            if ((mask & (1L << i)) != 0L) {
+                permissions.add(PERMISSIONS.get(i));
+            }
+        }
+        return permissions;
+    }
+
+    public static long mask(Collection<? extends GrantedAuthority> authorities) {
+        long mask = 0L;
+        for (GrantedAuthority authority : authorities) {
+            mask |= bit(authority.getAuthority());
+        }
+        return mask;
+    }
+}
@@ -4,6 +4,7 @@ import java.util.Set;
 
 import javax.persistence.CascadeType;
 import javax.persistence.Entity;
+import javax.persistence.EntityListeners;
 import javax.persistence.FetchType;
 import javax.persistence.GeneratedValue;
 import javax.persistence.GenerationType;
@@ -11,6 +12,7 @@ import javax.persistence.Id;
 import javax.persistence.JoinColumn;
 import javax.persistence.JoinTable;
 import javax.persistence.ManyToMany;
+import javax.persistence.Version;
 
 import lombok.AllArgsConstructor;
 import lombok.Builder;
@@ -20,6 +22,7 @@ import lombok.Setter;
 import lombok.Singular;
 
 @Entity
+@EntityListeners(AuthorityChangeListener.class)
 @NoArgsConstructor
 @AllArgsConstructor
 @Getter
@@ -33,6 +36,10 @@ public class Role {
 
     private String name;
 
+    // Makes Hibernate write (and call the listener) when only the authorities collection changes.
+    @Version
+    private Long version;
+
     @ManyToMany(mappedBy = "roles")
     private Set<User> users;
     
@@ -2,6 +2,7 @@ package guru.sfg.brewery.domain.security;
 
 import java.sql.Timestamp;
 import java.util.Set;
+import java.util.concurrent.atomic.AtomicReference;
 import java.util.stream.Collectors;
 
 import javax.persistence.CascadeType;
@@ -11,20 +12,22 @@ import javax.persistence.FetchType;
 import javax.persistence.GeneratedValue;
 import javax.persistence.GenerationType;
 import javax.persistence.Id;
+import javax.persistence.Index;
 import javax.persistence.JoinTable;
 import javax.persistence.JoinColumn;
 import javax.persistence.ManyToMany;
 import javax.persistence.ManyToOne;
+import javax.persistence.Table;
 import javax.persistence.Transient;
 
 import org.hibernate.annotations.CreationTimestamp;
 import org.hibernate.annotations.UpdateTimestamp;
 import org.springframework.security.core.CredentialsContainer;
 import org.springframework.security.core.GrantedAuthority;
-import org.springframework.security.core.authority.SimpleGrantedAuthority;
 import org.springframework.security.core.userdetails.UserDetails;
 
 import guru.sfg.brewery.domain.Customer;
+import lombok.AccessLevel;
 import lombok.AllArgsConstructor;
 import lombok.Builder;
 import lombok.Getter;
@@ -37,7 +40,8 @@ import lombok.Singular;
 @AllArgsConstructor
 @Getter
 @Setter
-@Builder
+@Builder(toBuilder = true)
+@Table(indexes = @Index(name = "user_username_idx", columnList = "username", unique = true))
 public class User implements UserDetails, CredentialsContainer {
 
     private static final long serialVersionUID = -2260149435746983421L;
@@ -82,13 +86,29 @@ public class User implements UserDetails, CredentialsContainer {
     // @formatter:off
     private Set<Role> roles;
 
+    // Initialised final field: left out of the builder and constructors, fresh for every copy.
+    @Transient
+    @Getter(AccessLevel.NONE)
+    private final AtomicReference<CompiledAuthorities> compiledAuthorities = new AtomicReference<>();
+
     @Transient
     public Set<GrantedAuthority> getAuthorities() {
-        return this.roles.stream()
-                .map(Role::getAuthorities) // stream of authority sets.
-                .flatMap(Set::stream) // Build stream from each set in outer strean and flatten into single stream.
-                .map(authority -> new SimpleGrantedAuthority(authority.getPermission()))
-                .collect(Collectors.toSet()); // Collect back into set.
+        return getCompiledAuthorities().getAuthorities();
+    }
+
+    public void setRoles(Set<Role> roles) {
+        this.roles = roles;
+        compiledAuthorities.set(null);
+    }
+
+    @Transient
+    public CompiledAuthorities getCompiledAuthorities() {
+        CompiledAuthorities compiled = compiledAuthorities.get();
+        if (compiled == null || !compiled.isCurrent()) {
+            compiled = AuthoritySets.compile(roles);
+            compiledAuthorities.set(compiled);
+        }
+        return compiled;
     }
    
     @Override
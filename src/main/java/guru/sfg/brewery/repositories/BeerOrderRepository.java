@@ -21,27 +21,41 @@ import guru.sfg.brewery.domain.Customer;
 import guru.sfg.brewery.domain.OrderStatusEnum;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Lock;
 import org.springframework.data.jpa.repository.Query;
 
 import javax.persistence.LockModeType;
+import java.sql.Timestamp;
 import java.util.List;
 import java.util.UUID;
 
 /**
  * Created by jt on 2019-01-26.
  */
-public interface BeerOrderRepository  extends JpaRepository<BeerOrder, UUID> {
+public interface BeerOrderRepository  extends JpaRepository<BeerOrder, UUID>, CustomerScopedOrderRepository {
 
     Page<BeerOrder> findAllByCustomer(Customer customer, Pageable pageable);
 
+    /**
+     * Spring Data reads one row past the page to decide {@code hasNext}, and runs no count query.
+     */
+    Slice<BeerOrder> findSliceByCustomer(Customer customer, Pageable pageable);
+
+    List<BeerOrder> findAllByCustomerIdOrderByCreatedDateDescIdDesc(UUID customerId, Pageable pageable);
+
+    /**
+     * Keyset page of a customer's orders, newest first, after the given one; the pageable only limits.
+     */
+    @Query("select o from BeerOrder o where o.customer.id = ?1 and o.createdDate <= ?2 "
+            + "and (o.createdDate < ?2 or o.id < ?3) order by o.createdDate desc, o.id desc")
+    List<BeerOrder> findAllByCustomerIdBefore(UUID customerId, Timestamp createdDate, UUID id, Pageable pageable);
+
+    long countByCustomerId(UUID customerId);
+
     List<BeerOrder> findAllByOrderStatus(OrderStatusEnum orderStatusEnum);
 
     @Lock(LockModeType.PESSIMISTIC_WRITE)
     BeerOrder findOneById(UUID id);
-
-    @Query("select o from BeerOrder o where o.id = ?1 and "
-            + "(true = :#{hasAuthority('order.read')} or o.customer.id = ?#{principal?.customer?.id})")
-    BeerOrder findOrderByIdSecure(UUID orderId);
 }
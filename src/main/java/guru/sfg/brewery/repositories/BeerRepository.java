@@ -21,13 +21,18 @@ import guru.sfg.brewery.web.model.BeerStyleEnum;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.transaction.annotation.Transactional;
 
+import java.util.Collection;
+import java.util.List;
 import java.util.UUID;
 
 /**
  * Created by jt on 2019-01-26.
  */
-public interface BeerRepository extends JpaRepository<Beer, UUID> {
+public interface BeerRepository extends JpaRepository<Beer, UUID>, BeerSummaryRepository {
     
     Page<Beer> findAllByBeerName(String beerName, Pageable pageable);
 
@@ -38,4 +43,23 @@ public interface BeerRepository extends JpaRepository<Beer, UUID> {
     Page<Beer> findAllByBeerNameAndBeerStyle(String beerName, BeerStyleEnum beerStyle, Pageable pageable);
 
     Beer findByUpc(String upc);
+
+    /**
+     * Applies an inventory change to the maintained total; call in the transaction that changed the inventory.
+     */
+    @Modifying
+    @Query("update Beer b set b.quantityOnHand = b.quantityOnHand + ?2 where b.id = ?1")
+    int adjustQuantityOnHand(UUID beerId, int delta);
+
+    @Query("select b.id from Beer b where b.quantityOnHand <> "
+            + "(select coalesce(sum(i.quantityOnHand), 0) from BeerInventory i where i.beer = b)")
+    List<UUID> findBeerIdsWithQuantityDrift();
+
+    @Transactional
+    @Modifying
+    @Query("update Beer b set b.quantityOnHand = "
+            + "(select coalesce(sum(i.quantityOnHand), 0) from BeerInventory i where i.beer.id = b.id) "
+            + "where b.id in ?1 and b.quantityOnHand <> "
+            + "(select coalesce(sum(i.quantityOnHand), 0) from BeerInventory i where i.beer.id = b.id)")
+    int recomputeQuantityOnHand(Collection<UUID> beerIds);
 }
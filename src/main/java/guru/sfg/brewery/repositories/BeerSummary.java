@@ -0,0 +1,47 @@
+package guru.sfg.brewery.repositories;
+
+import java.math.BigDecimal;
+import java.sql.Timestamp;
+import java.util.UUID;
+
+import guru.sfg.brewery.web.model.BeerStyleEnum;
+import lombok.Getter;
+
+/**
+ * Beer columns read straight into a constructor expression, without loading the entity or its inventory.
+ * {@code quantityOnHand} is only set by the queries that aggregate it.
+ */
+@Getter
+public class BeerSummary {
+
+    private final UUID          id;
+    private final Long          version;
+    private final Timestamp     createdDate;
+    private final Timestamp     lastModifiedDate;
+    private final String        beerName;
+    private final BeerStyleEnum beerStyle;
+    private final String        upc;
+    private final BigDecimal    price;
+    private final Integer       quantityOnHand;
+
+    public BeerSummary(UUID id, Long version, Timestamp createdDate, Timestamp lastModifiedDate, String beerName,
+            BeerStyleEnum beerStyle, String upc, BigDecimal price) {
+        this(id, version, createdDate, lastModifiedDate, beerName, beerStyle, upc, price, null);
+    }
+
+    /**
+     * @param quantityOnHand the beer's maintained on-hand total, see {@code Beer.quantityOnHand}.
+     */
+    public BeerSummary(UUID id, Long version, Timestamp createdDate, Timestamp lastModifiedDate, String beerName,
+            BeerStyleEnum beerStyle, String upc, BigDecimal price, Integer quantityOnHand) {
+        this.id = id;
+        this.version = version;
+        this.createdDate = createdDate;
+        this.lastModifiedDate = lastModifiedDate;
+        this.beerName = beerName;
+        this.beerStyle = beerStyle;
+        this.upc = upc;
+        this.price = price;
+        this.quantityOnHand = quantityOnHand;
+    }
+}
@@ -0,0 +1,48 @@
+package guru.sfg.brewery.repositories;
+
+import java.util.List;
+import java.util.Optional;
+import java.util.UUID;
+
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
+
+import guru.sfg.brewery.web.model.BeerStyleEnum;
+
+/**
+ * {@link BeerSummary} reads. Neither view touches {@code beer_inventory}; {@code withQuantityOnHand} adds the
+ * beer's maintained on-hand total.
+ */
+public interface BeerSummaryRepository {
+
+    /**
+     * @param beerName  exact name to match, or {@code null} for any
+     * @param beerStyle style to match, or {@code null} for any
+     */
+    Page<BeerSummary> findBeerSummaries(String beerName, BeerStyleEnum beerStyle, boolean withQuantityOnHand,
+            Pageable pageable);
+
+    /**
+     * Same rows as {@link #findBeerSummaries}, without the count query.
+     */
+    Slice<BeerSummary> findBeerSummarySlice(String beerName, BeerStyleEnum beerStyle, boolean withQuantityOnHand,
+            Pageable pageable);
+
+    /**
+     * Keyset page ordered by name and id: up to {@code limit} beers after the given one, from the start when
+     * {@code afterId} is {@code null}. No count query. Beers without a name come first, ordered by id; a
+     * cursor into them has a {@code null} {@code afterBeerName}.
+     */
+    List<BeerSummary> findBeerSummariesAfter(String beerName, BeerStyleEnum beerStyle, boolean withQuantityOnHand,
+            String afterBeerName, UUID afterId, int limit);
+
+    /**
+     * Total for {@link #findBeerSummariesAfter}.
+     */
+    long countBeerSummaries(String beerName, BeerStyleEnum beerStyle);
+
+    Optional<BeerSummary> findBeerSummaryById(UUID beerId, boolean withQuantityOnHand);
+
+    Optional<BeerSummary> findBeerSummaryByUpc(String upc, boolean withQuantityOnHand);
+}
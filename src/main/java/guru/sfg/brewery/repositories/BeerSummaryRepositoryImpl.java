@@ -0,0 +1,142 @@
+package guru.sfg.brewery.repositories;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+import java.util.UUID;
+
+import javax.persistence.EntityManager;
+import javax.persistence.PersistenceContext;
+import javax.persistence.TypedQuery;
+
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
+import org.springframework.data.jpa.repository.query.QueryUtils;
+import org.springframework.data.support.PageableExecutionUtils;
+
+import guru.sfg.brewery.web.model.BeerStyleEnum;
+
+public class BeerSummaryRepositoryImpl implements BeerSummaryRepository {
+
+    // @formatter:off
+    private static final String COLUMNS      = "b.id, b.version, b.createdDate, b.lastModifiedDate, b.beerName, "
+                                             + "b.beerStyle, b.upc, b.price";
+    private static final String LEAN         = "select new " + BeerSummary.class.getName() + "(" + COLUMNS + ") "
+                                             + "from Beer b";
+    private static final String FULL         = "select new " + BeerSummary.class.getName() + "(" + COLUMNS + ", "
+                                             + "b.quantityOnHand) from Beer b";
+    private static final String COUNT        = "select count(b) from Beer b";
+    private static final String KEYSET_ORDER = " order by b.beerName asc nulls first, b.id";
+    // @formatter:on
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    @Override
+    public Page<BeerSummary> findBeerSummaries(String beerName, BeerStyleEnum beerStyle, boolean withQuantityOnHand,
+            Pageable pageable) {
+        TypedQuery<BeerSummary> query = pageQuery(beerName, beerStyle, withQuantityOnHand, pageable);
+        TypedQuery<Long> count = entityManager.createQuery(COUNT + where(filter(beerName, beerStyle)), Long.class);
+        bind(count, beerName, beerStyle);
+
+        if (pageable.isPaged()) {
+            query.setFirstResult((int) pageable.getOffset());
+            query.setMaxResults(pageable.getPageSize());
+        }
+
+        return PageableExecutionUtils.getPage(query.getResultList(), pageable, count::getSingleResult);
+    }
+
+    @Override
+    public Slice<BeerSummary> findBeerSummarySlice(String beerName, BeerStyleEnum beerStyle,
+            boolean withQuantityOnHand, Pageable pageable) {
+        return QuerySlices.slice(pageQuery(beerName, beerStyle, withQuantityOnHand, pageable), pageable);
+    }
+
+    @Override
+    public List<BeerSummary> findBeerSummariesAfter(String beerName, BeerStyleEnum beerStyle,
+            boolean withQuantityOnHand, String afterBeerName, UUID afterId, int limit) {
+        List<String> conditions = filter(beerName, beerStyle);
+        if (afterId != null && afterBeerName == null) {
+            // Beers without a name come first; the rest of them by id, then every named beer.
+            conditions.add("((b.beerName is null and b.id > :afterId) or b.beerName is not null)");
+        } else if (afterId != null) {
+            // The first term bounds the index range, the second drops the rows up to and including the cursor.
+            conditions.add("b.beerName >= :afterBeerName "
+                    + "and (b.beerName > :afterBeerName or b.id > :afterId)");
+        }
+
+        String select = (withQuantityOnHand ? FULL : LEAN) + where(conditions) + KEYSET_ORDER;
+        TypedQuery<BeerSummary> query = entityManager.createQuery(select, BeerSummary.class);
+        bind(query, beerName, beerStyle);
+        if (afterBeerName != null) {
+            query.setParameter("afterBeerName", afterBeerName);
+        }
+        if (afterId != null) {
+            query.setParameter("afterId", afterId);
+        }
+
+        return query.setMaxResults(limit).getResultList();
+    }
+
+    @Override
+    public long countBeerSummaries(String beerName, BeerStyleEnum beerStyle) {
+        TypedQuery<Long> count = entityManager.createQuery(COUNT + where(filter(beerName, beerStyle)), Long.class);
+        bind(count, beerName, beerStyle);
+        return count.getSingleResult();
+    }
+
+    @Override
+    public Optional<BeerSummary> findBeerSummaryById(UUID beerId, boolean withQuantityOnHand) {
+        return findOne("b.id", beerId, withQuantityOnHand);
+    }
+
+    @Override
+    public Optional<BeerSummary> findBeerSummaryByUpc(String upc, boolean withQuantityOnHand) {
+        return findOne("b.upc", upc, withQuantityOnHand);
+    }
+
+    private TypedQuery<BeerSummary> pageQuery(String beerName, BeerStyleEnum beerStyle, boolean withQuantityOnHand,
+            Pageable pageable) {
+        String select = (withQuantityOnHand ? FULL : LEAN) + where(filter(beerName, beerStyle));
+        TypedQuery<BeerSummary> query = entityManager.createQuery(
+                QueryUtils.applySorting(select, pageable.getSort(), "b"), BeerSummary.class);
+        bind(query, beerName, beerStyle);
+        return query;
+    }
+
+    private static List<String> filter(String beerName, BeerStyleEnum beerStyle) {
+        List<String> conditions = new ArrayList<>(3);
+        if (beerName != null) {
+            conditions.add("b.beerName = :beerName");
+        }
+        if (beerStyle != null) {
+            conditions.add("b.beerStyle = :beerStyle");
+        }
+        return conditions;
+    }
+
+    private static String where(List<String> conditions) {
+        return conditions.isEmpty() ? "" : " where " + String.join(" and ", conditions);
+    }
+
+    private static void bind(TypedQuery<?> query, String beerName, BeerStyleEnum beerStyle) {
+        if (beerName != null) {
+            query.setParameter("beerName", beerName);
+        }
+        if (beerStyle != null) {
+            query.setParameter("beerStyle", beerStyle);
+        }
+    }
+
+    private Optional<BeerSummary> findOne(String attribute, Object value, boolean withQuantityOnHand) {
+        String where = " where " + attribute + " = :value";
+        String select = withQuantityOnHand ? FULL + where : LEAN + where;
+
+        return entityManager.createQuery(select, BeerSummary.class)
+                .setParameter("value", value)
+                .getResultStream()
+                .findFirst();
+    }
+}
@@ -18,7 +18,9 @@ package guru.sfg.brewery.repositories;
 
 import guru.sfg.brewery.domain.Customer;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
 
+import java.sql.Timestamp;
 import java.util.List;
 import java.util.Optional;
 import java.util.UUID;
@@ -30,4 +32,9 @@ public interface CustomerRepository extends JpaRepository<Customer, UUID> {
     List<Customer> findAllByCustomerNameLike(String customerName);
 
     Optional<Customer> findAllByCustomerName(String stPeteDistributing);
+
+    List<Customer> findAllByLastModifiedDateGreaterThanEqual(Timestamp timestamp);
+
+    @Query("select c.id from Customer c")
+    List<UUID> findAllIds();
 }
@@ -0,0 +1,36 @@
+package guru.sfg.brewery.repositories;
+
+import java.sql.Timestamp;
+import java.util.List;
+import java.util.Optional;
+import java.util.UUID;
+
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
+
+import guru.sfg.brewery.domain.BeerOrder;
+
+/**
+ * Order queries scoped to the authenticated user: everything for staff with {@code order.read}, only their
+ * own customer's orders for customer users, nothing for anyone else.
+ */
+public interface CustomerScopedOrderRepository {
+
+    Optional<BeerOrder> findScopedById(UUID orderId);
+
+    Page<BeerOrder> findAllScoped(Pageable pageable);
+
+    /**
+     * Same rows as {@link #findAllScoped}, without the count query.
+     */
+    Slice<BeerOrder> findAllScopedSlice(Pageable pageable);
+
+    /**
+     * Keyset page, newest first: up to {@code limit} orders created before the given one, from the newest when
+     * {@code beforeId} is {@code null}. No count query.
+     */
+    List<BeerOrder> findScopedBefore(Timestamp beforeCreatedDate, UUID beforeId, int limit);
+
+    long countScoped();
+}
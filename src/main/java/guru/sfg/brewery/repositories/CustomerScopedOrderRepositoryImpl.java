@@ -0,0 +1,156 @@
+package guru.sfg.brewery.repositories;
+
+import java.sql.Timestamp;
+import java.util.List;
+import java.util.Optional;
+import java.util.UUID;
+
+import javax.persistence.EntityManager;
+import javax.persistence.PersistenceContext;
+import javax.persistence.TypedQuery;
+
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
+import org.springframework.data.domain.SliceImpl;
+import org.springframework.data.jpa.repository.query.QueryUtils;
+import org.springframework.data.support.PageableExecutionUtils;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.context.SecurityContextHolder;
+
+import guru.sfg.brewery.domain.BeerOrder;
+import guru.sfg.brewery.security.UserPrincipal;
+
+/**
+ * Picks one of two fixed JPQL queries per call from the principal's precompiled order.read bit, instead of
+ * evaluating SpEL into an {@code or} predicate: staff get the plain query, customer users the one restricted
+ * on {@code customer_id}, which the foreign key index serves.
+ */
+public class CustomerScopedOrderRepositoryImpl implements CustomerScopedOrderRepository {
+
+    // @formatter:off
+    private static final String BY_ID                  = "select o from BeerOrder o where o.id = :orderId";
+    private static final String BY_ID_FOR_CUSTOMER     = "select o from BeerOrder o where o.id = :orderId "
+                                                       + "and o.customer.id = :customerId";
+    private static final String ALL                    = "select o from BeerOrder o";
+    private static final String ALL_COUNT              = "select count(o) from BeerOrder o";
+    private static final String ALL_FOR_CUSTOMER       = "select o from BeerOrder o where o.customer.id = :customerId";
+    private static final String ALL_FOR_CUSTOMER_COUNT = "select count(o) from BeerOrder o "
+                                                       + "where o.customer.id = :customerId";
+    private static final String BEFORE                 = "o.createdDate <= :beforeCreatedDate "
+                                                       + "and (o.createdDate < :beforeCreatedDate or o.id < :beforeId)";
+    private static final String KEYSET_ORDER           = " order by o.createdDate desc, o.id desc";
+    // @formatter:on
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    @Override
+    public Optional<BeerOrder> findScopedById(UUID orderId) {
+        UserPrincipal user = currentUser();
+        if (user == null) {
+            return Optional.empty();
+        }
+
+        TypedQuery<BeerOrder> query;
+        if (user.canReadAllOrders()) {
+            query = entityManager.createQuery(BY_ID, BeerOrder.class);
+        } else if (user.getCustomerId() != null) {
+            query = entityManager.createQuery(BY_ID_FOR_CUSTOMER, BeerOrder.class)
+                    .setParameter("customerId", user.getCustomerId());
+        } else {
+            return Optional.empty();
+        }
+
+        return query.setParameter("orderId", orderId).getResultStream().findFirst();
+    }
+
+    @Override
+    public Page<BeerOrder> findAllScoped(Pageable pageable) {
+        UserPrincipal user = currentUser();
+        if (user == null || (!user.canReadAllOrders() && user.getCustomerId() == null)) {
+            return Page.empty(pageable);
+        }
+
+        boolean all = user.canReadAllOrders();
+        TypedQuery<BeerOrder> query = entityManager.createQuery(
+                QueryUtils.applySorting(all ? ALL : ALL_FOR_CUSTOMER, pageable.getSort(), "o"), BeerOrder.class);
+        TypedQuery<Long> count = entityManager.createQuery(all ? ALL_COUNT : ALL_FOR_CUSTOMER_COUNT, Long.class);
+        if (!all) {
+            query.setParameter("customerId", user.getCustomerId());
+            count.setParameter("customerId", user.getCustomerId());
+        }
+
+        if (pageable.isPaged()) {
+            query.setFirstResult((int) pageable.getOffset());
+            query.setMaxResults(pageable.getPageSize());
+        }
+
+        List<BeerOrder> content = query.getResultList();
+        return PageableExecutionUtils.getPage(content, pageable, count::getSingleResult);
+    }
+
+    @Override
+    public Slice<BeerOrder> findAllScopedSlice(Pageable pageable) {
+        UserPrincipal user = currentUser();
+        if (user == null || (!user.canReadAllOrders() && user.getCustomerId() == null)) {
+            return new SliceImpl<>(List.of(), pageable, false);
+        }
+
+        boolean all = user.canReadAllOrders();
+        TypedQuery<BeerOrder> query = entityManager.createQuery(
+                QueryUtils.applySorting(all ? ALL : ALL_FOR_CUSTOMER, pageable.getSort(), "o"), BeerOrder.class);
+        if (!all) {
+            query.setParameter("customerId", user.getCustomerId());
+        }
+        return QuerySlices.slice(query, pageable);
+    }
+
+    @Override
+    public List<BeerOrder> findScopedBefore(Timestamp beforeCreatedDate, UUID beforeId, int limit) {
+        UserPrincipal user = currentUser();
+        if (user == null || (!user.canReadAllOrders() && user.getCustomerId() == null)) {
+            return List.of();
+        }
+
+        boolean all = user.canReadAllOrders();
+        String select = all ? ALL : ALL_FOR_CUSTOMER;
+        if (beforeId != null) {
+            select += (all ? " where " : " and ") + BEFORE;
+        }
+
+        TypedQuery<BeerOrder> query = entityManager.createQuery(select + KEYSET_ORDER, BeerOrder.class);
+        if (!all) {
+            query.setParameter("customerId", user.getCustomerId());
+        }
+        if (beforeId != null) {
+            query.setParameter("beforeCreatedDate", beforeCreatedDate);
+            query.setParameter("beforeId", beforeId);
+        }
+
+        return query.setMaxResults(limit).getResultList();
+    }
+
+    @Override
+    public long countScoped() {
+        UserPrincipal user = currentUser();
+        if (user == null || (!user.canReadAllOrders() && user.getCustomerId() == null)) {
+            return 0;
+        }
+
+        if (user.canReadAllOrders()) {
+            return entityManager.createQuery(ALL_COUNT, Long.class).getSingleResult();
+        }
+        return entityManager.createQuery(ALL_FOR_CUSTOMER_COUNT, Long.class)
+                .setParameter("customerId", user.getCustomerId())
+                .getSingleResult();
+    }
+
+    private static UserPrincipal currentUser() {
+        Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
+        if (authentication != null && authentication.getPrincipal() instanceof UserPrincipal) {
+            return (UserPrincipal) authentication.getPrincipal();
+        }
+        return null;
+    }
+}
@@ -0,0 +1,34 @@
+package guru.sfg.brewery.repositories;
+
+import java.util.List;
+
+import javax.persistence.TypedQuery;
+
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
+import org.springframework.data.domain.SliceImpl;
+
+/**
+ * Runs a query as a {@link Slice} for the custom repository implementations.
+ */
+final class QuerySlices {
+
+    private QuerySlices() {
+    }
+
+    /**
+     * Reads one row past the page to tell whether there is a next one, so no count query is needed.
+     */
+    static <T> Slice<T> slice(TypedQuery<T> query, Pageable pageable) {
+        if (pageable.isUnpaged()) {
+            return new SliceImpl<>(query.getResultList(), pageable, false);
+        }
+
+        List<T> content = query.setFirstResult((int) pageable.getOffset())
+                .setMaxResults(pageable.getPageSize() + 1)
+                .getResultList();
+        boolean hasNext = content.size() > pageable.getPageSize();
+
+        return new SliceImpl<>(hasNext ? content.subList(0, pageable.getPageSize()) : content, pageable, hasNext);
+    }
+}
@@ -5,6 +5,7 @@ import java.sql.Timestamp;
 import java.util.List;
 
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
 
 import guru.sfg.brewery.domain.security.LoginFailure;
 import guru.sfg.brewery.domain.security.User;
@@ -12,4 +13,10 @@ import guru.sfg.brewery.domain.security.User;
 public interface LoginFailureRepository extends JpaRepository<LoginFailure, Integer>{
     
     List<LoginFailure> findAllByUserAndCreatedDateIsAfter(User user, Timestamp timestamp);
+
+    /**
+     * @return a single row of {@code [count, latest createdDate]} for the username's failures after the timestamp.
+     */
+    @Query("select count(f), max(f.createdDate) from LoginFailure f where f.username = ?1 and f.createdDate > ?2")
+    List<Object[]> countAndLatestByUsernameAfter(String username, Timestamp timestamp);
 }
@@ -1,13 +1,56 @@
 package guru.sfg.brewery.repositories.security;
 
 import java.sql.Timestamp;
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
+import java.util.Set;
+
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.transaction.annotation.Transactional;
+
 import guru.sfg.brewery.domain.security.User;
 
 public interface UserRepository extends JpaRepository<User, Integer> {
     Optional<User> findByUsername(String username);
+
+    boolean existsByUsername(String username);
+
+    @Query("select u.username from User u where u.username in ?1")
+    Set<String> findExistingUsernames(Collection<String> usernames);
+
+    @Query("select u.google2FASecret from User u where u.username = ?1")
+    String findGoogle2FASecretByUsername(String username);
     
-    List<User> findAllByAccountNonLockedAndLastModifiedDateIsBefore(Boolean accountNonLocked, Timestamp timestamp);
+    @Query("select u.username, u.lastModifiedDate from User u where u.accountNonLocked = false")
+    List<Object[]> findLockedUsernamesAndLastModifiedDates();
+
+    @Query("select u.username from User u where u.accountNonLocked = false and u.lastModifiedDate < ?1")
+    List<String> findUsernamesLockedBefore(Timestamp lockedBefore);
+
+    @Transactional
+    @Modifying
+    @Query("update User u set u.accountNonLocked = false, u.lastModifiedDate = ?2 "
+            + "where u.username = ?1 and u.accountNonLocked = true")
+    int lockByUsername(String username, Timestamp lockedAt);
+
+    @Transactional
+    @Modifying
+    @Query("update User u set u.accountNonLocked = true, u.lastModifiedDate = ?2 "
+            + "where u.username in ?1 and u.accountNonLocked = false")
+    int unlockByUsernames(Collection<String> usernames, Timestamp unlockedAt);
+
+    @Transactional
+    @Modifying
+    @Query("update User u set u.accountNonLocked = true, u.lastModifiedDate = ?3 "
+            + "where u.username in ?1 and u.accountNonLocked = false and u.lastModifiedDate < ?2")
+    int unlockByUsernamesLockedBefore(Collection<String> usernames, Timestamp lockedBefore, Timestamp unlockedAt);
+
+    @Transactional
+    @Modifying
+    @Query("update User u set u.password = ?3, u.lastModifiedDate = ?4 "
+            + "where u.username = ?1 and u.password = ?2")
+    int updatePassword(String username, String currentPassword, String newPassword, Timestamp modifiedAt);
 }
@@ -0,0 +1,65 @@
+package guru.sfg.brewery.security;
+
+import java.time.Duration;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
+import org.springframework.stereotype.Component;
+
+import lombok.Getter;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Picks the BCrypt strength for this host at startup: times a few hashes at a cheap probe strength and
+ * takes the highest strength whose estimated hash time (each step doubles it) stays within the target,
+ * clamped to [min-strength, max-strength]. A fixed {@code sfg.security.bcrypt.strength} skips calibration.
+ */
+@Slf4j
+@Component
+public class BCryptStrengthCalibrator {
+
+    private static final int    PROBE_STRENGTH = 8;
+    private static final int    PROBE_ROUNDS   = 3;
+    private static final String PROBE_PASSWORD = "calibration-probe";
+
+    @Getter
+    private final int strength;
+
+    public BCryptStrengthCalibrator(@Value("${sfg.security.bcrypt.strength:-1}") int fixedStrength,
+            @Value("${sfg.security.bcrypt.target-latency:250ms}") Duration targetLatency,
+            @Value("${sfg.security.bcrypt.min-strength:10}") int minStrength,
+            @Value("${sfg.security.bcrypt.max-strength:14}") int maxStrength) {
+        if (fixedStrength > 0) {
+            this.strength = fixedStrength;
+            log.info("BCrypt strength fixed at " + strength);
+        } else {
+            this.strength = calibrate(targetLatency, minStrength, maxStrength);
+        }
+    }
+
+    private static int calibrate(Duration targetLatency, int minStrength, int maxStrength) {
+        BCryptPasswordEncoder probe = new BCryptPasswordEncoder(PROBE_STRENGTH);
+        probe.encode(PROBE_PASSWORD);
+
+        long probeNanos = Long.MAX_VALUE;
+        for (int i = 0; i < PROBE_ROUNDS; i++) {
+            long start = System.nanoTime();
+            probe.encode(PROBE_PASSWORD);
+            probeNanos = Math.min(probeNanos, System.nanoTime() - start);
+        }
+
+        int strength = minStrength;
+        while (strength < maxStrength && estimate(probeNanos, strength + 1) <= targetLatency.toNanos()) {
+            strength++;
+        }
+
+        log.info("BCrypt strength calibrated to " + strength + " (~" + estimate(probeNanos, strength) / 1_000_000
+                + " ms per hash, target " + targetLatency.toMillis() + " ms)");
+        return strength;
+    }
+
+    private static long estimate(long probeNanos, int strength) {
+        return strength >= PROBE_STRENGTH ? probeNanos << (strength - PROBE_STRENGTH)
+                : probeNanos >> (PROBE_STRENGTH - strength);
+    }
+}
@@ -5,7 +5,6 @@ import java.util.UUID;
 import org.springframework.security.core.Authentication;
 import org.springframework.stereotype.Component;
 
-import guru.sfg.brewery.domain.security.User;
 import lombok.extern.slf4j.Slf4j;
 
 @Component
@@ -13,10 +12,10 @@ import lombok.extern.slf4j.Slf4j;
 public class BeerOrderAuthenticationManager {
 
     public boolean customerIdMatches(Authentication authentication, UUID customerId) {
-        User authenticatedUser = (User) authentication.getPrincipal();
+        UserPrincipal authenticatedUser = (UserPrincipal) authentication.getPrincipal();
 
-        log.debug("Auth user Customer Id: " + authenticatedUser.getCustomer().getId() + " Customer Id: " + customerId);
+        log.debug("Auth user Customer Id: " + authenticatedUser.getCustomerId() + " Customer Id: " + customerId);
 
-        return authenticatedUser.getCustomer().getId().equals(customerId);
+        return authenticatedUser.getCustomerId() != null && authenticatedUser.getCustomerId().equals(customerId);
     }
 }
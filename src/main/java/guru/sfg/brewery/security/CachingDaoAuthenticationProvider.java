@@ -0,0 +1,58 @@
+package guru.sfg.brewery.security;
+
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.authentication.dao.DaoAuthenticationProvider;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.AuthenticationException;
+import org.springframework.security.core.userdetails.UserDetails;
+import org.springframework.security.web.authentication.WebAuthenticationDetails;
+
+import guru.sfg.brewery.security.ratelimit.LoginRateLimiter;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * {@link DaoAuthenticationProvider} that consults the {@link VerifiedCredentialCache} before running the
+ * password encoder. The user is still loaded and checked for lock/expiry on every call. Outdated hashes are
+ * handed to the {@link PasswordUpgradeService} instead of being re-hashed on the login thread. Cache hits
+ * hand back the {@link LoginRateLimiter} token the login filter took for the attempt.
+ */
+@Slf4j
+@RequiredArgsConstructor
+public class CachingDaoAuthenticationProvider extends DaoAuthenticationProvider {
+
+    private final VerifiedCredentialCache verifiedCredentialCache;
+    private final PasswordUpgradeService  passwordUpgradeService;
+    private final LoginRateLimiter        loginRateLimiter;
+
+    @Override
+    protected void additionalAuthenticationChecks(UserDetails userDetails,
+            UsernamePasswordAuthenticationToken authentication) throws AuthenticationException {
+        String presentedPassword = authentication.getCredentials() == null ? null
+                : authentication.getCredentials().toString();
+
+        if (verifiedCredentialCache.isVerified(userDetails.getUsername(), presentedPassword, userDetails.getPassword())) {
+            log.debug("Credentials verified from cache for: " + userDetails.getUsername());
+            refund(authentication);
+            return;
+        }
+
+        super.additionalAuthenticationChecks(userDetails, authentication);
+        verifiedCredentialCache.verified(userDetails.getUsername(), presentedPassword, userDetails.getPassword());
+    }
+
+    @Override
+    protected Authentication createSuccessAuthentication(Object principal, Authentication authentication,
+            UserDetails user) {
+        if (authentication.getCredentials() != null) {
+            passwordUpgradeService.upgradeIfNeeded(user, authentication.getCredentials().toString());
+        }
+        return super.createSuccessAuthentication(principal, authentication, user);
+    }
+
+    private void refund(Authentication authentication) {
+        if (authentication.getDetails() instanceof WebAuthenticationDetails) {
+            loginRateLimiter.refund(((WebAuthenticationDetails) authentication.getDetails()).getRemoteAddress());
+        }
+    }
+}
@@ -1,33 +1,82 @@
 package guru.sfg.brewery.security;
 
-import javax.transaction.Transactional;
+import java.time.Duration;
 
 import org.springframework.security.core.userdetails.UserDetails;
 import org.springframework.security.core.userdetails.UserDetailsService;
 import org.springframework.security.core.userdetails.UsernameNotFoundException;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
 
-import guru.sfg.brewery.domain.security.User;
+import com.github.benmanes.caffeine.cache.Cache;
+
+import guru.sfg.brewery.config.MeteredCacheFactory;
+import guru.sfg.brewery.domain.security.AuthoritySets;
 import guru.sfg.brewery.repositories.security.UserRepository;
-import lombok.RequiredArgsConstructor;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
 import lombok.extern.slf4j.Slf4j;
 
 @Slf4j
-@RequiredArgsConstructor
 @Service
-public class JpaUserDetailsService implements UserDetailsService {
+public class JpaUserDetailsService implements UserDetailsService, UserSecurityCache {
+
+    private final UserRepository      userRepository;
+    private final TransactionTemplate transactionTemplate;
+    private final Cache<String, UserPrincipal> users;
+    private final Timer                        loadTimer;
+
+    public JpaUserDetailsService(UserRepository userRepository, PlatformTransactionManager transactionManager,
+            MeteredCacheFactory cacheFactory, MeterRegistry meterRegistry) {
+        this.userRepository = userRepository;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.transactionTemplate.setReadOnly(true);
+        this.users = cacheFactory.expireAfterWrite("userDetails", "sfg.security.user-details-cache", 10000,
+                Duration.ofMinutes(10));
+        this.loadTimer = Timer.builder("sfg.security.userdetails.load")
+                .description("Time to load a user and its customer/roles/authorities graph from the database")
+                .register(meterRegistry);
+    }
 
-    private final UserRepository userRepository;
-    
-    @Transactional
     @Override
     public UserDetails loadUserByUsername(String username) throws UsernameNotFoundException {
-        
+
+        UserPrincipal principal = users.get(username, this::load);
+        if (!principal.getCompiledAuthorities().isCurrent()) {
+            // Roles or authorities changed since this user was cached.
+            users.invalidate(username);
+            principal = users.get(username, this::load);
+        }
+
+        // Hand out a copy; the authentication flow erases its credentials.
+        return principal.toBuilder().build();
+    }
+
+    /**
+     * A user that just went through authentication is still cached, so only unknown usernames (or a user
+     * evicted in between) cost a database lookup.
+     */
+    public boolean exists(String username) {
+        return users.asMap().containsKey(username) || userRepository.existsByUsername(username);
+    }
+
+    @Override
+    public void invalidate(String username) {
+        users.invalidate(username);
+    }
+
+    @Override
+    public void invalidateAll() {
+        users.invalidateAll();
+        AuthoritySets.invalidate();
+    }
+
+    private UserPrincipal load(String username) {
         log.debug("Getting User info via JPA");
-        
-        User user = userRepository.findByUsername(username).orElseThrow(
-                () -> new UsernameNotFoundException("User name: " + username + " not found."));
-        
-        return user;
+
+        return loadTimer.record(() -> transactionTemplate.execute(status -> userRepository.findByUsername(username)
+                .map(UserPrincipal::from)
+                .orElseThrow(() -> new UsernameNotFoundException("User name: " + username + " not found."))));
     }
 }
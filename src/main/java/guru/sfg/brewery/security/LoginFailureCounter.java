@@ -0,0 +1,107 @@
+package guru.sfg.brewery.security;
+
+import java.sql.Timestamp;
+import java.time.Duration;
+import java.util.List;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import com.github.benmanes.caffeine.cache.Cache;
+
+import guru.sfg.brewery.config.MeteredCacheFactory;
+import guru.sfg.brewery.repositories.security.LoginFailureRepository;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Failed logins per username over a sliding window of fixed time buckets (24 x 1h by default). Each
+ * username has its own small window with its own lock, so concurrent failures only contend per account.
+ * A window is seeded from one aggregate count query the first time a username is seen (e.g. after a
+ * restart); after that the lock decision never touches the database. Callers only count failures of
+ * usernames that exist.
+ */
+@Slf4j
+@Component
+public class LoginFailureCounter {
+
+    private final LoginFailureRepository loginFailureRepository;
+    private final Cache<String, Window>  windows;
+    private final long                   bucketMillis;
+    private final int                    buckets;
+    private final int                    maxFailures;
+
+    public LoginFailureCounter(LoginFailureRepository loginFailureRepository, MeteredCacheFactory cacheFactory,
+            @Value("${sfg.security.lockout.window:24h}") Duration window,
+            @Value("${sfg.security.lockout.bucket:1h}") Duration bucket,
+            @Value("${sfg.security.lockout.max-failures:3}") int maxFailures,
+            @Value("${sfg.security.lockout.maximum-size:100000}") long maximumSize) {
+        this.loginFailureRepository = loginFailureRepository;
+        this.bucketMillis = bucket.toMillis();
+        this.buckets = (int) Math.max(1, window.toMillis() / bucketMillis);
+        this.maxFailures = maxFailures;
+        this.windows = cacheFactory.expireAfterAccess("loginFailureWindows", maximumSize, window);
+    }
+
+    /**
+     * Counts one failed login for the username.
+     *
+     * @return {@code true} once the failures within the window exceed the allowed maximum.
+     */
+    public boolean recordFailure(String username) {
+        long bucket = System.currentTimeMillis() / bucketMillis;
+        int failures = windows.get(username, this::seed).add(bucket, 1, bucket);
+
+        log.debug("Failed logins in window for " + username + ": " + failures);
+        return failures > maxFailures;
+    }
+
+    private Window seed(String username) {
+        Window window = new Window(buckets);
+
+        long now = System.currentTimeMillis();
+        List<Object[]> rows = loginFailureRepository.countAndLatestByUsernameAfter(username,
+                new Timestamp(now - buckets * bucketMillis));
+        if (!rows.isEmpty() && rows.get(0)[1] != null) {
+            int count = ((Number) rows.get(0)[0]).intValue();
+            long latest = ((Timestamp) rows.get(0)[1]).getTime();
+
+            // Individual timestamps are not loaded; file them all under the latest one. That keeps them
+            // counted a little longer than strictly needed but never lets an account escape the limit.
+            window.add(latest / bucketMillis, count, now / bucketMillis);
+            log.debug("Seeded failed logins for " + username + " from database: " + count);
+        }
+        return window;
+    }
+
+    private static final class Window {
+
+        private final long[] slotBuckets;
+        private final int[]  slotCounts;
+
+        Window(int buckets) {
+            this.slotBuckets = new long[buckets];
+            this.slotCounts = new int[buckets];
+        }
+
+        /**
+         * Adds to the bucket's slot and returns the total over the buckets still inside the window.
+         */
+        synchronized int add(long bucket, int count, long currentBucket) {
+            int slot = (int) (bucket % slotBuckets.length);
+            if (slotBuckets[slot] != bucket) {
+                slotBuckets[slot] = bucket;
+                slotCounts[slot] = 0;
+            }
+            slotCounts[slot] += count;
+
+            long oldest = currentBucket - slotBuckets.length;
+            int total = 0;
+            for (int i = 0; i < slotBuckets.length; i++) {
+                if (slotBuckets[i] > oldest) {
+                    total += slotCounts[i];
+                }
+            }
+            return total;
+        }
+    }
+}
@@ -0,0 +1,148 @@
+package guru.sfg.brewery.security;
+
+import java.sql.Timestamp;
+import java.util.Set;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+import javax.annotation.PreDestroy;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.scheduling.concurrent.CustomizableThreadFactory;
+import org.springframework.security.core.userdetails.User;
+import org.springframework.security.core.userdetails.UserDetails;
+import org.springframework.security.core.userdetails.UserDetailsPasswordService;
+import org.springframework.security.crypto.password.PasswordEncoder;
+import org.springframework.stereotype.Service;
+
+import guru.sfg.brewery.repositories.security.UserRepository;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Re-hashes a password with the current default encoder after a successful login when the stored hash is a
+ * legacy encoding or a weaker BCrypt strength than {@link BCryptStrengthCalibrator} picked. The hashing and
+ * the write run on a small bounded executor so the login response does not wait for them; if the queue is
+ * full the upgrade is skipped and simply happens on a later login.
+ */
+@Slf4j
+@Service
+public class PasswordUpgradeService implements UserDetailsPasswordService {
+
+    private static final Pattern BCRYPT_COST = Pattern.compile("^\\{[^}]*\\}\\$2[aby]?\\$(\\d\\d)\\$");
+
+    private final PasswordEncoder           passwordEncoder;
+    private final UserRepository            userRepository;
+    private final ApplicationEventPublisher eventPublisher;
+    private final int                       bcryptStrength;
+    private final ThreadPoolExecutor        executor;
+    private final Set<String>               inFlight = ConcurrentHashMap.newKeySet();
+    private final Counter                   upgraded;
+    private final Counter                   dropped;
+    private final Counter                   stale;
+
+    public PasswordUpgradeService(PasswordEncoder passwordEncoder, UserRepository userRepository,
+            ApplicationEventPublisher eventPublisher, BCryptStrengthCalibrator calibrator,
+            MeterRegistry meterRegistry,
+            @Value("${sfg.security.password-upgrade.threads:1}") int threads,
+            @Value("${sfg.security.password-upgrade.queue-capacity:100}") int queueCapacity) {
+        this.passwordEncoder = passwordEncoder;
+        this.userRepository = userRepository;
+        this.eventPublisher = eventPublisher;
+        this.bcryptStrength = calibrator.getStrength();
+        this.executor = new ThreadPoolExecutor(threads, threads, 0, TimeUnit.MILLISECONDS,
+                new ArrayBlockingQueue<>(queueCapacity), new CustomizableThreadFactory("password-upgrade-"));
+
+        this.upgraded = counter(meterRegistry, "upgraded");
+        this.dropped = counter(meterRegistry, "dropped");
+        this.stale = counter(meterRegistry, "stale");
+    }
+
+    /**
+     * Queues a re-hash of {@code rawPassword} if the user's stored hash needs one. Called on the login thread
+     * right after the password was verified.
+     */
+    public void upgradeIfNeeded(UserDetails user, String rawPassword) {
+        // Read both now: the authentication flow erases the principal's credentials once login completes.
+        String username = user.getUsername();
+        String encodedPassword = user.getPassword();
+        if (rawPassword == null || !needsUpgrade(encodedPassword) || !inFlight.add(username)) {
+            return;
+        }
+
+        try {
+            executor.execute(() -> {
+                try {
+                    store(username, encodedPassword, passwordEncoder.encode(rawPassword));
+                } catch (RuntimeException e) {
+                    log.warn("Password upgrade failed for: " + username, e);
+                } finally {
+                    inFlight.remove(username);
+                }
+            });
+        } catch (RejectedExecutionException e) {
+            inFlight.remove(username);
+            dropped.increment();
+        }
+    }
+
+    /**
+     * Stores {@code newPassword} only if the stored hash is still the one the user logged in with, so a
+     * password change that raced the upgrade is never overwritten.
+     */
+    @Override
+    public UserDetails updatePassword(UserDetails user, String newPassword) {
+        if (!store(user.getUsername(), user.getPassword(), newPassword)) {
+            return user;
+        }
+
+        if (user instanceof UserPrincipal) {
+            return ((UserPrincipal) user).toBuilder().password(newPassword).build();
+        }
+        return User.withUserDetails(user).password(newPassword).build();
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        executor.shutdown();
+    }
+
+    private boolean store(String username, String currentPassword, String newPassword) {
+        int updated = userRepository.updatePassword(username, currentPassword, newPassword,
+                new Timestamp(System.currentTimeMillis()));
+        if (updated == 0) {
+            log.debug("Stored password changed before upgrade, skipping: " + username);
+            stale.increment();
+            return false;
+        }
+
+        log.debug("Upgraded password hash for: " + username);
+        upgraded.increment();
+        eventPublisher.publishEvent(new UserSecurityChangedEvent(username));
+        return true;
+    }
+
+    private boolean needsUpgrade(String encodedPassword) {
+        if (encodedPassword == null || !passwordEncoder.upgradeEncoding(encodedPassword)) {
+            return false;
+        }
+
+        // Every id other than the default is flagged, {bcrypt15} included; never trade a BCrypt hash for a weaker one.
+        Matcher cost = BCRYPT_COST.matcher(encodedPassword);
+        return !cost.find() || Integer.parseInt(cost.group(1)) < bcryptStrength;
+    }
+
+    private static Counter counter(MeterRegistry meterRegistry, String result) {
+        return Counter.builder("sfg.security.password-upgrade")
+                .description("Background password hash upgrades after login, by result")
+                .tag("result", result)
+                .register(meterRegistry);
+    }
+}
@@ -0,0 +1,138 @@
+package guru.sfg.brewery.security;
+
+import org.springframework.security.access.expression.SecurityExpressionRoot;
+import org.springframework.security.access.expression.method.MethodSecurityExpressionOperations;
+import org.springframework.security.core.Authentication;
+
+import guru.sfg.brewery.domain.security.CompiledAuthorities;
+
+/**
+ * Method security root that answers {@code hasAuthority}/{@code hasAnyAuthority} from the principal's
+ * compiled permission mask. Everything else, and principals that are not a {@link UserPrincipal}, go
+ * through the standard {@link SecurityExpressionRoot}.
+ */
+public class PermissionMaskExpressionRoot implements MethodSecurityExpressionOperations {
+
+    private final SecurityExpressionRoot delegate;
+    private final CompiledAuthorities    compiledAuthorities;
+
+    private Object filterObject;
+    private Object returnObject;
+    private Object target;
+
+    public PermissionMaskExpressionRoot(SecurityExpressionRoot delegate, Authentication authentication) {
+        this.delegate = delegate;
+        this.compiledAuthorities = authentication.getPrincipal() instanceof UserPrincipal
+                ? ((UserPrincipal) authentication.getPrincipal()).getCompiledAuthorities()
+                : null;
+    }
+
+    @Override
+    public boolean hasAuthority(String authority) {
+        if (compiledAuthorities == null) {
+            return delegate.hasAuthority(authority);
+        }
+        return compiledAuthorities.hasAuthority(authority);
+    }
+
+    @Override
+    public boolean hasAnyAuthority(String... authorities) {
+        if (compiledAuthorities == null) {
+            return delegate.hasAnyAuthority(authorities);
+        }
+        for (String authority : authorities) {
+            if (compiledAuthorities.hasAuthority(authority)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    @Override
+    public Authentication getAuthentication() {
+        return delegate.getAuthentication();
+    }
+
+    public Object getPrincipal() {
+        return delegate.getPrincipal();
+    }
+
+    @Override
+    public boolean hasRole(String role) {
+        return delegate.hasRole(role);
+    }
+
+    @Override
+    public boolean hasAnyRole(String... roles) {
+        return delegate.hasAnyRole(roles);
+    }
+
+    @Override
+    public boolean permitAll() {
+        return delegate.permitAll();
+    }
+
+    @Override
+    public boolean denyAll() {
+        return delegate.denyAll();
+    }
+
+    @Override
+    public boolean isAnonymous() {
+        return delegate.isAnonymous();
+    }
+
+    @Override
+    public boolean isAuthenticated() {
+        return delegate.isAuthenticated();
+    }
+
+    @Override
+    public boolean isRememberMe() {
+        return delegate.isRememberMe();
+    }
+
+    @Override
+    public boolean isFullyAuthenticated() {
+        return delegate.isFullyAuthenticated();
+    }
+
+    @Override
+    public boolean hasPermission(Object target, Object permission) {
+        return delegate.hasPermission(target, permission);
+    }
+
+    @Override
+    public boolean hasPermission(Object targetId, String targetType, Object permission) {
+        return delegate.hasPermission(targetId, targetType, permission);
+    }
+
+    @Override
+    public void setFilterObject(Object filterObject) {
+        this.filterObject = filterObject;
+    }
+
+    @Override
+    public Object getFilterObject() {
+        return filterObject;
+    }
+
+    @Override
+    public void setReturnObject(Object returnObject) {
+        this.returnObject = returnObject;
+    }
+
+    @Override
+    public Object getReturnObject() {
+        return returnObject;
+    }
+
+    void setThis(Object target) {
+        this.target = target;
+    }
+
+    @Override
+    public Object getThis() {
+        return target;
+    }
+}
@@ -0,0 +1,30 @@
+package guru.sfg.brewery.security;
+
+import org.aopalliance.intercept.MethodInvocation;
+import org.springframework.security.access.expression.SecurityExpressionRoot;
+import org.springframework.security.access.expression.method.DefaultMethodSecurityExpressionHandler;
+import org.springframework.security.access.expression.method.MethodSecurityExpressionOperations;
+import org.springframework.security.core.Authentication;
+
+/**
+ * Evaluates the {@code security/perms} annotations against {@link PermissionMaskExpressionRoot}. Parsed
+ * expressions are already cached per method by the metadata source, so this only changes how each check
+ * is answered.
+ */
+public class PermissionMaskMethodSecurityExpressionHandler extends DefaultMethodSecurityExpressionHandler {
+
+    @Override
+    protected MethodSecurityExpressionOperations createSecurityExpressionRoot(Authentication authentication,
+            MethodInvocation invocation) {
+        SecurityExpressionRoot delegate = new SecurityExpressionRoot(authentication) {
+        };
+        delegate.setTrustResolver(getTrustResolver());
+        delegate.setPermissionEvaluator(getPermissionEvaluator());
+        delegate.setRoleHierarchy(getRoleHierarchy());
+        delegate.setDefaultRolePrefix(getDefaultRolePrefix());
+
+        PermissionMaskExpressionRoot root = new PermissionMaskExpressionRoot(delegate, authentication);
+        root.setThis(invocation.getThis());
+        return root;
+    }
+}
@@ -0,0 +1,25 @@
+package guru.sfg.brewery.security;
+
+import org.springframework.core.env.Environment;
+import org.springframework.core.env.Profiles;
+
+/**
+ * Keys whose value committed in application.properties is a development placeholder. A placeholder is only
+ * accepted while the dev profile is active; anywhere else startup fails until a real key is configured.
+ */
+public final class PlaceholderKeys {
+
+    private PlaceholderKeys() {
+    }
+
+    /**
+     * @return {@code value}, once it is known not to be a placeholder outside the dev profile
+     */
+    public static String require(String property, String value, String placeholder, Environment environment) {
+        if (placeholder.equals(value) && !environment.acceptsProfiles(Profiles.of("dev"))) {
+            throw new IllegalStateException(property + " is the committed placeholder; "
+                    + "set a real key or run with the dev profile");
+        }
+        return value;
+    }
+}
@@ -9,17 +9,37 @@ import org.springframework.security.crypto.password.PasswordEncoder;
 
 public class SfgPasswordEncoderFactories {
 
-	@SuppressWarnings("deprecation")
+	public static final String DEFAULT_ENCODING_ID     = "bcrypt";
+	public static final int    DEFAULT_BCRYPT_STRENGTH = 10;
+
 	public static PasswordEncoder createDelegatingPasswordEncoder() {
-		String encodingId = "bcrypt";
+		return createDelegatingPasswordEncoder(DEFAULT_BCRYPT_STRENGTH);
+ 	}
+
+	/**
+	 * @param bcryptStrength strength of the default {@code bcrypt} encoder, see {@link BCryptStrengthCalibrator}.
+	 */
+	public static PasswordEncoder createDelegatingPasswordEncoder(int bcryptStrength) {
+		return new DelegatingPasswordEncoder(DEFAULT_ENCODING_ID, createEncoders(bcryptStrength));
+	}
+
+	public static Map<String, PasswordEncoder> createEncoders() {
+		return createEncoders(DEFAULT_BCRYPT_STRENGTH);
+	}
+
+	/**
+	 * @return the encoders by id, as dispatched to by {@link #createDelegatingPasswordEncoder()}.
+	 */
+	@SuppressWarnings("deprecation")
+	public static Map<String, PasswordEncoder> createEncoders(int bcryptStrength) {
 		Map<String, PasswordEncoder> encoders = new HashMap<>();
-		encoders.put(encodingId, new BCryptPasswordEncoder(10));
+		encoders.put(DEFAULT_ENCODING_ID, new BCryptPasswordEncoder(bcryptStrength));
 		encoders.put("ldap", new org.springframework.security.crypto.password.LdapShaPasswordEncoder());
 		encoders.put("noop", org.springframework.security.crypto.password.NoOpPasswordEncoder.getInstance());
 		encoders.put("sha256", new org.springframework.security.crypto.password.StandardPasswordEncoder());
 		encoders.put("bcrypt15",  new BCryptPasswordEncoder(15));
-		return new DelegatingPasswordEncoder(encodingId, encoders);
- 	}
+		return encoders;
+	}
 
 	private SfgPasswordEncoderFactories() {
 	}
@@ -0,0 +1,90 @@
+package guru.sfg.brewery.security;
+
+import java.util.Set;
+import java.util.UUID;
+
+import org.springframework.security.core.CredentialsContainer;
+import org.springframework.security.core.GrantedAuthority;
+import org.springframework.security.core.userdetails.UserDetails;
+
+import guru.sfg.brewery.bootstrap.DefaultBreweryLoader;
+import guru.sfg.brewery.domain.security.CompiledAuthorities;
+import guru.sfg.brewery.domain.security.User;
+import lombok.AccessLevel;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.EqualsAndHashCode;
+import lombok.Getter;
+import lombok.ToString;
+
+/**
+ * The authenticated user as held in the {@code SecurityContext} and session: ids, flattened permissions
+ * and account/2FA flags, detached from the JPA {@link User} graph. Immutable apart from the password,
+ * which is never serialized and is erased once authentication completes. A change of 2FA state produces
+ * a new principal ({@link #withGoogle2FAVerified()}).
+ */
+@Getter
+@Builder(toBuilder = true)
+@AllArgsConstructor(access = AccessLevel.PRIVATE)
+@EqualsAndHashCode(onlyExplicitlyIncluded = true)
+@ToString(exclude = "password")
+public class UserPrincipal implements UserDetails, CredentialsContainer {
+
+    private static final long serialVersionUID = 4301915683203385447L;
+
+    private final Integer             id;
+    @EqualsAndHashCode.Include
+    private final String              username;
+    private transient String          password;
+    private final UUID                customerId;
+    @ToString.Exclude
+    private final CompiledAuthorities compiledAuthorities;
+
+    private final boolean accountNonExpired;
+    private final boolean accountNonLocked;
+    private final boolean credentialsNonExpired;
+    private final boolean enabled;
+    private final boolean useGoogle2FA;
+    private final boolean google2FARequired;
+
+    public static UserPrincipal from(User user) {
+        return UserPrincipal.builder()
+                .id(user.getId())
+                .username(user.getUsername())
+                .password(user.getPassword())
+                .customerId(user.getCustomer() == null ? null : user.getCustomer().getId())
+                .compiledAuthorities(user.getCompiledAuthorities())
+                .accountNonExpired(user.isAccountNonExpired())
+                .accountNonLocked(user.isAccountNonLocked())
+                .credentialsNonExpired(user.isCredentialsNonExpired())
+                .enabled(user.isEnabled())
+                .useGoogle2FA(Boolean.TRUE.equals(user.getUseGoogle2FA()))
+                .google2FARequired(Boolean.TRUE.equals(user.getUseGoogle2FA()))
+                .build();
+    }
+
+    @Override
+    public Set<GrantedAuthority> getAuthorities() {
+        return compiledAuthorities.getAuthorities();
+    }
+
+    public boolean hasAuthority(String permission) {
+        return compiledAuthorities.hasAuthority(permission);
+    }
+
+    /**
+     * Staff with {@code order.read} see every order; everyone else at most their own customer's.
+     */
+    public boolean canReadAllOrders() {
+        return compiledAuthorities.hasAuthority(DefaultBreweryLoader.PERMISSION_ORDER_READ);
+    }
+
+    public UserPrincipal withGoogle2FAVerified() {
+        return toBuilder().google2FARequired(false).build();
+    }
+
+    @Override
+    public void eraseCredentials() {
+        password = null;
+    }
+}
@@ -0,0 +1,12 @@
+package guru.sfg.brewery.security;
+
+/**
+ * Holds data derived from a user's credentials, lock state, roles or 2FA setup. Every implementation is
+ * invalidated by {@link UserSecurityCacheInvalidator} when a {@link UserSecurityChangedEvent} is published.
+ */
+public interface UserSecurityCache {
+
+    void invalidate(String username);
+
+    void invalidateAll();
+}
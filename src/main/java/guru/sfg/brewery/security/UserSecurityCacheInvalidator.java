@@ -0,0 +1,31 @@
+package guru.sfg.brewery.security;
+
+import java.util.List;
+
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Fans a {@link UserSecurityChangedEvent} out to every {@link UserSecurityCache}.
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class UserSecurityCacheInvalidator {
+
+    private final List<UserSecurityCache> caches;
+
+    @EventListener
+    public void onUserSecurityChanged(UserSecurityChangedEvent event) {
+        if (event.isAllUsers()) {
+            log.debug("Dropping cached security data of all users");
+            caches.forEach(UserSecurityCache::invalidateAll);
+        } else {
+            log.debug("Dropping cached security data of: " + event.getUsername());
+            caches.forEach(cache -> cache.invalidate(event.getUsername()));
+        }
+    }
+}
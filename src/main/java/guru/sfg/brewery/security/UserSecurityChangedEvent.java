@@ -0,0 +1,23 @@
+package guru.sfg.brewery.security;
+
+import lombok.Getter;
+import lombok.RequiredArgsConstructor;
+
+/**
+ * Published whenever a user's password, lock state, roles or authorities change, so anything holding
+ * security data derived from the user can drop it. A {@code null} username means every user is affected.
+ */
+@Getter
+@RequiredArgsConstructor
+public class UserSecurityChangedEvent {
+
+    private final String username;
+
+    public static UserSecurityChangedEvent allUsers() {
+        return new UserSecurityChangedEvent(null);
+    }
+
+    public boolean isAllUsers() {
+        return username == null;
+    }
+}
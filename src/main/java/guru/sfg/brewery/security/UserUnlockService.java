@@ -1,33 +1,140 @@
 package guru.sfg.brewery.security;
 
 import java.sql.Timestamp;
-import java.time.LocalDateTime;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Iterator;
 import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
 
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.context.event.EventListener;
 import org.springframework.scheduling.annotation.Scheduled;
 import org.springframework.stereotype.Service;
 
-import guru.sfg.brewery.domain.security.User;
 import guru.sfg.brewery.repositories.security.UserRepository;
-import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 
-@RequiredArgsConstructor
+/**
+ * Unlocks accounts when their lockout expires. Deadlines sit in a hashed timing wheel with one second
+ * ticks; every tick only visits the slot(s) that came due, and everything that expired in the same tick
+ * is unlocked with a single bulk update. The wheel lives in memory, so it is rebuilt from the locked
+ * accounts in the database on startup. A low-frequency sweep of the database unlocks whatever the wheel
+ * does not know about, e.g. accounts locked by another node.
+ */
 @Slf4j
 @Service
 public class UserUnlockService {
-    private final UserRepository userRepository;
 
-    @Scheduled(fixedRate = 300000)
+    private static final long TICK_MILLIS = 1000L;
+
+    private final UserRepository            userRepository;
+    private final ApplicationEventPublisher eventPublisher;
+    private final long                      lockMillis;
+
+    private final List<List<Deadline>>  wheel;
+    private final Map<String, Deadline> deadlines = new ConcurrentHashMap<>();
+    private long                        currentTick;
+
+    public UserUnlockService(UserRepository userRepository, ApplicationEventPublisher eventPublisher,
+            @Value("${sfg.security.lockout.duration:30s}") Duration lockDuration,
+            @Value("${sfg.security.lockout.wheel-size:512}") int wheelSize) {
+        this.userRepository = userRepository;
+        this.eventPublisher = eventPublisher;
+        this.lockMillis = lockDuration.toMillis();
+        this.wheel = new ArrayList<>(wheelSize);
+        for (int i = 0; i < wheelSize; i++) {
+            wheel.add(new ArrayList<>());
+        }
+        this.currentTick = System.currentTimeMillis() / TICK_MILLIS;
+    }
+
+    /**
+     * Schedules the unlock of an account locked at the given time, replacing any earlier deadline.
+     */
+    public void scheduleUnlock(String username, Timestamp lockedAt) {
+        long deadlineTick = (lockedAt.getTime() + lockMillis + TICK_MILLIS - 1) / TICK_MILLIS;
+        Deadline deadline = new Deadline(username, deadlineTick);
+
+        synchronized (this) {
+            deadlines.put(username, deadline);
+            // Deadlines already behind the cursor go into the next slot to be visited.
+            wheel.get(slot(Math.max(deadlineTick, currentTick))).add(deadline);
+        }
+        log.debug("Account unlock scheduled for " + username + " at " + new Timestamp(deadlineTick * TICK_MILLIS));
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void rebuild() {
+        List<Object[]> lockedUsers = userRepository.findLockedUsernamesAndLastModifiedDates();
+        lockedUsers.forEach(row -> scheduleUnlock((String) row[0], (Timestamp) row[1]));
+        log.debug("Unlock wheel rebuilt with " + lockedUsers.size() + " locked accounts");
+    }
+
+    @Scheduled(fixedDelayString = "${sfg.security.lockout.sweep-interval:60000}",
+            initialDelayString = "${sfg.security.lockout.sweep-interval:60000}")
+    public void sweep() {
+        Timestamp lockedBefore = new Timestamp(System.currentTimeMillis() - lockMillis);
+        List<String> expired = userRepository.findUsernamesLockedBefore(lockedBefore);
+
+        if (expired.size() > 0) {
+            // Re-checks the lock time, so an account locked again since the select stays locked.
+            int unlocked = userRepository.unlockByUsernamesLockedBefore(expired, lockedBefore,
+                    new Timestamp(System.currentTimeMillis()));
+            log.debug("Sweep unlocked " + unlocked + " expired accounts missed by the wheel: " + expired);
+            expired.forEach(username -> eventPublisher.publishEvent(new UserSecurityChangedEvent(username)));
+        }
+    }
+
+    @Scheduled(fixedRate = TICK_MILLIS)
     public void unlockAccounts() {
-        log.debug("Running Unlock Accounts...");
-        List<User> lockedUsers = userRepository.findAllByAccountNonLockedAndLastModifiedDateIsBefore(
-                false, Timestamp.valueOf(LocalDateTime.now().minusSeconds(30)));
-        
-        if (lockedUsers.size() > 0) {
-            log.debug("Locked Accounts Found, Unlocking");
-            lockedUsers.forEach(user -> user.setAccountNonLocked(true));
-            userRepository.saveAll(lockedUsers);
+        List<String> expired = advance(System.currentTimeMillis() / TICK_MILLIS);
+
+        if (expired.size() > 0) {
+            log.debug("Locked Accounts Expired, Unlocking: " + expired);
+            userRepository.unlockByUsernames(expired, new Timestamp(System.currentTimeMillis()));
+            expired.forEach(username -> eventPublisher.publishEvent(new UserSecurityChangedEvent(username)));
+        }
+    }
+
+    private synchronized List<String> advance(long nowTick) {
+        List<String> expired = new ArrayList<>();
+        if (deadlines.isEmpty()) {
+            currentTick = nowTick + 1;
+            return expired;
+        }
+
+        for (; currentTick <= nowTick; currentTick++) {
+            Iterator<Deadline> slotDeadlines = wheel.get(slot(currentTick)).iterator();
+            while (slotDeadlines.hasNext()) {
+                Deadline deadline = slotDeadlines.next();
+                if (deadlines.get(deadline.username) != deadline) {
+                    slotDeadlines.remove(); // superseded by a later lock
+                } else if (deadline.tick <= nowTick) {
+                    slotDeadlines.remove();
+                    deadlines.remove(deadline.username);
+                    expired.add(deadline.username);
+                }
+            }
+        }
+        return expired;
+    }
+
+    private int slot(long tick) {
+        return (int) (tick % wheel.size());
+    }
+
+    private static final class Deadline {
+
+        private final String username;
+        private final long   tick;
+
+        Deadline(String username, long tick) {
+            this.username = username;
+            this.tick = tick;
         }
     }
 }
@@ -0,0 +1,75 @@
+package guru.sfg.brewery.security;
+
+import java.nio.charset.StandardCharsets;
+import java.security.GeneralSecurityException;
+import java.security.MessageDigest;
+import java.security.SecureRandom;
+import java.time.Duration;
+
+import javax.crypto.Mac;
+import javax.crypto.spec.SecretKeySpec;
+
+import org.springframework.stereotype.Component;
+
+import com.github.benmanes.caffeine.cache.Cache;
+
+import guru.sfg.brewery.config.MeteredCacheFactory;
+
+/**
+ * Remembers credentials that recently passed a full password check so repeated HTTP Basic calls can skip
+ * the BCrypt verification. Only an HMAC of the raw password and the stored hash is kept, under a key that
+ * never leaves the process; a changed stored hash therefore never matches an old entry.
+ */
+@Component
+public class VerifiedCredentialCache implements UserSecurityCache {
+
+    private static final String HMAC_ALGORITHM = "HmacSHA256";
+
+    private final Cache<String, byte[]> verified;
+    private final SecretKeySpec         digestKey;
+
+    public VerifiedCredentialCache(MeteredCacheFactory cacheFactory) {
+        byte[] key = new byte[32];
+        new SecureRandom().nextBytes(key);
+        this.digestKey = new SecretKeySpec(key, HMAC_ALGORITHM);
+        this.verified = cacheFactory.expireAfterWrite("verifiedCredentials", "sfg.security.credential-cache", 10000,
+                Duration.ofMinutes(5));
+    }
+
+    public boolean isVerified(String username, String rawPassword, String encodedPassword) {
+        if (rawPassword == null || encodedPassword == null) {
+            return false;
+        }
+        byte[] cached = verified.getIfPresent(username);
+        return cached != null && MessageDigest.isEqual(cached, digest(rawPassword, encodedPassword));
+    }
+
+    public void verified(String username, String rawPassword, String encodedPassword) {
+        if (rawPassword != null && encodedPassword != null) {
+            verified.put(username, digest(rawPassword, encodedPassword));
+        }
+    }
+
+    @Override
+    public void invalidate(String username) {
+        verified.invalidate(username);
+    }
+
+    @Override
+    public void invalidateAll() {
+        verified.invalidateAll();
+    }
+
+    private byte[] digest(String rawPassword, String encodedPassword) {
+        try {
+            Mac mac = Mac.getInstance(HMAC_ALGORITHM);
+            mac.init(digestKey);
+            mac.update(rawPassword.getBytes(StandardCharsets.UTF_8));
+            mac.update((byte) 0);
+            mac.update(encodedPassword.getBytes(StandardCharsets.UTF_8));
+            return mac.doFinal();
+        } catch (GeneralSecurityException e) {
+            throw new IllegalStateException(HMAC_ALGORITHM + " not available", e);
+        }
+    }
+}
@@ -0,0 +1,56 @@
+package guru.sfg.brewery.security.apikey;
+
+import java.io.IOException;
+import java.util.Optional;
+
+import javax.servlet.FilterChain;
+import javax.servlet.ServletException;
+import javax.servlet.http.HttpServletRequest;
+import javax.servlet.http.HttpServletResponse;
+
+import org.springframework.http.HttpStatus;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.security.web.util.matcher.RequestMatcher;
+import org.springframework.util.StringUtils;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Authenticates machine clients from the {@code Api-Key}/{@code Api-Secret} headers against the
+ * {@link ApiKeyIndex}. Requests without an {@code Api-Key} header continue down the chain untouched.
+ */
+@Slf4j
+@RequiredArgsConstructor
+public class ApiKeyAuthFilter extends OncePerRequestFilter {
+
+    public static final String API_KEY_HEADER    = "Api-Key";
+    public static final String API_SECRET_HEADER = "Api-Secret";
+
+    private final RequestMatcher requestMatcher;
+    private final ApiKeyIndex    apiKeyIndex;
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain filterChain)
+            throws ServletException, IOException {
+        String apiKey = request.getHeader(API_KEY_HEADER);
+        if (!StringUtils.hasText(apiKey) || !requestMatcher.matches(request)) {
+            filterChain.doFilter(request, response);
+            return;
+        }
+
+        Optional<Authentication> authentication = apiKeyIndex.authenticate(apiKey, request.getHeader(API_SECRET_HEADER));
+        if (authentication.isEmpty()) {
+            log.debug("API key authentication failed");
+            SecurityContextHolder.clearContext();
+            response.sendError(HttpStatus.UNAUTHORIZED.value(), HttpStatus.UNAUTHORIZED.getReasonPhrase());
+            return;
+        }
+
+        log.debug("API key authenticated: " + authentication.get().getName());
+        SecurityContextHolder.getContext().setAuthentication(authentication.get());
+        filterChain.doFilter(request, response);
+    }
+}
@@ -0,0 +1,29 @@
+package guru.sfg.brewery.security.apikey;
+
+import java.util.Collection;
+
+import org.springframework.security.authentication.AbstractAuthenticationToken;
+import org.springframework.security.core.GrantedAuthority;
+
+public class ApiKeyAuthenticationToken extends AbstractAuthenticationToken {
+
+    private static final long serialVersionUID = 2794510235012412372L;
+
+    private final Object principal;
+
+    public ApiKeyAuthenticationToken(Object principal, Collection<? extends GrantedAuthority> authorities) {
+        super(authorities);
+        this.principal = principal;
+        setAuthenticated(true);
+    }
+
+    @Override
+    public Object getCredentials() {
+        return null;
+    }
+
+    @Override
+    public Object getPrincipal() {
+        return principal;
+    }
+}
@@ -0,0 +1,56 @@
+package guru.sfg.brewery.security.apikey;
+
+import java.nio.charset.StandardCharsets;
+import java.security.GeneralSecurityException;
+import java.security.MessageDigest;
+
+import javax.crypto.Mac;
+import javax.crypto.spec.SecretKeySpec;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.env.Environment;
+import org.springframework.security.crypto.codec.Hex;
+import org.springframework.stereotype.Component;
+
+import guru.sfg.brewery.security.PlaceholderKeys;
+
+/**
+ * Keyed hash (HMAC-SHA256) for customer API secrets. API secrets are random, high-entropy values, so a fast
+ * keyed hash is sufficient and keeps machine-to-machine authentication in the microsecond range, unlike
+ * the BCrypt used for user passwords.
+ */
+@Component
+public class ApiKeyHasher {
+
+    private static final String HMAC_ALGORITHM = "HmacSHA256";
+
+    public static final String PLACEHOLDER_HASH_KEY = "sfg-dev-api-key-hash-key-change-me";
+
+    private final SecretKeySpec key;
+
+    public ApiKeyHasher(@Value("${sfg.security.api-key.hash-key}") String hashKey, Environment environment) {
+        PlaceholderKeys.require("sfg.security.api-key.hash-key", hashKey, PLACEHOLDER_HASH_KEY, environment);
+        this.key = new SecretKeySpec(hashKey.getBytes(StandardCharsets.UTF_8), HMAC_ALGORITHM);
+    }
+
+    public String encode(String secret) {
+        return new String(Hex.encode(hash(secret)));
+    }
+
+    public byte[] hash(String secret) {
+        try {
+            Mac mac = Mac.getInstance(HMAC_ALGORITHM);
+            mac.init(key);
+            return mac.doFinal(secret.getBytes(StandardCharsets.UTF_8));
+        } catch (GeneralSecurityException e) {
+            throw new IllegalStateException(HMAC_ALGORITHM + " not available", e);
+        }
+    }
+
+    /**
+     * Constant time comparison of a presented secret against a stored hash.
+     */
+    public boolean matches(String secret, byte[] storedHash) {
+        return secret != null && MessageDigest.isEqual(hash(secret), storedHash);
+    }
+}
@@ -0,0 +1,185 @@
+package guru.sfg.brewery.security.apikey;
+
+import java.sql.Timestamp;
+import java.time.Instant;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Optional;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.stream.Collectors;
+
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.GrantedAuthority;
+import org.springframework.security.crypto.codec.Hex;
+import org.springframework.stereotype.Component;
+
+import guru.sfg.brewery.bootstrap.DefaultBreweryLoader;
+import guru.sfg.brewery.domain.Customer;
+import guru.sfg.brewery.domain.security.AuthoritySets;
+import guru.sfg.brewery.domain.security.Role;
+import guru.sfg.brewery.repositories.CustomerRepository;
+import guru.sfg.brewery.repositories.security.RoleRepository;
+import guru.sfg.brewery.security.UserPrincipal;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * In-memory index of customer API keys. Fully loaded once the application is ready, then refreshed
+ * incrementally from customers modified since the previous refresh. Deleted customers never show up in
+ * that query, so a less frequent reconcile drops every indexed customer that is no longer in the database.
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class ApiKeyIndex {
+
+    // Overlap between refresh windows so rows committed while the previous refresh ran are not missed.
+    private static final long REFRESH_OVERLAP_MILLIS = 1000;
+
+    private final CustomerRepository customerRepository;
+    private final RoleRepository     roleRepository;
+    private final ApiKeyHasher       apiKeyHasher;
+
+    private final ConcurrentMap<UUID, ApiKeyEntry> entriesByApiKey   = new ConcurrentHashMap<>();
+    private final ConcurrentMap<UUID, UUID>        apiKeysByCustomer = new ConcurrentHashMap<>();
+
+    private Timestamp lastRefresh;
+
+    public Optional<Authentication> authenticate(String apiKey, String apiSecret) {
+        UUID key;
+        try {
+            key = UUID.fromString(apiKey);
+        } catch (IllegalArgumentException e) {
+            return Optional.empty();
+        }
+
+        ApiKeyEntry entry = entriesByApiKey.get(key);
+        if (entry == null || !apiKeyHasher.matches(apiSecret, entry.secretHash)) {
+            return Optional.empty();
+        }
+        if (!entry.principal.getCompiledAuthorities().isCurrent()) {
+            // The customer role's authorities changed since this key was indexed.
+            entry = recompile(key, entry);
+        }
+        return Optional.of(new ApiKeyAuthenticationToken(entry.principal, entry.authorities));
+    }
+
+    /**
+     * The principal indexed for a customer's API key, if the customer still has one.
+     */
+    public Optional<UserPrincipal> findPrincipal(UUID customerId) {
+        UUID apiKey = apiKeysByCustomer.get(customerId);
+        ApiKeyEntry entry = apiKey == null ? null : entriesByApiKey.get(apiKey);
+        if (entry == null) {
+            return Optional.empty();
+        }
+        if (!entry.principal.getCompiledAuthorities().isCurrent()) {
+            entry = recompile(apiKey, entry);
+        }
+        return Optional.of(entry.principal);
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public synchronized void load() {
+        entriesByApiKey.clear();
+        apiKeysByCustomer.clear();
+        lastRefresh = null;
+        refresh();
+    }
+
+    @Scheduled(fixedDelayString = "${sfg.security.api-key.refresh-interval:30000}",
+            initialDelayString = "${sfg.security.api-key.refresh-interval:30000}")
+    public synchronized void refresh() {
+        Optional<Role> customerRole = roleRepository.findByName(DefaultBreweryLoader.ROLE_CUSTOMER);
+        if (customerRole.isEmpty()) {
+            log.debug("Customer role not loaded yet, skipping API key refresh");
+            return;
+        }
+
+        Timestamp startedAt = Timestamp.from(Instant.now().minusMillis(REFRESH_OVERLAP_MILLIS));
+        List<Customer> customers = lastRefresh == null
+                ? customerRepository.findAll()
+                : customerRepository.findAllByLastModifiedDateGreaterThanEqual(lastRefresh);
+
+        customers.forEach(customer -> update(customer, customerRole.get()));
+        lastRefresh = startedAt;
+
+        log.debug("API key index refreshed. Changed customers: " + customers.size() + " Keys: "
+                + entriesByApiKey.size());
+    }
+
+    @Scheduled(fixedDelayString = "${sfg.security.api-key.reconcile-interval:300000}",
+            initialDelayString = "${sfg.security.api-key.reconcile-interval:300000}")
+    public synchronized void reconcile() {
+        Set<UUID> existing = new HashSet<>(customerRepository.findAllIds());
+        List<UUID> deleted = apiKeysByCustomer.keySet().stream()
+                .filter(customerId -> !existing.contains(customerId))
+                .collect(Collectors.toList());
+
+        deleted.forEach(this::evict);
+        if (deleted.size() > 0) {
+            log.debug("API keys of deleted customers evicted: " + deleted);
+        }
+    }
+
+    public void evict(UUID customerId) {
+        UUID apiKey = apiKeysByCustomer.remove(customerId);
+        if (apiKey != null) {
+            entriesByApiKey.remove(apiKey);
+        }
+    }
+
+    private void update(Customer customer, Role customerRole) {
+        if (customer.getApiKey() == null || customer.getApiSecret() == null) {
+            evict(customer.getId());
+            return;
+        }
+
+        UUID previousKey = apiKeysByCustomer.put(customer.getId(), customer.getApiKey());
+        if (previousKey != null && !previousKey.equals(customer.getApiKey())) {
+            entriesByApiKey.remove(previousKey);
+        }
+
+        // Detached principal carrying only what authorization needs.
+        UserPrincipal principal = UserPrincipal.builder()
+                .username(customer.getCustomerName())
+                .customerId(customer.getId())
+                .compiledAuthorities(AuthoritySets.compile(Set.of(customerRole)))
+                .accountNonExpired(true)
+                .accountNonLocked(true)
+                .credentialsNonExpired(true)
+                .enabled(true)
+                .build();
+
+        entriesByApiKey.put(customer.getApiKey(),
+                new ApiKeyEntry(Hex.decode(customer.getApiSecret()), principal, principal.getAuthorities()));
+    }
+
+    private ApiKeyEntry recompile(UUID apiKey, ApiKeyEntry entry) {
+        Optional<Role> customerRole = roleRepository.findByName(DefaultBreweryLoader.ROLE_CUSTOMER);
+        if (customerRole.isEmpty()) {
+            return entry;
+        }
+
+        UserPrincipal principal = entry.principal.toBuilder()
+                .compiledAuthorities(AuthoritySets.compile(Set.of(customerRole.get())))
+                .build();
+        ApiKeyEntry recompiled = new ApiKeyEntry(entry.secretHash, principal, principal.getAuthorities());
+        // A concurrent refresh may have replaced the entry already; its authorities are current as well.
+        entriesByApiKey.replace(apiKey, entry, recompiled);
+        return recompiled;
+    }
+
+    @RequiredArgsConstructor
+    private static class ApiKeyEntry {
+        private final byte[]                secretHash;
+        private final UserPrincipal         principal;
+        private final Set<GrantedAuthority> authorities;
+    }
+}
@@ -0,0 +1,32 @@
+package guru.sfg.brewery.security.audit;
+
+import java.sql.Timestamp;
+
+import lombok.Getter;
+import lombok.RequiredArgsConstructor;
+
+/**
+ * One login attempt waiting to be written to {@code login_success} or {@code login_failure}.
+ */
+@Getter
+@RequiredArgsConstructor
+public class LoginAuditEvent {
+
+    public enum Type {
+        SUCCESS, FAILURE
+    }
+
+    private final Type      type;
+    private final Integer   userId;
+    private final String    username;
+    private final String    sourceIp;
+    private final Timestamp createdDate;
+
+    public static LoginAuditEvent success(Integer userId, String username, String sourceIp) {
+        return new LoginAuditEvent(Type.SUCCESS, userId, username, sourceIp, new Timestamp(System.currentTimeMillis()));
+    }
+
+    public static LoginAuditEvent failure(String username, String sourceIp) {
+        return new LoginAuditEvent(Type.FAILURE, null, username, sourceIp, new Timestamp(System.currentTimeMillis()));
+    }
+}
@@ -0,0 +1,16 @@
+package guru.sfg.brewery.security.audit;
+
+/**
+ * What {@link LoginAuditWriter} does with an event when its queue is full.
+ */
+public enum LoginAuditOverflowPolicy {
+
+    /** Discard the new event. */
+    DROP_NEWEST,
+
+    /** Discard the oldest queued event to make room. */
+    DROP_OLDEST,
+
+    /** Flush a batch on the calling thread, then queue the event. Slows logins down instead of losing audit. */
+    CALLER_RUNS
+}
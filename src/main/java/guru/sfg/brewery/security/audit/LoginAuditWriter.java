@@ -0,0 +1,150 @@
+package guru.sfg.brewery.security.audit;
+
+import java.sql.Types;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+
+import javax.annotation.PreDestroy;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Takes login audit rows off the request thread. Events are queued in a bounded buffer and written in JDBC
+ * batches by a scheduled drain; whatever is left is flushed on shutdown. Each batch is written in one
+ * transaction, so a failed write loses the whole batch and nothing of it is half written.
+ */
+@Slf4j
+@Component
+public class LoginAuditWriter {
+
+    // @formatter:off
+    private static final String INSERT_SUCCESS = "insert into login_success "
+            + "(id, user_id, source_ip, created_date, last_modified_date) "
+            + "values (next value for hibernate_sequence, ?, ?, ?, ?)";
+    private static final String INSERT_FAILURE = "insert into login_failure "
+            + "(id, username, user_id, source_ip, created_date, last_modified_date) "
+            + "values (next value for hibernate_sequence, ?, (select u.id from user u where u.username = ?), ?, ?, ?)";
+    // @formatter:on
+
+    private final JdbcTemplate                   jdbcTemplate;
+    private final TransactionTemplate            transactionTemplate;
+    private final BlockingQueue<LoginAuditEvent> queue;
+    private final int                            batchSize;
+    private final LoginAuditOverflowPolicy       overflowPolicy;
+    private final Counter                        dropped;
+    private final Counter                        failed;
+    private final Timer                          flushTimer;
+
+    public LoginAuditWriter(JdbcTemplate jdbcTemplate,
+            PlatformTransactionManager transactionManager,
+            MeterRegistry meterRegistry,
+            @Value("${sfg.security.login-audit.capacity:10000}") int capacity,
+            @Value("${sfg.security.login-audit.batch-size:500}") int batchSize,
+            @Value("${sfg.security.login-audit.overflow-policy:DROP_NEWEST}") LoginAuditOverflowPolicy overflowPolicy) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.queue = new ArrayBlockingQueue<>(capacity);
+        this.batchSize = batchSize;
+        this.overflowPolicy = overflowPolicy;
+
+        Gauge.builder("sfg.security.login-audit.queue", queue, BlockingQueue::size)
+                .description("Login audit events waiting to be written")
+                .register(meterRegistry);
+        this.dropped = Counter.builder("sfg.security.login-audit.dropped")
+                .description("Login audit events discarded because the queue was full")
+                .register(meterRegistry);
+        this.failed = Counter.builder("sfg.security.login-audit.failed")
+                .description("Login audit events lost because writing their batch failed")
+                .register(meterRegistry);
+        this.flushTimer = Timer.builder("sfg.security.login-audit.flush")
+                .description("Time to write one batch of login audit events")
+                .register(meterRegistry);
+    }
+
+    public void submit(LoginAuditEvent event) {
+        if (queue.offer(event)) {
+            return;
+        }
+
+        switch (overflowPolicy) {
+        case DROP_OLDEST:
+            while (!queue.offer(event)) {
+                if (queue.poll() != null) {
+                    dropped.increment();
+                }
+            }
+            break;
+        case CALLER_RUNS:
+            while (!queue.offer(event)) {
+                flushBatch();
+            }
+            break;
+        default:
+            dropped.increment();
+            log.debug("Login audit queue full, dropping event for: " + event.getUsername());
+        }
+    }
+
+    @Scheduled(fixedDelayString = "${sfg.security.login-audit.flush-interval:1000}")
+    public void flush() {
+        while (flushBatch() == batchSize) {
+            // keep draining while there are full batches
+        }
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        log.debug("Flushing " + queue.size() + " login audit events on shutdown");
+        flush();
+    }
+
+    private synchronized int flushBatch() {
+        List<LoginAuditEvent> batch = new ArrayList<>(batchSize);
+        queue.drainTo(batch, batchSize);
+        if (batch.isEmpty()) {
+            return 0;
+        }
+
+        List<Object[]> successes = new ArrayList<>();
+        List<Object[]> failures = new ArrayList<>();
+        for (LoginAuditEvent event : batch) {
+            if (event.getType() == LoginAuditEvent.Type.SUCCESS) {
+                successes.add(new Object[] { event.getUserId(), event.getSourceIp(), event.getCreatedDate(), event.getCreatedDate() });
+            } else {
+                failures.add(new Object[] { event.getUsername(), event.getUsername(), event.getSourceIp(), event.getCreatedDate(), event.getCreatedDate() });
+            }
+        }
+
+        try {
+            flushTimer.record(() -> transactionTemplate.executeWithoutResult(status -> {
+                if (!successes.isEmpty()) {
+                    jdbcTemplate.batchUpdate(INSERT_SUCCESS, successes,
+                            new int[] { Types.INTEGER, Types.VARCHAR, Types.TIMESTAMP, Types.TIMESTAMP });
+                }
+                if (!failures.isEmpty()) {
+                    jdbcTemplate.batchUpdate(INSERT_FAILURE, failures,
+                            new int[] { Types.VARCHAR, Types.VARCHAR, Types.VARCHAR, Types.TIMESTAMP, Types.TIMESTAMP });
+                }
+            }));
+            log.debug("Login audit flushed. Successes: " + successes.size() + " Failures: " + failures.size());
+        } catch (RuntimeException e) {
+            failed.increment(batch.size());
+            log.error("Failed to write " + batch.size() + " login audit events", e);
+            return batch.size();
+        }
+        return batch.size();
+    }
+}
@@ -0,0 +1,23 @@
+package guru.sfg.brewery.security.classify;
+
+/**
+ * Coarse request categories used by the security filters to decide how much work a request needs. They do
+ * not grant access; the authorization rules in the security configuration stay path based.
+ */
+public enum RequestCategory {
+
+    /** {@code /resources/**}, {@code /webjars/**} and Spring Boot's common static locations. */
+    STATIC,
+
+    /** {@code /api/**}, served by the stateless chain. */
+    API,
+
+    /** The H2 console, {@code /h2-console/**}. Not for production. */
+    H2_CONSOLE,
+
+    /** The 2FA verification page, {@code /user/verify2fa}. */
+    TWO_FACTOR,
+
+    /** Everything else. */
+    UI
+}
@@ -0,0 +1,130 @@
+package guru.sfg.brewery.security.classify;
+
+import java.util.HashMap;
+import java.util.Map;
+
+import javax.servlet.http.HttpServletRequest;
+
+import org.springframework.security.web.util.matcher.RequestMatcher;
+import org.springframework.stereotype.Component;
+
+/**
+ * Classifies a request into a {@link RequestCategory} by walking a trie of path segments built once at
+ * startup. The result is cached as a request attribute, keyed by the path it was computed for, so every
+ * filter after the first gets it for the price of an attribute lookup (forwards and error dispatches
+ * with a different path are classified again).
+ */
+@Component
+public class RequestClassifier {
+
+    private static final String CATEGORY_ATTRIBUTE = RequestClassifier.class.getName() + ".CATEGORY";
+
+    private final Node root = new Node();
+
+    public RequestClassifier() {
+        // @formatter:off
+        prefix(RequestCategory.STATIC,    "resources");
+        prefix(RequestCategory.STATIC,    "webjars");
+        prefix(RequestCategory.STATIC,    "css");
+        prefix(RequestCategory.STATIC,    "js");
+        prefix(RequestCategory.STATIC,    "images");
+        prefix(RequestCategory.API,       "api");
+        prefix(RequestCategory.H2_CONSOLE, "h2-console");
+        exact(RequestCategory.TWO_FACTOR, "user", "verify2fa");
+        // @formatter:on
+    }
+
+    public RequestCategory classify(HttpServletRequest request) {
+        String path = path(request);
+
+        Object cached = request.getAttribute(CATEGORY_ATTRIBUTE);
+        if (cached instanceof Classification && ((Classification) cached).path.equals(path)) {
+            return ((Classification) cached).category;
+        }
+
+        RequestCategory category = classify(path);
+        request.setAttribute(CATEGORY_ATTRIBUTE, new Classification(path, category));
+        return category;
+    }
+
+    /**
+     * @return a matcher for use in the security configuration, backed by the cached classification.
+     */
+    public RequestMatcher matcher(RequestCategory category) {
+        return request -> classify(request) == category;
+    }
+
+    RequestCategory classify(String path) {
+        Node node = root;
+        int start = path.startsWith("/") ? 1 : 0;
+        while (start <= path.length()) {
+            int end = path.indexOf('/', start);
+            if (end < 0) {
+                end = path.length();
+            }
+
+            node = node.children.get(path.substring(start, end));
+            if (node == null) {
+                break;
+            }
+            if (node.prefixCategory != null) {
+                return node.prefixCategory;
+            }
+            if (end == path.length() && node.exactCategory != null) {
+                return node.exactCategory;
+            }
+            start = end + 1;
+        }
+        return isCommonStaticLocation(path) ? RequestCategory.STATIC : RequestCategory.UI;
+    }
+
+    // The remaining common locations, /favicon.* and /*/icon-*, do not fit a segment trie.
+    private static boolean isCommonStaticLocation(String path) {
+        int firstEnd = path.indexOf('/', 1);
+        if (firstEnd < 0) {
+            return path.startsWith("/favicon.");
+        }
+        return path.startsWith("icon-", firstEnd + 1) && path.indexOf('/', firstEnd + 1) < 0;
+    }
+
+    private void prefix(RequestCategory category, String... segments) {
+        node(segments).prefixCategory = category;
+    }
+
+    private void exact(RequestCategory category, String... segments) {
+        node(segments).exactCategory = category;
+    }
+
+    private Node node(String... segments) {
+        Node node = root;
+        for (String segment : segments) {
+            node = node.children.computeIfAbsent(segment, key -> new Node());
+        }
+        return node;
+    }
+
+    private static String path(HttpServletRequest request) {
+        String servletPath = request.getServletPath();
+        String pathInfo = request.getPathInfo();
+        if (pathInfo == null) {
+            return servletPath;
+        }
+        return servletPath == null ? pathInfo : servletPath + pathInfo;
+    }
+
+    private static final class Node {
+        private final Map<String, Node> children = new HashMap<>();
+        private RequestCategory         prefixCategory;
+        private RequestCategory         exactCategory;
+    }
+
+    private static final class Classification {
+        private final String          path;
+        private final RequestCategory category;
+
+        Classification(String path, RequestCategory category) {
+            this.path = path;
+            this.category = category;
+        }
+    }
+}
@@ -9,28 +9,27 @@ import javax.servlet.ServletResponse;
 import javax.servlet.http.HttpServletRequest;
 import javax.servlet.http.HttpServletResponse;
 
-import org.springframework.boot.autoconfigure.security.servlet.PathRequest;
-import org.springframework.boot.autoconfigure.security.servlet.StaticResourceRequest.StaticResourceRequestMatcher;
 import org.springframework.security.authentication.AuthenticationTrustResolver;
 import org.springframework.security.authentication.AuthenticationTrustResolverImpl;
 import org.springframework.security.core.Authentication;
 import org.springframework.security.core.context.SecurityContextHolder;
-import org.springframework.security.web.util.matcher.AntPathRequestMatcher;
-import org.springframework.security.web.util.matcher.RequestMatcher;
 import org.springframework.stereotype.Component;
 import org.springframework.web.filter.GenericFilterBean;
 
-import guru.sfg.brewery.domain.security.User;
+import guru.sfg.brewery.security.UserPrincipal;
+import guru.sfg.brewery.security.classify.RequestCategory;
+import guru.sfg.brewery.security.classify.RequestClassifier;
+import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 
 @Slf4j
 @Component
+@RequiredArgsConstructor
 public class Google2FaFilter extends GenericFilterBean {
 
     private final AuthenticationTrustResolver authenticationTrustResolver = new AuthenticationTrustResolverImpl();
     private final Google2FAFailureHandler     google2FAFailureHandler     = new Google2FAFailureHandler();
-    private final RequestMatcher              urlIs2FA                    = new AntPathRequestMatcher("/user/verify2fa");
-    private final RequestMatcher              urlResource                 = new AntPathRequestMatcher("/resources/**");
+    private final RequestClassifier           requestClassifier;
 
     @Override
     public void doFilter(ServletRequest servletRequest, ServletResponse servletResponse, FilterChain filterChain)
@@ -39,8 +38,8 @@ public class Google2FaFilter extends GenericFilterBean {
         HttpServletResponse response = (HttpServletResponse) servletResponse;
 
         // Skip 2FA filter for verify2fa page and static resources.
-        StaticResourceRequestMatcher staticResourceRequestMatcher = PathRequest.toStaticResources().atCommonLocations();
-        if (urlIs2FA.matches(request) || urlResource.matches(request) || staticResourceRequestMatcher.matches(request)) {
+        RequestCategory category = requestClassifier.classify(request);
+        if (category == RequestCategory.TWO_FACTOR || category == RequestCategory.STATIC) {
             filterChain.doFilter(request, response);
             return;
         }
@@ -49,9 +48,9 @@ public class Google2FaFilter extends GenericFilterBean {
         Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
         if (authentication != null && !authenticationTrustResolver.isAnonymous(authentication)) {
             log.debug("Processing 2fa filter...");
-            if (authentication.getPrincipal() != null && authentication.getPrincipal() instanceof User) {
-                User user = (User) authentication.getPrincipal();
-                if (user.getUseGoogle2FA() && user.getGoogle2FARequired()) {
+            if (authentication.getPrincipal() != null && authentication.getPrincipal() instanceof UserPrincipal) {
+                UserPrincipal user = (UserPrincipal) authentication.getPrincipal();
+                if (user.isUseGoogle2FA() && user.isGoogle2FARequired()) {
                     log.debug("2FA Required");
                     google2FAFailureHandler.onAuthenticationFailure(request, response, null);
                     return;
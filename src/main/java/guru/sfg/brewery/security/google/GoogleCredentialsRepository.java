@@ -1,28 +1,44 @@
 package guru.sfg.brewery.security.google;
 
+import java.time.Duration;
 import java.util.List;
 
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.stereotype.Component;
 
+import com.github.benmanes.caffeine.cache.Cache;
 import com.warrenstrange.googleauth.ICredentialRepository;
 
+import guru.sfg.brewery.config.MeteredCacheFactory;
 import guru.sfg.brewery.domain.security.User;
 import guru.sfg.brewery.repositories.security.UserRepository;
-import lombok.RequiredArgsConstructor;
+import guru.sfg.brewery.security.UserSecurityCache;
+import guru.sfg.brewery.security.UserSecurityChangedEvent;
 import lombok.extern.slf4j.Slf4j;
 
 @Component
 @Slf4j
-@RequiredArgsConstructor
-public class GoogleCredentialsRepository implements ICredentialRepository {
+public class GoogleCredentialsRepository implements ICredentialRepository, UserSecurityCache {
+
+    private final UserRepository            userRepository;
+    private final ApplicationEventPublisher eventPublisher;
+    private final Cache<String, String>     secrets;
+
+    public GoogleCredentialsRepository(UserRepository userRepository, ApplicationEventPublisher eventPublisher,
+            MeteredCacheFactory cacheFactory) {
+        this.userRepository = userRepository;
+        this.eventPublisher = eventPublisher;
+        this.secrets = cacheFactory.expireAfterWrite("totpSecrets", "sfg.security.totp.secret-cache", 10000,
+                Duration.ofHours(1));
+    }
 
-    private final UserRepository userRepository;
-    
     @Override
     public String getSecretKey(String userName) {
-        log.debug("getSecretKey("+userName+")");
-        User user = userRepository.findByUsername(userName).orElseThrow();
-        return user.getGoogle2FASecret();
+        // Users without a secret are not cached; Caffeine does not hold null values.
+        return secrets.get(userName, username -> {
+            log.debug("getSecretKey(" + username + ")");
+            return userRepository.findGoogle2FASecretByUsername(username);
+        });
     }
 
     @Override
@@ -32,6 +48,17 @@ public class GoogleCredentialsRepository implements ICredentialRepository {
         user.setGoogle2FASecret(secretKey);
         user.setUseGoogle2FA(true);
         userRepository.save(user);
+        secrets.invalidate(userName);
+        eventPublisher.publishEvent(new UserSecurityChangedEvent(userName));
     }
 
+    @Override
+    public void invalidate(String username) {
+        secrets.invalidate(username);
+    }
+
+    @Override
+    public void invalidateAll() {
+        secrets.invalidateAll();
+    }
 }
@@ -0,0 +1,85 @@
+package guru.sfg.brewery.security.google;
+
+import java.time.Duration;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.warrenstrange.googleauth.GoogleAuthenticator;
+import com.warrenstrange.googleauth.GoogleAuthenticatorConfig;
+import com.warrenstrange.googleauth.ICredentialRepository;
+
+import guru.sfg.brewery.config.MeteredCacheFactory;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Verifies TOTP codes against the cached secret and accepts each time step at most once per user. The
+ * steps accepted within the verification window are kept in a small ring per user; older steps fall out
+ * of the window by themselves, so the ring never needs to be larger than the window.
+ */
+@Slf4j
+@Component
+public class TotpVerifier {
+
+    private final GoogleAuthenticator          googleAuthenticator;
+    private final ICredentialRepository        credentialRepository;
+    private final long                         timeStepMillis;
+    private final int                          windowSize;
+    private final Cache<String, AcceptedSteps> acceptedSteps;
+
+    public TotpVerifier(MeteredCacheFactory cacheFactory, GoogleAuthenticator googleAuthenticator,
+            GoogleAuthenticatorConfig googleAuthenticatorConfig, ICredentialRepository credentialRepository,
+            @Value("${sfg.security.totp.replay-cache.maximum-size:10000}") long maximumSize) {
+        this.googleAuthenticator = googleAuthenticator;
+        this.credentialRepository = credentialRepository;
+        this.timeStepMillis = googleAuthenticatorConfig.getTimeStepSizeInMillis();
+        this.windowSize = googleAuthenticatorConfig.getWindowSize();
+        this.acceptedSteps = cacheFactory.expireAfterAccess("totpAcceptedSteps", maximumSize,
+                Duration.ofMillis(timeStepMillis * (windowSize + 1)));
+    }
+
+    /**
+     * @return {@code true} if the code is valid for a time step within the window that has not been used yet.
+     */
+    public boolean verify(String username, int code) {
+        String secret = credentialRepository.getSecretKey(username);
+        if (secret == null) {
+            return false;
+        }
+
+        long currentStep = System.currentTimeMillis() / timeStepMillis;
+        long firstStep = currentStep - (windowSize - 1) / 2;
+        for (long step = firstStep; step < firstStep + windowSize; step++) {
+            if (googleAuthenticator.getTotpPassword(secret, step * timeStepMillis) == code) {
+                if (acceptedSteps.get(username, key -> new AcceptedSteps(windowSize)).accept(step)) {
+                    return true;
+                }
+                log.debug("Rejected replayed verification code for: " + username);
+                return false;
+            }
+        }
+        return false;
+    }
+
+    private static final class AcceptedSteps {
+
+        private final long[] steps;
+        private int          next;
+
+        AcceptedSteps(int size) {
+            this.steps = new long[size];
+        }
+
+        synchronized boolean accept(long step) {
+            for (long accepted : steps) {
+                if (accepted == step) {
+                    return false;
+                }
+            }
+            steps[next] = step;
+            next = (next + 1) % steps.length;
+            return true;
+        }
+    }
+}
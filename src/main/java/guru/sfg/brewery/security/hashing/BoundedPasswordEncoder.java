@@ -0,0 +1,125 @@
+package guru.sfg.brewery.security.hashing;
+
+import java.time.Duration;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Future;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+
+import org.springframework.scheduling.concurrent.CustomizableThreadFactory;
+import org.springframework.security.crypto.password.PasswordEncoder;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+
+/**
+ * Runs {@code encode}/{@code matches} of the delegate on a fixed pool of hashing threads with a bounded
+ * queue, so a login burst occupies at most that many cores instead of every request thread. The caller
+ * waits up to {@code waitTimeout}; a full queue or a timeout fails fast with
+ * {@link PasswordHashingRejectedException}.
+ */
+public class BoundedPasswordEncoder implements PasswordEncoder {
+
+    private final PasswordEncoder    delegate;
+    private final ThreadPoolExecutor executor;
+    private final long               waitTimeoutNanos;
+    private final Timer              queueWait;
+    private final Timer              encodeTime;
+    private final Timer              matchesTime;
+    private final Counter            saturated;
+    private final Counter            timedOut;
+
+    public BoundedPasswordEncoder(PasswordEncoder delegate, int threads, int queueCapacity, Duration waitTimeout,
+            MeterRegistry meterRegistry) {
+        this.delegate = delegate;
+        this.executor = new ThreadPoolExecutor(threads, threads, 0, TimeUnit.MILLISECONDS,
+                new ArrayBlockingQueue<>(queueCapacity), new CustomizableThreadFactory("password-hashing-"));
+        this.waitTimeoutNanos = waitTimeout.toNanos();
+
+        Gauge.builder("sfg.security.password-hashing.queue", executor, e -> e.getQueue().size())
+                .description("Password hashing tasks waiting for a hashing thread")
+                .register(meterRegistry);
+        this.queueWait = Timer.builder("sfg.security.password-hashing.queue-wait")
+                .description("Time a password hashing task waited for a hashing thread")
+                .publishPercentileHistogram()
+                .register(meterRegistry);
+        this.encodeTime = hashingTimer(meterRegistry, "encode");
+        this.matchesTime = hashingTimer(meterRegistry, "matches");
+        this.saturated = rejectedCounter(meterRegistry, "saturated");
+        this.timedOut = rejectedCounter(meterRegistry, "timeout");
+    }
+
+    @Override
+    public String encode(CharSequence rawPassword) {
+        return submit(() -> encodeTime.record(() -> delegate.encode(rawPassword)));
+    }
+
+    @Override
+    public boolean matches(CharSequence rawPassword, String encodedPassword) {
+        return submit(() -> matchesTime.record(() -> delegate.matches(rawPassword, encodedPassword)));
+    }
+
+    @Override
+    public boolean upgradeEncoding(String encodedPassword) {
+        // Only parses the hash.
+        return delegate.upgradeEncoding(encodedPassword);
+    }
+
+    public void shutdown() {
+        executor.shutdown();
+    }
+
+    private <T> T submit(Callable<T> hashing) {
+        long queuedAt = System.nanoTime();
+        Future<T> future;
+        try {
+            future = executor.submit(() -> {
+                queueWait.record(System.nanoTime() - queuedAt, TimeUnit.NANOSECONDS);
+                return hashing.call();
+            });
+        } catch (RejectedExecutionException e) {
+            saturated.increment();
+            throw new PasswordHashingRejectedException("Password hashing queue is full");
+        }
+
+        try {
+            return future.get(waitTimeoutNanos - (System.nanoTime() - queuedAt), TimeUnit.NANOSECONDS);
+        } catch (TimeoutException e) {
+            // Still queued: dropped from the queue. Already hashing: finishes, result discarded.
+            future.cancel(false);
+            executor.remove((Runnable) future);
+            timedOut.increment();
+            throw new PasswordHashingRejectedException("Password hashing did not complete in time");
+        } catch (InterruptedException e) {
+            future.cancel(false);
+            Thread.currentThread().interrupt();
+            throw new PasswordHashingRejectedException("Interrupted waiting for password hashing");
+        } catch (ExecutionException e) {
+            if (e.getCause() instanceof RuntimeException) {
+                throw (RuntimeException) e.getCause();
+            }
+            throw new IllegalStateException(e.getCause());
+        }
+    }
+
+    private static Timer hashingTimer(MeterRegistry meterRegistry, String operation) {
+        return Timer.builder("sfg.security.password-hashing.time")
+                .description("Time spent hashing on a hashing thread")
+                .tag("operation", operation)
+                .publishPercentileHistogram()
+                .register(meterRegistry);
+    }
+
+    private static Counter rejectedCounter(MeterRegistry meterRegistry, String reason) {
+        return Counter.builder("sfg.security.password-hashing.rejected")
+                .description("Password hashing requests refused without hashing")
+                .tag("reason", reason)
+                .register(meterRegistry);
+    }
+}
@@ -0,0 +1,15 @@
+package guru.sfg.brewery.security.hashing;
+
+/**
+ * Thrown on the calling thread when the {@link BoundedPasswordEncoder} is saturated or the hash did not
+ * complete in time. Deliberately not an AuthenticationException: the credentials were never checked, so it
+ * must not count as a failed login. {@link PasswordHashingRejectedFilter} turns it into a 503.
+ */
+public class PasswordHashingRejectedException extends RuntimeException {
+
+    private static final long serialVersionUID = -4410262145526453290L;
+
+    public PasswordHashingRejectedException(String message) {
+        super(message);
+    }
+}
@@ -1,19 +1,21 @@
 package guru.sfg.brewery.security.listeners;
 
 import java.sql.Timestamp;
-import java.time.LocalDateTime;
-import java.util.List;
 
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.context.event.EventListener;
 import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
 import org.springframework.security.authentication.event.AuthenticationFailureBadCredentialsEvent;
 import org.springframework.security.web.authentication.WebAuthenticationDetails;
 import org.springframework.stereotype.Component;
 
-import guru.sfg.brewery.domain.security.LoginFailure;
-import guru.sfg.brewery.domain.security.User;
-import guru.sfg.brewery.repositories.security.LoginFailureRepository;
 import guru.sfg.brewery.repositories.security.UserRepository;
+import guru.sfg.brewery.security.JpaUserDetailsService;
+import guru.sfg.brewery.security.LoginFailureCounter;
+import guru.sfg.brewery.security.UserSecurityChangedEvent;
+import guru.sfg.brewery.security.UserUnlockService;
+import guru.sfg.brewery.security.audit.LoginAuditEvent;
+import guru.sfg.brewery.security.audit.LoginAuditWriter;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 
@@ -22,8 +24,12 @@ import lombok.extern.slf4j.Slf4j;
 @Slf4j
 public class AuthenticationFailureListener {
 
-    private final LoginFailureRepository loginFailureRepository;
-    private final UserRepository         userRepository;
+    private final LoginAuditWriter          loginAuditWriter;
+    private final LoginFailureCounter       loginFailureCounter;
+    private final UserRepository            userRepository;
+    private final JpaUserDetailsService     userDetailsService;
+    private final UserUnlockService         userUnlockService;
+    private final ApplicationEventPublisher eventPublisher;
 
     @EventListener
     public void listen(AuthenticationFailureBadCredentialsEvent event) {
@@ -31,39 +37,38 @@ public class AuthenticationFailureListener {
 
         if (event.getSource() instanceof UsernamePasswordAuthenticationToken) {
 
-            LoginFailure.LoginFailureBuilder builder = LoginFailure.builder();
+            String username = null;
+            String sourceIp = null;
 
             UsernamePasswordAuthenticationToken token = (UsernamePasswordAuthenticationToken) event.getSource();
             if (token.getPrincipal() instanceof String) {
-                String username = (String) token.getPrincipal();
+                username = (String) token.getPrincipal();
                 log.debug("Attempted login with username: " + username);
-                builder.username(username);
-                userRepository.findByUsername(username).ifPresent(builder::user);;
             }
 
             if (token.getDetails() instanceof WebAuthenticationDetails) {
                 WebAuthenticationDetails details = (WebAuthenticationDetails) token.getDetails();
 
-                builder.sourceIp(details.getRemoteAddress());
+                sourceIp = details.getRemoteAddress();
                 log.debug("Source IP: " + details.getRemoteAddress());
             }
 
-            LoginFailure loginFailure = loginFailureRepository.save(builder.build());
-            log.debug("Login Failure saved. Id: " + loginFailure.getId());
-            
-            if (loginFailure.getUser() != null) {
-                optionallyLockUserAccount(loginFailure.getUser());
+            // Count before queueing the audit row, so a first-time seed from the database cannot include it.
+            // Unknown usernames have no account to lock; they get neither a window nor a seed query.
+            if (username != null && userDetailsService.exists(username) && loginFailureCounter.recordFailure(username)) {
+                optionallyLockUserAccount(username);
             }
+
+            loginAuditWriter.submit(LoginAuditEvent.failure(username, sourceIp));
         }
     }
 
-    private void optionallyLockUserAccount(User user) {
-        List<LoginFailure> failuresList = loginFailureRepository.findAllByUserAndCreatedDateIsAfter(
-                user, Timestamp.valueOf(LocalDateTime.now().minusDays(1)));
-        if (failuresList.size() > 3) {
+    private void optionallyLockUserAccount(String username) {
+        Timestamp lockedAt = new Timestamp(System.currentTimeMillis());
+        if (userRepository.lockByUsername(username, lockedAt) > 0) {
             log.debug("Locking User Account... ");
-            user.setAccountNonLocked(false);
-            userRepository.save(user);
+            userUnlockService.scheduleUnlock(username, lockedAt);
+            eventPublisher.publishEvent(new UserSecurityChangedEvent(username));
         }
     }
 }
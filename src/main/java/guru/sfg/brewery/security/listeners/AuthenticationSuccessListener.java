@@ -6,9 +6,9 @@ import org.springframework.security.authentication.event.AuthenticationSuccessEv
 import org.springframework.security.web.authentication.WebAuthenticationDetails;
 import org.springframework.stereotype.Component;
 
-import guru.sfg.brewery.domain.security.LoginSuccess;
-import guru.sfg.brewery.domain.security.User;
-import guru.sfg.brewery.repositories.security.LoginSuccessRepository;
+import guru.sfg.brewery.security.UserPrincipal;
+import guru.sfg.brewery.security.audit.LoginAuditEvent;
+import guru.sfg.brewery.security.audit.LoginAuditWriter;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 
@@ -17,7 +17,7 @@ import lombok.extern.slf4j.Slf4j;
 @Slf4j
 public class AuthenticationSuccessListener {
     
-    private final LoginSuccessRepository loginSuccessRepository;
+    private final LoginAuditWriter loginAuditWriter;
     
     @EventListener
     public void listen(AuthenticationSuccessEvent event) {
@@ -25,25 +25,27 @@ public class AuthenticationSuccessListener {
         
         if (event.getSource() instanceof UsernamePasswordAuthenticationToken) {
             
-            LoginSuccess.LoginSuccessBuilder builder = LoginSuccess.builder();
+            Integer userId = null;
+            String username = null;
+            String sourceIp = null;
             
             UsernamePasswordAuthenticationToken token = (UsernamePasswordAuthenticationToken)event.getSource();
             
-            if (token.getPrincipal() instanceof User) {
-                User user = (User)token.getPrincipal();
-                builder.user(user);
+            if (token.getPrincipal() instanceof UserPrincipal) {
+                UserPrincipal user = (UserPrincipal)token.getPrincipal();
+                userId = user.getId();
+                username = user.getUsername();
                 
                 log.debug("User name logged in: " + user.getUsername());
             }
             
             if (token.getDetails() instanceof WebAuthenticationDetails) {
                 WebAuthenticationDetails details = (WebAuthenticationDetails)token.getDetails();
-                builder.sourceIp(details.getRemoteAddress());
+                sourceIp = details.getRemoteAddress();
                 
                 log.debug("Source IP: " + details.getRemoteAddress());
             }
-            LoginSuccess loginSuccess = loginSuccessRepository.save(builder.build());
-            log.debug("Login Success saved. Id: " + loginSuccess.getId());
+            loginAuditWriter.submit(LoginAuditEvent.success(userId, username, sourceIp));
         }
     }
 
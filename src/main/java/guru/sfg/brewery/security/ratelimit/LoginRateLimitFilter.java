@@ -0,0 +1,48 @@
+package guru.sfg.brewery.security.ratelimit;
+
+import java.io.IOException;
+
+import javax.servlet.FilterChain;
+import javax.servlet.ServletException;
+import javax.servlet.http.HttpServletRequest;
+import javax.servlet.http.HttpServletResponse;
+
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.security.web.util.matcher.RequestMatcher;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Rejects login attempts with 429 once the client IP runs out of tokens in the {@link LoginRateLimiter}.
+ * Sits in front of the form login and HTTP Basic filters, so rejected attempts never reach the password
+ * encoder. The filter takes the attempt's token; the authentication provider refunds it when the credentials
+ * are served from the {@code VerifiedCredentialCache}.
+ */
+@Slf4j
+@RequiredArgsConstructor
+public class LoginRateLimitFilter extends OncePerRequestFilter {
+
+    /** Requests carrying HTTP Basic credentials. */
+    public static final RequestMatcher BASIC_AUTHENTICATION = request -> {
+        String header = request.getHeader(HttpHeaders.AUTHORIZATION);
+        return header != null && header.regionMatches(true, 0, "Basic ", 0, 6);
+    };
+
+    private final RequestMatcher   requestMatcher;
+    private final LoginRateLimiter loginRateLimiter;
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain filterChain)
+            throws ServletException, IOException {
+        if (requestMatcher.matches(request) && !loginRateLimiter.tryAcquire(request.getRemoteAddr())) {
+            log.debug("Login rate limit exceeded for: " + request.getRemoteAddr());
+            response.setHeader(HttpHeaders.RETRY_AFTER, String.valueOf(loginRateLimiter.retryAfterSeconds()));
+            response.sendError(HttpStatus.TOO_MANY_REQUESTS.value(), HttpStatus.TOO_MANY_REQUESTS.getReasonPhrase());
+            return;
+        }
+        filterChain.doFilter(request, response);
+    }
+}
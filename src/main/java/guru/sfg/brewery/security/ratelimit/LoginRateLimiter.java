@@ -0,0 +1,102 @@
+package guru.sfg.brewery.security.ratelimit;
+
+import java.time.Duration;
+import java.util.concurrent.TimeUnit;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import com.github.benmanes.caffeine.cache.Cache;
+
+import guru.sfg.brewery.config.MeteredCacheFactory;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+
+/**
+ * Token bucket per client IP for login attempts. Every attempt takes a token before it reaches the password
+ * check, so neither a new IP nor a concurrent burst gets past the capacity; attempts served from the
+ * {@code VerifiedCredentialCache} hand their token back, so a cached caller never drains its bucket. Every
+ * bucket has its own lock, so IPs never contend with each other. Buckets are evicted once
+ * idle for the time a bucket takes to refill, at which point a new bucket would be full anyway, and the
+ * total number is capped.
+ */
+@Component
+public class LoginRateLimiter {
+
+    private final Cache<String, TokenBucket> buckets;
+    private final double                     capacity;
+    private final double                     tokensPerNano;
+    private final Counter                    rejected;
+
+    public LoginRateLimiter(MeteredCacheFactory cacheFactory, MeterRegistry meterRegistry,
+            @Value("${sfg.security.login-rate-limit.capacity:100}") int capacity,
+            @Value("${sfg.security.login-rate-limit.refill-per-second:50}") double refillPerSecond,
+            @Value("${sfg.security.login-rate-limit.maximum-size:100000}") long maximumSize) {
+        this.capacity = capacity;
+        this.tokensPerNano = refillPerSecond / TimeUnit.SECONDS.toNanos(1);
+        this.buckets = cacheFactory.expireAfterAccess("loginRateLimitBuckets", maximumSize,
+                Duration.ofNanos((long) Math.ceil(capacity / tokensPerNano)));
+        this.rejected = Counter.builder("sfg.security.login-rate-limit.rejected")
+                .description("Login attempts rejected with 429 before reaching the password check")
+                .register(meterRegistry);
+    }
+
+    /**
+     * Takes one token from the IP's bucket, creating a full bucket for a new IP.
+     *
+     * @return {@code false} if the bucket is empty and the attempt has to be rejected.
+     */
+    public boolean tryAcquire(String clientIp) {
+        if (buckets.get(clientIp, ip -> new TokenBucket(capacity)).tryTake(capacity, tokensPerNano)) {
+            return true;
+        }
+        rejected.increment();
+        return false;
+    }
+
+    /**
+     * Returns the token of an attempt that did not cost a password hash.
+     */
+    public void refund(String clientIp) {
+        TokenBucket bucket = buckets.getIfPresent(clientIp);
+        if (bucket != null) {
+            bucket.give(capacity, tokensPerNano);
+        }
+    }
+
+    /**
+     * @return whole seconds until the next token, for {@code Retry-After}.
+     */
+    public long retryAfterSeconds() {
+        return Math.max(1, (long) Math.ceil(1 / (tokensPerNano * TimeUnit.SECONDS.toNanos(1))));
+    }
+
+    private static final class TokenBucket {
+
+        private double tokens;
+        private long   refilledAt = System.nanoTime();
+
+        TokenBucket(double tokens) {
+            this.tokens = tokens;
+        }
+
+        synchronized boolean tryTake(double capacity, double tokensPerNano) {
+            if (refill(capacity, tokensPerNano) < 1) {
+                return false;
+            }
+            tokens--;
+            return true;
+        }
+
+        synchronized void give(double capacity, double tokensPerNano) {
+            tokens = Math.min(capacity, refill(capacity, tokensPerNano) + 1);
+        }
+
+        private double refill(double capacity, double tokensPerNano) {
+            long now = System.nanoTime();
+            tokens = Math.min(capacity, tokens + (now - refilledAt) * tokensPerNano);
+            refilledAt = now;
+            return tokens;
+        }
+    }
+}
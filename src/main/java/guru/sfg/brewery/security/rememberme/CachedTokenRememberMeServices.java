@@ -0,0 +1,33 @@
+package guru.sfg.brewery.security.rememberme;
+
+import javax.servlet.http.HttpServletRequest;
+import javax.servlet.http.HttpServletResponse;
+
+import org.springframework.security.core.userdetails.UserDetails;
+import org.springframework.security.core.userdetails.UserDetailsService;
+import org.springframework.security.web.authentication.rememberme.PersistentTokenBasedRememberMeServices;
+
+/**
+ * Persistent-token remember-me over the {@link CoalescingPersistentTokenRepository}. Before the theft check
+ * compares the presented token with the stored one, a cached series that disagrees is re-read from the
+ * table; only a mismatch against the table itself wipes the user's tokens.
+ */
+public class CachedTokenRememberMeServices extends PersistentTokenBasedRememberMeServices {
+
+    private final CoalescingPersistentTokenRepository tokenRepository;
+
+    public CachedTokenRememberMeServices(String key, UserDetailsService userDetailsService,
+            CoalescingPersistentTokenRepository tokenRepository) {
+        super(key, userDetailsService, tokenRepository);
+        this.tokenRepository = tokenRepository;
+    }
+
+    @Override
+    protected UserDetails processAutoLoginCookie(String[] cookieTokens, HttpServletRequest request,
+            HttpServletResponse response) {
+        if (cookieTokens.length == 2) {
+            tokenRepository.refreshIfStale(cookieTokens[0], cookieTokens[1]);
+        }
+        return super.processAutoLoginCookie(cookieTokens, request, response);
+    }
+}
@@ -0,0 +1,155 @@
+package guru.sfg.brewery.security.rememberme;
+
+import java.sql.Timestamp;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Date;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+import javax.annotation.PreDestroy;
+import javax.sql.DataSource;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.security.web.authentication.rememberme.CookieTheftException;
+import org.springframework.security.web.authentication.rememberme.JdbcTokenRepositoryImpl;
+import org.springframework.security.web.authentication.rememberme.PersistentRememberMeToken;
+import org.springframework.security.web.authentication.rememberme.PersistentTokenRepository;
+import org.springframework.stereotype.Component;
+
+import com.github.benmanes.caffeine.cache.Cache;
+
+import guru.sfg.brewery.config.MeteredCacheFactory;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Remember-me tokens over {@code persistent_logins} with a read-through cache by series and write-behind
+ * of {@code last_used}. The rotated token value is written synchronously on every remember-me login, so a
+ * crash never leaves the browser holding a token the table does not know. Only {@code last_used}, which
+ * just drives expiry, is coalesced per series and written in one JDBC batch per flush, and on shutdown.
+ * <p>
+ * The same holds when several nodes share the table. The rotation is a compare-and-set against the token it
+ * replaces, so it fails if another node rotated or removed the series in the meantime, and
+ * {@link CachedTokenRememberMeServices} re-reads a series whose cached token differs from the presented one
+ * before the theft check, so a rotation made by another node is never mistaken for theft.
+ * Expired series are purged in bulk.
+ */
+@Slf4j
+@Component
+public class CoalescingPersistentTokenRepository implements PersistentTokenRepository {
+
+    private static final String UPDATE_TOKEN_SQL     = "update persistent_logins set token = ? where series = ? and token = ?";
+    private static final String UPDATE_LAST_USED_SQL = "update persistent_logins set last_used = ? where series = ? and last_used < ?";
+    private static final String PURGE_SQL            = "delete from persistent_logins where last_used < ?";
+
+    private final JdbcTokenRepositoryImpl                  delegate;
+    private final JdbcTemplate                             jdbcTemplate;
+    private final Duration                                 tokenValidity;
+    private final Cache<String, PersistentRememberMeToken> tokens;
+    private final Map<String, PersistentRememberMeToken>   pendingUpdates = new ConcurrentHashMap<>();
+
+    public CoalescingPersistentTokenRepository(DataSource dataSource, JdbcTemplate jdbcTemplate,
+            MeteredCacheFactory cacheFactory, MeterRegistry meterRegistry,
+            @Value("${sfg.security.remember-me.token-validity:14d}") Duration tokenValidity) {
+        this.delegate = new JdbcTokenRepositoryImpl();
+        this.delegate.setDataSource(dataSource);
+        this.jdbcTemplate = jdbcTemplate;
+        this.tokenValidity = tokenValidity;
+        this.tokens = cacheFactory.expireAfterAccess("rememberMeTokens", "sfg.security.remember-me.cache", 10000,
+                Duration.ofHours(1));
+
+        Gauge.builder("sfg.security.remember-me.pending-updates", pendingUpdates, Map::size)
+                .description("Remember-me last_used updates waiting to be written")
+                .register(meterRegistry);
+    }
+
+    @Override
+    public void createNewToken(PersistentRememberMeToken token) {
+        delegate.createNewToken(token);
+        tokens.put(token.getSeries(), token);
+    }
+
+    @Override
+    public void updateToken(String series, String tokenValue, Date lastUsed) {
+        PersistentRememberMeToken current = getTokenForSeries(series);
+        if (current == null) {
+            return;
+        }
+
+        if (jdbcTemplate.update(UPDATE_TOKEN_SQL, tokenValue, series, current.getTokenValue()) == 0) {
+            // Rotated or removed in the meantime, e.g. by another node; the next read comes from the table.
+            tokens.invalidate(series);
+            pendingUpdates.remove(series);
+            throw new CookieTheftException("Remember-me series " + series + " no longer holds the token it was "
+                    + "rotated from");
+        }
+
+        PersistentRememberMeToken updated = new PersistentRememberMeToken(current.getUsername(), series, tokenValue, lastUsed);
+        tokens.put(series, updated);
+        pendingUpdates.put(series, updated);
+    }
+
+    @Override
+    public PersistentRememberMeToken getTokenForSeries(String seriesId) {
+        return tokens.get(seriesId, delegate::getTokenForSeries);
+    }
+
+    /**
+     * Drops the cached series if its token is not the presented one, so the next read comes from the table.
+     */
+    public void refreshIfStale(String seriesId, String presentedToken) {
+        PersistentRememberMeToken cached = tokens.getIfPresent(seriesId);
+        if (cached != null && !cached.getTokenValue().equals(presentedToken)) {
+            log.debug("Cached remember-me token differs from the presented one, re-reading series: " + seriesId);
+            tokens.invalidate(seriesId);
+        }
+    }
+
+    @Override
+    public void removeUserTokens(String username) {
+        delegate.removeUserTokens(username);
+        pendingUpdates.values().removeIf(token -> token.getUsername().equals(username));
+        tokens.asMap().values().removeIf(token -> token.getUsername().equals(username));
+    }
+
+    @Scheduled(fixedDelayString = "${sfg.security.remember-me.flush-interval:5000}")
+    public synchronized void flush() {
+        if (pendingUpdates.isEmpty()) {
+            return;
+        }
+
+        List<PersistentRememberMeToken> flushed = new ArrayList<>(pendingUpdates.values());
+        List<Object[]> batch = new ArrayList<>(flushed.size());
+        flushed.forEach(token -> {
+            Timestamp lastUsed = new Timestamp(token.getDate().getTime());
+            batch.add(new Object[] { lastUsed, token.getSeries(), lastUsed });
+        });
+        // Never moves last_used backwards, whatever another node wrote in the meantime.
+        jdbcTemplate.batchUpdate(UPDATE_LAST_USED_SQL, batch);
+
+        // Keep anything rotated again while the batch was being written for the next flush.
+        flushed.forEach(token -> pendingUpdates.remove(token.getSeries(), token));
+        log.debug("Remember-me last_used updates flushed: " + batch.size());
+    }
+
+    @Scheduled(fixedDelayString = "${sfg.security.remember-me.purge-interval:3600000}")
+    public void purgeExpiredTokens() {
+        // Write out pending last_used first so no live series is judged by a stale value.
+        flush();
+
+        Timestamp expiredBefore = new Timestamp(System.currentTimeMillis() - tokenValidity.toMillis());
+        int purged = jdbcTemplate.update(PURGE_SQL, expiredBefore);
+        tokens.asMap().values().removeIf(token -> token.getDate().before(expiredBefore));
+        log.debug("Expired remember-me series purged: " + purged);
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        flush();
+    }
+}
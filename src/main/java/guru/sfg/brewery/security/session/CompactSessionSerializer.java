@@ -0,0 +1,212 @@
+package guru.sfg.brewery.security.session;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+
+import org.springframework.core.serializer.support.DeserializingConverter;
+import org.springframework.core.serializer.support.SerializingConverter;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.GrantedAuthority;
+import org.springframework.security.core.context.SecurityContext;
+import org.springframework.security.core.context.SecurityContextImpl;
+import org.springframework.security.web.authentication.WebAuthenticationDetails;
+
+import guru.sfg.brewery.domain.security.AuthoritySets;
+import guru.sfg.brewery.domain.security.PermissionRegistry;
+import guru.sfg.brewery.security.UserPrincipal;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+
+/**
+ * Session attribute serializer. The security context of a form login (a {@link UsernamePasswordAuthenticationToken}
+ * around a {@link UserPrincipal}) is written in a small binary layout: ids, flags and the permission mask,
+ * with only permissions outside the {@link PermissionRegistry} spelled out. Request details come back as
+ * {@link SessionAuthenticationDetails}, which the layout also writes. Everything else falls back to
+ * Java serialization. Compact values start with {@link #MAGIC}, which a Java stream never does, so both
+ * kinds can be read back without any extra framing.
+ */
+public class CompactSessionSerializer {
+
+    private static final byte MAGIC   = 'S';
+    private static final byte VERSION = 1;
+
+    private static final int ACCOUNT_NON_EXPIRED     = 1;
+    private static final int ACCOUNT_NON_LOCKED      = 1 << 1;
+    private static final int CREDENTIALS_NON_EXPIRED = 1 << 2;
+    private static final int ENABLED                 = 1 << 3;
+    private static final int USE_GOOGLE_2FA          = 1 << 4;
+    private static final int GOOGLE_2FA_REQUIRED     = 1 << 5;
+    private static final int HAS_ID                  = 1 << 6;
+    private static final int HAS_CUSTOMER            = 1 << 7;
+    private static final int HAS_DETAILS             = 1 << 8;
+    private static final int HAS_SESSION_ID          = 1 << 9;
+
+    private final SerializingConverter   javaSerializer   = new SerializingConverter();
+    private final DeserializingConverter javaDeserializer = new DeserializingConverter();
+    private final DistributionSummary    compactSize;
+    private final DistributionSummary    javaSize;
+
+    public CompactSessionSerializer(MeterRegistry meterRegistry) {
+        this.compactSize = sizeSummary(meterRegistry, "compact");
+        this.javaSize = sizeSummary(meterRegistry, "java");
+    }
+
+    public byte[] serialize(Object attribute) {
+        if (isCompactContext(attribute)) {
+            byte[] bytes = writeContext((SecurityContext) attribute);
+            compactSize.record(bytes.length);
+            return bytes;
+        }
+        byte[] bytes = javaSerializer.convert(attribute);
+        javaSize.record(bytes.length);
+        return bytes;
+    }
+
+    public Object deserialize(byte[] bytes) {
+        if (bytes.length > 0 && bytes[0] == MAGIC) {
+            return readContext(bytes);
+        }
+        return javaDeserializer.convert(bytes);
+    }
+
+    private boolean isCompactContext(Object attribute) {
+        if (attribute == null || attribute.getClass() != SecurityContextImpl.class) {
+            return false;
+        }
+        Object authentication = ((SecurityContext) attribute).getAuthentication();
+        if (authentication == null || authentication.getClass() != UsernamePasswordAuthenticationToken.class) {
+            return false;
+        }
+        UsernamePasswordAuthenticationToken token = (UsernamePasswordAuthenticationToken) authentication;
+        Object details = token.getDetails();
+        return token.isAuthenticated()
+                && token.getCredentials() == null
+                && token.getPrincipal() instanceof UserPrincipal
+                && (details == null || details.getClass() == WebAuthenticationDetails.class
+                        || details.getClass() == SessionAuthenticationDetails.class)
+                && token.getAuthorities().equals(((UserPrincipal) token.getPrincipal()).getAuthorities());
+    }
+
+    private byte[] writeContext(SecurityContext context) {
+        UsernamePasswordAuthenticationToken token = (UsernamePasswordAuthenticationToken) context.getAuthentication();
+        UserPrincipal principal = (UserPrincipal) token.getPrincipal();
+        Object details = token.getDetails();
+        String remoteAddress = null;
+        String sessionId = null;
+        if (details instanceof WebAuthenticationDetails) {
+            remoteAddress = ((WebAuthenticationDetails) details).getRemoteAddress();
+            sessionId = ((WebAuthenticationDetails) details).getSessionId();
+        } else if (details instanceof SessionAuthenticationDetails) {
+            remoteAddress = ((SessionAuthenticationDetails) details).getRemoteAddress();
+            sessionId = ((SessionAuthenticationDetails) details).getSessionId();
+        }
+
+        int flags = (principal.isAccountNonExpired() ? ACCOUNT_NON_EXPIRED : 0)
+                | (principal.isAccountNonLocked() ? ACCOUNT_NON_LOCKED : 0)
+                | (principal.isCredentialsNonExpired() ? CREDENTIALS_NON_EXPIRED : 0)
+                | (principal.isEnabled() ? ENABLED : 0)
+                | (principal.isUseGoogle2FA() ? USE_GOOGLE_2FA : 0)
+                | (principal.isGoogle2FARequired() ? GOOGLE_2FA_REQUIRED : 0)
+                | (principal.getId() != null ? HAS_ID : 0)
+                | (principal.getCustomerId() != null ? HAS_CUSTOMER : 0)
+                | (details != null ? HAS_DETAILS : 0)
+                | (sessionId != null ? HAS_SESSION_ID : 0);
+
+        List<String> unregistered = new ArrayList<>();
+        for (GrantedAuthority authority : principal.getAuthorities()) {
+            if (PermissionRegistry.bit(authority.getAuthority()) == 0L) {
+                unregistered.add(authority.getAuthority());
+            }
+        }
+
+        try (ByteArrayOutputStream bytes = new ByteArrayOutputStream(128);
+                DataOutputStream out = new DataOutputStream(bytes)) {
+            out.writeByte(MAGIC);
+            out.writeByte(VERSION);
+            out.writeShort(flags);
+            if (principal.getId() != null) {
+                out.writeInt(principal.getId());
+            }
+            out.writeUTF(principal.getUsername());
+            if (principal.getCustomerId() != null) {
+                out.writeLong(principal.getCustomerId().getMostSignificantBits());
+                out.writeLong(principal.getCustomerId().getLeastSignificantBits());
+            }
+            out.writeLong(principal.getCompiledAuthorities().getMask());
+            out.writeShort(unregistered.size());
+            for (String permission : unregistered) {
+                out.writeUTF(permission);
+            }
+            if (details != null) {
+                out.writeUTF(remoteAddress == null ? "" : remoteAddress);
+                if (sessionId != null) {
+                    out.writeUTF(sessionId);
+                }
+            }
+            out.flush();
+            return bytes.toByteArray();
+        } catch (IOException e) {
+            throw new IllegalStateException("Could not write security context", e);
+        }
+    }
+
+    private SecurityContext readContext(byte[] bytes) {
+        try (DataInputStream in = new DataInputStream(new ByteArrayInputStream(bytes))) {
+            in.readByte();
+            byte version = in.readByte();
+            if (version != VERSION) {
+                throw new IllegalStateException("Unknown security context format version: " + version);
+            }
+            int flags = in.readUnsignedShort();
+            Integer id = (flags & HAS_ID) != 0 ? in.readInt() : null;
+            String username = in.readUTF();
+            UUID customerId = (flags & HAS_CUSTOMER) != 0 ? new UUID(in.readLong(), in.readLong()) : null;
+
+            List<String> permissions = PermissionRegistry.permissions(in.readLong());
+            for (int i = in.readUnsignedShort(); i > 0; i--) {
+                permissions.add(in.readUTF());
+            }
+
+            SessionAuthenticationDetails details = null;
+            if ((flags & HAS_DETAILS) != 0) {
+                String remoteAddress = in.readUTF();
+                String sessionId = (flags & HAS_SESSION_ID) != 0 ? in.readUTF() : null;
+                details = new SessionAuthenticationDetails(remoteAddress.isEmpty() ? null : remoteAddress, sessionId);
+            }
+
+            UserPrincipal principal = UserPrincipal.builder()
+                    .id(id)
+                    .username(username)
+                    .customerId(customerId)
+                    .compiledAuthorities(AuthoritySets.ofPermissions(permissions))
+                    .accountNonExpired((flags & ACCOUNT_NON_EXPIRED) != 0)
+                    .accountNonLocked((flags & ACCOUNT_NON_LOCKED) != 0)
+                    .credentialsNonExpired((flags & CREDENTIALS_NON_EXPIRED) != 0)
+                    .enabled((flags & ENABLED) != 0)
+                    .useGoogle2FA((flags & USE_GOOGLE_2FA) != 0)
+                    .google2FARequired((flags & GOOGLE_2FA_REQUIRED) != 0)
+                    .build();
+
+            UsernamePasswordAuthenticationToken token = new UsernamePasswordAuthenticationToken(principal, null,
+                    principal.getAuthorities());
+            token.setDetails(details);
+            return new SecurityContextImpl(token);
+        } catch (IOException e) {
+            throw new IllegalStateException("Could not read security context", e);
+        }
+    }
+
+    private static DistributionSummary sizeSummary(MeterRegistry meterRegistry, String format) {
+        return DistributionSummary.builder("sfg.session.attribute.size")
+                .description("Serialized size of session attributes written to the session store")
+                .baseUnit("bytes")
+                .tag("format", format)
+                .register(meterRegistry);
+    }
+}
@@ -0,0 +1,26 @@
+package guru.sfg.brewery.security.session;
+
+import java.io.Serializable;
+
+import org.springframework.security.web.authentication.WebAuthenticationDetails;
+
+import lombok.EqualsAndHashCode;
+import lombok.Getter;
+import lombok.RequiredArgsConstructor;
+import lombok.ToString;
+
+/**
+ * The two values of a {@link WebAuthenticationDetails}, as restored from a compact session attribute.
+ * {@code WebAuthenticationDetails} can only be built from a request, which a session store never has.
+ */
+@Getter
+@RequiredArgsConstructor
+@EqualsAndHashCode
+@ToString
+public class SessionAuthenticationDetails implements Serializable {
+
+    private static final long serialVersionUID = -2468250374011936458L;
+
+    private final String remoteAddress;
+    private final String sessionId;
+}
@@ -0,0 +1,44 @@
+package guru.sfg.brewery.security.token;
+
+import java.util.Collection;
+
+import org.springframework.security.authentication.AbstractAuthenticationToken;
+import org.springframework.security.core.GrantedAuthority;
+
+public class ApiTokenAuthenticationToken extends AbstractAuthenticationToken {
+
+    private static final long serialVersionUID = -4622718843316421830L;
+
+    private final Object                      principal;
+    private Object                            token;
+    private final ApiTokenService.SubjectType subjectType;
+
+    public ApiTokenAuthenticationToken(Object principal, Object token,
+            Collection<? extends GrantedAuthority> authorities, ApiTokenService.SubjectType subjectType) {
+        super(authorities);
+        this.principal = principal;
+        this.token = token;
+        this.subjectType = subjectType;
+        setAuthenticated(true);
+    }
+
+    public ApiTokenService.SubjectType getSubjectType() {
+        return subjectType;
+    }
+
+    @Override
+    public Object getCredentials() {
+        return token;
+    }
+
+    @Override
+    public Object getPrincipal() {
+        return principal;
+    }
+
+    @Override
+    public void eraseCredentials() {
+        super.eraseCredentials();
+        token = null;
+    }
+}
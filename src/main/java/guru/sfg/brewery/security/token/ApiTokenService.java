@@ -0,0 +1,202 @@
+package guru.sfg.brewery.security.token;
+
+import java.nio.charset.StandardCharsets;
+import java.security.GeneralSecurityException;
+import java.security.MessageDigest;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Arrays;
+import java.util.Base64;
+import java.util.Collection;
+import java.util.Optional;
+import java.util.Set;
+import java.util.UUID;
+import java.util.stream.Collectors;
+
+import javax.crypto.Mac;
+import javax.crypto.spec.SecretKeySpec;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.env.Environment;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.GrantedAuthority;
+import org.springframework.security.core.userdetails.UserDetails;
+import org.springframework.security.core.userdetails.UserDetailsService;
+import org.springframework.security.core.userdetails.UsernameNotFoundException;
+import org.springframework.stereotype.Service;
+import org.springframework.util.StringUtils;
+
+import guru.sfg.brewery.domain.security.AuthoritySets;
+import guru.sfg.brewery.security.PlaceholderKeys;
+import guru.sfg.brewery.security.UserPrincipal;
+import guru.sfg.brewery.security.apikey.ApiKeyAuthenticationToken;
+import guru.sfg.brewery.security.apikey.ApiKeyIndex;
+import lombok.Getter;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Issues and verifies HMAC-signed bearer tokens for the stateless {@code /api/**} chain. A token is
+ * {@code base64url(claims) "." base64url(HmacSHA256(claims))} where the claims are the subject type, username,
+ * customer id, expiry (epoch seconds) and the flattened authorities, one per line. Any node sharing the signing
+ * key accepts tokens issued by any other.
+ * <p>
+ * A valid signature is not enough on its own. A user's token re-reads the user through the cached
+ * {@link UserDetailsService}, so a locked, disabled or deleted account is rejected. A token exchanged for an
+ * API key is checked against the {@link ApiKeyIndex}, so it stops working once the customer's key is gone.
+ * Either way the token only grants the authorities its subject still holds.
+ */
+@Slf4j
+@Service
+public class ApiTokenService {
+
+    private static final String HMAC_ALGORITHM = "HmacSHA256";
+
+    public static final String PLACEHOLDER_SIGNING_KEY = "sfg-dev-api-token-signing-key-change-me";
+
+    private static final Base64.Encoder ENCODER = Base64.getUrlEncoder().withoutPadding();
+    private static final Base64.Decoder DECODER = Base64.getUrlDecoder();
+
+    private final UserDetailsService userDetailsService;
+    private final ApiKeyIndex        apiKeyIndex;
+    private final SecretKeySpec      signingKey;
+    private final Duration           ttl;
+
+    public ApiTokenService(UserDetailsService userDetailsService, ApiKeyIndex apiKeyIndex, Environment environment,
+            @Value("${sfg.security.api-token.signing-key}") String signingKey,
+            @Value("${sfg.security.api-token.ttl:1h}") Duration ttl) {
+        PlaceholderKeys.require("sfg.security.api-token.signing-key", signingKey, PLACEHOLDER_SIGNING_KEY,
+                environment);
+        this.userDetailsService = userDetailsService;
+        this.apiKeyIndex = apiKeyIndex;
+        this.signingKey = new SecretKeySpec(signingKey.getBytes(StandardCharsets.UTF_8), HMAC_ALGORITHM);
+        this.ttl = ttl;
+    }
+
+    /**
+     * Issues a token for an authenticated {@link UserPrincipal}: a user, or a customer signed in with an API key
+     * (directly or through a token that was itself exchanged for one).
+     */
+    public IssuedToken issue(Authentication authentication) {
+        UserPrincipal principal = (UserPrincipal) authentication.getPrincipal();
+        SubjectType subjectType = authentication instanceof ApiKeyAuthenticationToken ? SubjectType.API_KEY
+                : authentication instanceof ApiTokenAuthenticationToken
+                        ? ((ApiTokenAuthenticationToken) authentication).getSubjectType()
+                        : SubjectType.USER;
+
+        return issue(subjectType, principal.getUsername(), principal.getCustomerId(),
+                authentication.getAuthorities());
+    }
+
+    private IssuedToken issue(SubjectType subjectType, String username, UUID customerId,
+            Collection<? extends GrantedAuthority> authorities) {
+        if (username.indexOf('\n') >= 0) {
+            throw new IllegalArgumentException("Username cannot be carried in a token: " + username);
+        }
+        if (subjectType == SubjectType.API_KEY && customerId == null) {
+            throw new IllegalArgumentException("API key token without a customer: " + username);
+        }
+        Instant expiresAt = Instant.now().plus(ttl);
+
+        String claims = subjectType.name() + '\n'
+                + username + '\n'
+                + (customerId == null ? "" : customerId.toString()) + '\n'
+                + expiresAt.getEpochSecond() + '\n'
+                + authorities.stream().map(GrantedAuthority::getAuthority).collect(Collectors.joining(","));
+
+        String payload = ENCODER.encodeToString(claims.getBytes(StandardCharsets.UTF_8));
+        return new IssuedToken(payload + '.' + ENCODER.encodeToString(sign(payload)), expiresAt);
+    }
+
+    public Optional<Authentication> verify(String token) {
+        int separator = token.indexOf('.');
+        if (separator <= 0) {
+            return Optional.empty();
+        }
+        String payload = token.substring(0, separator);
+
+        try {
+            byte[] signature = DECODER.decode(token.substring(separator + 1));
+            if (!MessageDigest.isEqual(signature, sign(payload))) {
+                log.debug("API token signature mismatch");
+                return Optional.empty();
+            }
+
+            String[] claims = new String(DECODER.decode(payload), StandardCharsets.UTF_8).split("\n", -1);
+            if (claims.length != 5 || Instant.ofEpochSecond(Long.parseLong(claims[3])).isBefore(Instant.now())) {
+                log.debug("API token malformed or expired");
+                return Optional.empty();
+            }
+
+            SubjectType subjectType = SubjectType.valueOf(claims[0]);
+            Optional<UserDetails> subject = subjectType == SubjectType.API_KEY
+                    ? apiKeyIndex.findPrincipal(UUID.fromString(claims[2])).map(UserDetails.class::cast)
+                    : Optional.of(userDetailsService.loadUserByUsername(claims[1]));
+            if (subject.isEmpty()) {
+                log.debug("API token customer no longer has an API key: " + claims[2]);
+                return Optional.empty();
+            }
+
+            UserDetails user = subject.get();
+            if (!user.isEnabled() || !user.isAccountNonLocked() || !user.isAccountNonExpired()) {
+                log.debug("API token user no longer active: " + claims[1]);
+                return Optional.empty();
+            }
+
+            UserPrincipal principal = principal(claims[1], claims[2], claims[4], user);
+            return Optional.of(new ApiTokenAuthenticationToken(principal, token, principal.getAuthorities(),
+                    subjectType));
+        } catch (UsernameNotFoundException e) {
+            log.debug("API token user no longer exists");
+            return Optional.empty();
+        } catch (IllegalArgumentException e) {
+            log.debug("API token could not be decoded", e);
+            return Optional.empty();
+        }
+    }
+
+    // Detached principal with the token's authorities the user still holds.
+    private UserPrincipal principal(String username, String customerId, String authorities, UserDetails user) {
+        Set<String> current = user.getAuthorities().stream()
+                .map(GrantedAuthority::getAuthority)
+                .collect(Collectors.toSet());
+        Set<String> permissions = Arrays.stream(authorities.split(","))
+                .filter(StringUtils::hasText)
+                .filter(current::contains)
+                .collect(Collectors.toSet());
+
+        return UserPrincipal.builder()
+                .username(username)
+                .customerId(customerId.isEmpty() ? null : UUID.fromString(customerId))
+                .compiledAuthorities(AuthoritySets.ofPermissions(permissions))
+                .accountNonExpired(true)
+                .accountNonLocked(true)
+                .credentialsNonExpired(true)
+                .enabled(true)
+                .build();
+    }
+
+    private byte[] sign(String payload) {
+        try {
+            Mac mac = Mac.getInstance(HMAC_ALGORITHM);
+            mac.init(signingKey);
+            return mac.doFinal(payload.getBytes(StandardCharsets.US_ASCII));
+        } catch (GeneralSecurityException e) {
+            throw new IllegalStateException(HMAC_ALGORITHM + " not available", e);
+        }
+    }
+
+    /**
+     * What a token was issued for, and so what {@link #verify} checks it against.
+     */
+    public enum SubjectType {
+        USER, API_KEY
+    }
+
+    @Getter
+    @RequiredArgsConstructor
+    public static class IssuedToken {
+        private final String  token;
+        private final Instant expiresAt;
+    }
+}
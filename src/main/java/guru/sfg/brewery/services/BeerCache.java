@@ -0,0 +1,115 @@
+package guru.sfg.brewery.services;
+
+import java.time.Duration;
+import java.util.UUID;
+import java.util.function.Function;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import com.github.benmanes.caffeine.cache.Cache;
+
+import guru.sfg.brewery.config.MeteredCacheFactory;
+import guru.sfg.brewery.web.model.BeerDto;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Read-through cache of mapped {@link BeerDto}s by id, with a UPC to id index on the side. Writers report
+ * the version they committed; anything cached at an older version is dropped, and for a short while a
+ * reader that loaded an older version (or a deleted beer) before the write cannot put it back.
+ * <p>
+ * Inventory changes do not bump the beer's version; BeerInventoryService evicts the beer after they commit.
+ */
+@Slf4j
+@Component
+public class BeerCache {
+
+    private static final long DELETED = Long.MAX_VALUE;
+
+    private final Cache<UUID, BeerDto> beers;
+    private final Cache<String, UUID>  idsByUpc;
+    private final Cache<UUID, Long>    writtenVersions;
+
+    public BeerCache(MeteredCacheFactory cacheFactory,
+            @Value("${sfg.beer-cache.maximum-size:10000}") long maximumSize,
+            @Value("${sfg.beer-cache.ttl:5m}") Duration ttl,
+            @Value("${sfg.beer-cache.write-guard:1m}") Duration writeGuard) {
+        this.beers = cacheFactory.expireAfterWrite("beers", maximumSize, ttl);
+        this.idsByUpc = cacheFactory.expireAfterWrite("beerIdsByUpc", maximumSize, ttl);
+        this.writtenVersions = cacheFactory.expireAfterWrite("beerWrittenVersions", maximumSize, writeGuard);
+    }
+
+    public BeerDto get(UUID beerId, Function<UUID, BeerDto> loader) {
+        BeerDto cached = beers.getIfPresent(beerId);
+        if (cached != null) {
+            return copy(cached);
+        }
+        return putIfCurrent(loader.apply(beerId));
+    }
+
+    public BeerDto getByUpc(String upc, Function<String, BeerDto> loader) {
+        UUID beerId = idsByUpc.getIfPresent(upc);
+        if (beerId != null) {
+            BeerDto cached = beers.getIfPresent(beerId);
+            // The index can outlive a UPC change; trust it only when the entry still agrees.
+            if (cached != null && upc.equals(cached.getUpc())) {
+                return copy(cached);
+            }
+        }
+        return putIfCurrent(loader.apply(upc));
+    }
+
+    /**
+     * Called after a beer was saved at {@code version}.
+     */
+    public void invalidate(UUID beerId, Long version) {
+        if (version == null) {
+            beers.invalidate(beerId);
+            return;
+        }
+
+        writtenVersions.asMap().merge(beerId, version, Math::max);
+        beers.asMap().computeIfPresent(beerId, (id, cached) -> isOlder(cached, version) ? null : cached);
+        log.debug("Invalidated beer " + beerId + " below version " + version);
+    }
+
+    public void deleted(UUID beerId) {
+        writtenVersions.put(beerId, DELETED);
+        beers.invalidate(beerId);
+    }
+
+    private BeerDto putIfCurrent(BeerDto loaded) {
+        if (loaded == null || loaded.getId() == null || loaded.getVersion() == null) {
+            return loaded;
+        }
+
+        Long written = writtenVersions.getIfPresent(loaded.getId());
+        if (written == null || !isOlder(loaded, written)) {
+            BeerDto cached = copy(loaded);
+            beers.asMap().merge(loaded.getId(), cached, (current, candidate) -> isOlder(current,
+                    candidate.getVersion()) ? candidate : current);
+            if (cached.getUpc() != null) {
+                idsByUpc.put(cached.getUpc(), cached.getId());
+            }
+        }
+        return loaded;
+    }
+
+    private static boolean isOlder(BeerDto dto, long version) {
+        return dto.getVersion() == null || dto.getVersion() < version;
+    }
+
+    private static BeerDto copy(BeerDto dto) {
+        return BeerDto.builder()
+                .id(dto.getId())
+                .version(dto.getVersion())
+                .createdDate(dto.getCreatedDate())
+                .lastModifiedDate(dto.getLastModifiedDate())
+                .beerName(dto.getBeerName())
+                .beerStyle(dto.getBeerStyle())
+                .upc(dto.getUpc())
+                .quantityOnHand(dto.getQuantityOnHand())
+                .price(dto.getPrice())
+                .build();
+    }
+}
@@ -0,0 +1,18 @@
+package guru.sfg.brewery.services;
+
+import java.util.UUID;
+
+import guru.sfg.brewery.domain.Beer;
+import guru.sfg.brewery.domain.BeerInventory;
+
+/**
+ * The write path for inventory rows: each change adjusts {@code Beer.quantityOnHand} in the same transaction.
+ */
+public interface BeerInventoryService {
+
+    BeerInventory addInventory(Beer beer, int quantityOnHand);
+
+    BeerInventory updateInventory(UUID inventoryId, int quantityOnHand);
+
+    void deleteInventory(UUID inventoryId);
+}
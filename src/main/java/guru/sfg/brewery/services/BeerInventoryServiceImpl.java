@@ -0,0 +1,84 @@
+package guru.sfg.brewery.services;
+
+import java.util.UUID;
+
+import org.springframework.http.HttpStatus;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionSynchronizationAdapter;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.web.server.ResponseStatusException;
+
+import guru.sfg.brewery.domain.Beer;
+import guru.sfg.brewery.domain.BeerInventory;
+import guru.sfg.brewery.repositories.BeerInventoryRepository;
+import guru.sfg.brewery.repositories.BeerRepository;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class BeerInventoryServiceImpl implements BeerInventoryService {
+
+    private final BeerInventoryRepository beerInventoryRepository;
+    private final BeerRepository          beerRepository;
+    private final BeerCache               beerCache;
+
+    @Transactional
+    @Override
+    public BeerInventory addInventory(Beer beer, int quantityOnHand) {
+        BeerInventory inventory = beerInventoryRepository.save(BeerInventory.builder()
+                .beer(beer)
+                .quantityOnHand(quantityOnHand)
+                .build());
+
+        adjust(beer.getId(), quantityOnHand);
+        return inventory;
+    }
+
+    @Transactional
+    @Override
+    public BeerInventory updateInventory(UUID inventoryId, int quantityOnHand) {
+        BeerInventory inventory = find(inventoryId);
+
+        // The inventory row's @Version makes concurrent updates of the same row fail instead of both applying a delta.
+        int delta = quantityOnHand - (inventory.getQuantityOnHand() == null ? 0 : inventory.getQuantityOnHand());
+        inventory.setQuantityOnHand(quantityOnHand);
+        BeerInventory saved = beerInventoryRepository.save(inventory);
+
+        adjust(inventory.getBeer().getId(), delta);
+        return saved;
+    }
+
+    @Transactional
+    @Override
+    public void deleteInventory(UUID inventoryId) {
+        BeerInventory inventory = find(inventoryId);
+        beerInventoryRepository.delete(inventory);
+
+        adjust(inventory.getBeer().getId(), inventory.getQuantityOnHand() == null ? 0 : -inventory.getQuantityOnHand());
+    }
+
+    private BeerInventory find(UUID inventoryId) {
+        return beerInventoryRepository.findById(inventoryId)
+                .orElseThrow(() -> new ResponseStatusException(HttpStatus.NOT_FOUND, "Not Found. UUID: " + inventoryId));
+    }
+
+    private void adjust(UUID beerId, int delta) {
+        if (delta == 0) {
+            return;
+        }
+
+        beerRepository.adjustQuantityOnHand(beerId, delta);
+        log.debug("Adjusted quantity on hand of beer " + beerId + " by " + delta);
+
+        // The beer's version does not change, so drop the cached copy outright once the change is visible.
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronizationAdapter() {
+            @Override
+            public void afterCommit() {
+                beerCache.invalidate(beerId, null);
+            }
+        });
+    }
+}
@@ -20,6 +20,8 @@ package guru.sfg.brewery.services;
 
 import guru.sfg.brewery.web.model.BeerOrderDto;
 import guru.sfg.brewery.web.model.BeerOrderPagedList;
+import guru.sfg.brewery.web.model.CursorPagedList;
+import guru.sfg.brewery.web.model.SlicedList;
 
 import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
@@ -29,6 +31,17 @@ import java.util.UUID;
 public interface BeerOrderService {
     BeerOrderPagedList listOrders(UUID customerId, Pageable pageable);
 
+    /**
+     * Same page as {@link #listOrders(UUID, Pageable)} without totals or a count query.
+     */
+    SlicedList<BeerOrderDto> listOrderSlice(UUID customerId, Pageable pageable);
+
+    /**
+     * Keyset listing of a customer's orders, newest first, starting after {@code cursor} ({@code null} for the
+     * first page). {@code null} if the customer does not exist.
+     */
+    CursorPagedList<BeerOrderDto> listOrders(UUID customerId, String cursor, int pageSize, boolean includeTotal);
+
     BeerOrderDto placeOrder(UUID customerId, BeerOrderDto beerOrderDto);
 
     BeerOrderDto getOrderById(UUID customerId, UUID orderId);
@@ -37,5 +50,17 @@ public interface BeerOrderService {
 
     BeerOrderPagedList listOrders(PageRequest of);
 
+    /**
+     * Orders visible to the authenticated user, see {@link guru.sfg.brewery.repositories.CustomerScopedOrderRepository}.
+     */
+    BeerOrderPagedList listScopedOrders(Pageable pageable);
+
+    SlicedList<BeerOrderDto> listScopedOrderSlice(Pageable pageable);
+
+    CursorPagedList<BeerOrderDto> listScopedOrders(String cursor, int pageSize, boolean includeTotal);
+
+    /**
+     * @return the order if the authenticated user may see it, otherwise {@code null}.
+     */
     BeerOrderDto getOrderById(UUID orderId);
 }
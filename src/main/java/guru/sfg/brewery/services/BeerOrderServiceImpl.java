@@ -25,14 +25,18 @@ import guru.sfg.brewery.repositories.CustomerRepository;
 import guru.sfg.brewery.web.mappers.BeerOrderMapper;
 import guru.sfg.brewery.web.model.BeerOrderDto;
 import guru.sfg.brewery.web.model.BeerOrderPagedList;
+import guru.sfg.brewery.web.model.CursorPagedList;
+import guru.sfg.brewery.web.model.SlicedList;
 import lombok.AllArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
+import java.util.List;
 import java.util.Optional;
 import java.util.UUID;
 import java.util.stream.Collectors;
@@ -66,6 +70,31 @@ public class BeerOrderServiceImpl implements BeerOrderService {
         }
     }
 
+    @Override
+    public SlicedList<BeerOrderDto> listOrderSlice(UUID customerId, Pageable pageable) {
+        return customerRepository.findById(customerId)
+                .map(customer -> toSlicedList(beerOrderRepository.findSliceByCustomer(customer, pageable)))
+                .orElse(null);
+    }
+
+    @Override
+    public CursorPagedList<BeerOrderDto> listOrders(UUID customerId, String cursor, int pageSize,
+            boolean includeTotal) {
+        if (!customerRepository.existsById(customerId)) {
+            return null;
+        }
+
+        PageCursor before = PageCursor.decode(cursor);
+        PageRequest limit = PageRequest.of(0, pageSize + 1);
+        List<BeerOrder> beerOrders = before == null
+                ? beerOrderRepository.findAllByCustomerIdOrderByCreatedDateDescIdDesc(customerId, limit)
+                : beerOrderRepository.findAllByCustomerIdBefore(customerId, before.getSortKeyAsTimestamp(),
+                        before.getId(), limit);
+
+        return toCursorPagedList(beerOrders, pageSize,
+                includeTotal ? beerOrderRepository.countByCustomerId(customerId) : null);
+    }
+
     @Transactional
     @Override
     public BeerOrderDto placeOrder(UUID customerId, BeerOrderDto beerOrderDto) {
@@ -96,12 +125,9 @@ public class BeerOrderServiceImpl implements BeerOrderService {
 
     @Override
     public BeerOrderDto getOrderById(UUID orderId) {
-        // Convoluted.  Why wouldn't we retrieve the order, then manually check the customer invoking this method against 
-        // the customer recorded in the order?  How would we get access to the authenticated principal though?
-        // Resulting code would probably be larger.
-        
-        BeerOrder beerOrder = beerOrderRepository.findOrderByIdSecure(orderId);
-        return beerOrderMapper.beerOrderToDto(beerOrder);
+        return beerOrderRepository.findScopedById(orderId)
+                .map(beerOrderMapper::beerOrderToDto)
+                .orElse(null);
     }
 
     @Override
@@ -133,8 +159,61 @@ public class BeerOrderServiceImpl implements BeerOrderService {
 
     @Override
     public BeerOrderPagedList listOrders(PageRequest pageable) {
-        Page<BeerOrder> beerOrderPage = beerOrderRepository.findAll(pageable);
+        return toPagedList(beerOrderRepository.findAll(pageable));
+    }
+
+    @Override
+    public BeerOrderPagedList listScopedOrders(Pageable pageable) {
+        return toPagedList(beerOrderRepository.findAllScoped(pageable));
+    }
+
+    @Override
+    public SlicedList<BeerOrderDto> listScopedOrderSlice(Pageable pageable) {
+        return toSlicedList(beerOrderRepository.findAllScopedSlice(pageable));
+    }
+
+    @Override
+    public CursorPagedList<BeerOrderDto> listScopedOrders(String cursor, int pageSize, boolean includeTotal) {
+        PageCursor before = PageCursor.decode(cursor);
+        List<BeerOrder> beerOrders = beerOrderRepository.findScopedBefore(
+                before == null ? null : before.getSortKeyAsTimestamp(),
+                before == null ? null : before.getId(),
+                pageSize + 1);
+
+        return toCursorPagedList(beerOrders, pageSize, includeTotal ? beerOrderRepository.countScoped() : null);
+    }
+
+    /**
+     * @param beerOrders up to {@code pageSize + 1} orders; the extra one only signals that there is a next page
+     */
+    private CursorPagedList<BeerOrderDto> toCursorPagedList(List<BeerOrder> beerOrders, int pageSize,
+            Long totalElements) {
+        String nextCursor = null;
+        if (beerOrders.size() > pageSize) {
+            beerOrders = beerOrders.subList(0, pageSize);
+            BeerOrder last = beerOrders.get(pageSize - 1);
+            nextCursor = PageCursor.encode(last.getCreatedDate(), last.getId());
+        }
+
+        return new CursorPagedList<>(beerOrders.stream()
+                .map(beerOrderMapper::beerOrderToDto)
+                .collect(Collectors.toList()),
+                pageSize,
+                nextCursor,
+                totalElements);
+    }
+
+    private SlicedList<BeerOrderDto> toSlicedList(Slice<BeerOrder> beerOrderSlice) {
+        return new SlicedList<>(beerOrderSlice
+                .stream()
+                .map(beerOrderMapper::beerOrderToDto)
+                .collect(Collectors.toList()),
+                beerOrderSlice.getNumber(),
+                beerOrderSlice.getSize(),
+                beerOrderSlice.hasNext());
+    }
 
+    private BeerOrderPagedList toPagedList(Page<BeerOrder> beerOrderPage) {
         return new BeerOrderPagedList(beerOrderPage
                 .stream()
                 .map(beerOrderMapper::beerOrderToDto)
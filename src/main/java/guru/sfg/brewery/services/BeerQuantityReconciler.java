@@ -0,0 +1,60 @@
+package guru.sfg.brewery.services;
+
+import java.util.List;
+import java.util.UUID;
+
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionSynchronizationAdapter;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import guru.sfg.brewery.repositories.BeerRepository;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Compares each beer's maintained quantityOnHand with the sum of its inventory rows and, in the same transaction,
+ * recomputes the ones that drifted, e.g. after inventory was written around BeerInventoryService (cascades through
+ * Beer.beerInventory, manual SQL). Drift is logged and counted; a non-zero rate means some writer needs fixing.
+ */
+@Slf4j
+@Component
+public class BeerQuantityReconciler {
+
+    private final BeerRepository beerRepository;
+    private final BeerCache      beerCache;
+    private final Counter        drifted;
+
+    public BeerQuantityReconciler(BeerRepository beerRepository, BeerCache beerCache, MeterRegistry meterRegistry) {
+        this.beerRepository = beerRepository;
+        this.beerCache = beerCache;
+        this.drifted = Counter.builder("sfg.inventory.quantity-drift")
+                .description("Beers whose maintained quantity on hand disagreed with their inventory rows")
+                .register(meterRegistry);
+    }
+
+    @Transactional
+    @Scheduled(fixedDelayString = "${sfg.inventory.reconcile-interval:300000}")
+    public void reconcile() {
+        List<UUID> beerIds = beerRepository.findBeerIdsWithQuantityDrift();
+        if (beerIds.isEmpty()) {
+            return;
+        }
+
+        // Repeats the drift check, so a beer an inventory write fixed up since the select is left alone.
+        int recomputed = beerRepository.recomputeQuantityOnHand(beerIds);
+        if (recomputed > 0) {
+            log.warn("Quantity on hand drifted for " + recomputed + " beers, recomputed: " + beerIds);
+            drifted.increment(recomputed);
+        }
+
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronizationAdapter() {
+            @Override
+            public void afterCommit() {
+                beerIds.forEach(beerId -> beerCache.invalidate(beerId, null));
+            }
+        });
+    }
+}
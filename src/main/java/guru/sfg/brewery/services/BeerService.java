@@ -20,6 +20,8 @@ package guru.sfg.brewery.services;
 import guru.sfg.brewery.web.model.BeerDto;
 import guru.sfg.brewery.web.model.BeerPagedList;
 import guru.sfg.brewery.web.model.BeerStyleEnum;
+import guru.sfg.brewery.web.model.CursorPagedList;
+import guru.sfg.brewery.web.model.SlicedList;
 import org.springframework.data.domain.PageRequest;
 
 import java.util.UUID;
@@ -28,6 +30,18 @@ public interface BeerService {
 
     BeerPagedList listBeers(String beerName, BeerStyleEnum beerStyle, PageRequest pageRequest, Boolean showInventoryOnHand);
 
+    /**
+     * Same page as {@link #listBeers(String, BeerStyleEnum, PageRequest, Boolean)} without totals or a count query.
+     */
+    SlicedList<BeerDto> listBeerSlice(String beerName, BeerStyleEnum beerStyle, PageRequest pageRequest,
+            Boolean showInventoryOnHand);
+
+    /**
+     * Keyset listing ordered by beer name, starting after {@code cursor} ({@code null} for the first page).
+     */
+    CursorPagedList<BeerDto> listBeers(String beerName, BeerStyleEnum beerStyle, String cursor, int pageSize,
+            Boolean showInventoryOnHand, boolean includeTotal);
+
     BeerDto findBeerById(UUID beerId,  Boolean showInventoryOnHand);
 
     BeerDto saveBeer(BeerDto beerDto);
@@ -19,19 +19,24 @@ package guru.sfg.brewery.services;
 
 import guru.sfg.brewery.domain.Beer;
 import guru.sfg.brewery.repositories.BeerRepository;
+import guru.sfg.brewery.repositories.BeerSummary;
 import guru.sfg.brewery.web.mappers.BeerMapper;
 import guru.sfg.brewery.web.model.BeerDto;
 import guru.sfg.brewery.web.model.BeerPagedList;
 import guru.sfg.brewery.web.model.BeerStyleEnum;
+import guru.sfg.brewery.web.model.CursorPagedList;
+import guru.sfg.brewery.web.model.SlicedList;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Slice;
 import org.springframework.http.HttpStatus;
 import org.springframework.stereotype.Service;
 import org.springframework.util.StringUtils;
 import org.springframework.web.server.ResponseStatusException;
 
+import java.util.List;
 import java.util.Optional;
 import java.util.UUID;
 import java.util.stream.Collectors;
@@ -43,51 +48,81 @@ public class BeerServiceImpl implements BeerService {
 
     private final BeerRepository beerRepository;
     private final BeerMapper beerMapper;
+    private final BeerCache beerCache;
 
     @Override
     public BeerPagedList listBeers(String beerName, BeerStyleEnum beerStyle, PageRequest pageRequest, Boolean showInventoryOnHand) {
 
         log.debug("Listing Beers");
 
-        BeerPagedList beerPagedList;
-        Page<Beer> beerPage;
-
-        if (!StringUtils.isEmpty(beerName) && !StringUtils.isEmpty(beerStyle)) {
-            //search both
-            beerPage = beerRepository.findAllByBeerNameAndBeerStyle(beerName, beerStyle, pageRequest);
-        } else if (!StringUtils.isEmpty(beerName) && StringUtils.isEmpty(beerStyle)) {
-            //search beer_service name
-            beerPage = beerRepository.findAllByBeerName(beerName, pageRequest);
-        } else if (StringUtils.isEmpty(beerName) && !StringUtils.isEmpty(beerStyle)) {
-            //search beer_service style
-            beerPage = beerRepository.findAllByBeerStyle(beerStyle, pageRequest);
-        } else {
-            beerPage = beerRepository.findAll(pageRequest);
-        }
+        // Neither view touches beer_inventory; the on-hand total is a column maintained by BeerInventoryService.
+        Page<BeerSummary> beerPage = beerRepository.findBeerSummaries(
+                StringUtils.isEmpty(beerName) ? null : beerName,
+                beerStyle,
+                Boolean.TRUE.equals(showInventoryOnHand),
+                pageRequest);
+
+        return new BeerPagedList(beerPage
+                .getContent()
+                .stream()
+                .map(beerMapper::beerSummaryToBeerDto)
+                .collect(Collectors.toList()),
+                PageRequest
+                        .of(beerPage.getPageable().getPageNumber(),
+                                beerPage.getPageable().getPageSize()),
+                beerPage.getTotalElements());
+    }
+
+    @Override
+    public SlicedList<BeerDto> listBeerSlice(String beerName, BeerStyleEnum beerStyle, PageRequest pageRequest,
+            Boolean showInventoryOnHand) {
+
+        log.debug("Listing Beer slice");
+
+        Slice<BeerSummary> beerSlice = beerRepository.findBeerSummarySlice(
+                StringUtils.isEmpty(beerName) ? null : beerName,
+                beerStyle,
+                Boolean.TRUE.equals(showInventoryOnHand),
+                pageRequest);
+
+        return new SlicedList<>(beerSlice.getContent()
+                .stream()
+                .map(beerMapper::beerSummaryToBeerDto)
+                .collect(Collectors.toList()),
+                beerSlice.getNumber(),
+                beerSlice.getSize(),
+                beerSlice.hasNext());
+    }
 
-        if (showInventoryOnHand) {
-            beerPagedList = new BeerPagedList(beerPage
-                    .getContent()
-                    .stream()
-                    .map(beerMapper::beerToBeerDto)
-                    .collect(Collectors.toList()),
-                    PageRequest
-                            .of(beerPage.getPageable().getPageNumber(),
-                                    beerPage.getPageable().getPageSize()),
-                    beerPage.getTotalElements());
-
-        } else {
-            beerPagedList = new BeerPagedList(beerPage
-                    .getContent()
-                    .stream()
-                    .map(beerMapper::beerToBeerDto)
-                    .collect(Collectors.toList()),
-                    PageRequest
-                            .of(beerPage.getPageable().getPageNumber(),
-                                    beerPage.getPageable().getPageSize()),
-                    beerPage.getTotalElements());
+    @Override
+    public CursorPagedList<BeerDto> listBeers(String beerName, BeerStyleEnum beerStyle, String cursor, int pageSize,
+            Boolean showInventoryOnHand, boolean includeTotal) {
+
+        log.debug("Listing Beers after cursor");
+
+        String nameFilter = StringUtils.isEmpty(beerName) ? null : beerName;
+        PageCursor after = PageCursor.decode(cursor);
+
+        // One extra row tells whether there is a next page without counting.
+        List<BeerSummary> beers = beerRepository.findBeerSummariesAfter(nameFilter, beerStyle,
+                Boolean.TRUE.equals(showInventoryOnHand),
+                after == null ? null : after.getSortKey(),
+                after == null ? null : after.getId(),
+                pageSize + 1);
+
+        String nextCursor = null;
+        if (beers.size() > pageSize) {
+            beers = beers.subList(0, pageSize);
+            BeerSummary last = beers.get(pageSize - 1);
+            nextCursor = PageCursor.encode(last.getBeerName(), last.getId());
         }
-        return beerPagedList;
+
+        return new CursorPagedList<>(beers.stream()
+                .map(beerMapper::beerSummaryToBeerDto)
+                .collect(Collectors.toList()),
+                pageSize,
+                nextCursor,
+                includeTotal ? beerRepository.countBeerSummaries(nameFilter, beerStyle) : null);
     }
 
     @Override
@@ -95,23 +130,29 @@ public class BeerServiceImpl implements BeerService {
 
         log.debug("Finding Beer by id: " + beerId);
 
-        Optional<Beer> beerOptional = beerRepository.findById(beerId);
+        // The cache holds the full view (one single-table query on a miss); the lean view just drops the quantity.
+        BeerDto beerDto = beerCache.get(beerId, id -> {
+            Optional<BeerSummary> beerOptional = beerRepository.findBeerSummaryById(id, true);
 
-        if (beerOptional.isPresent()) {
-            log.debug("Found BeerId: " + beerId);
-            if(showInventoryOnHand) {
-                return beerMapper.beerToBeerDto(beerOptional.get());
+            if (beerOptional.isPresent()) {
+                log.debug("Found BeerId: " + id);
+                return beerMapper.beerSummaryToBeerDto(beerOptional.get());
             } else {
-                return beerMapper.beerToBeerDto(beerOptional.get());
+                throw new ResponseStatusException(HttpStatus.NOT_FOUND, "Not Found. UUID: " + id);
             }
-        } else {
-            throw new ResponseStatusException(HttpStatus.NOT_FOUND, "Not Found. UUID: " + beerId);
+        });
+
+        if (!Boolean.TRUE.equals(showInventoryOnHand)) {
+            beerDto.setQuantityOnHand(null);
         }
+        return beerDto;
     }
 
     @Override
     public BeerDto saveBeer(BeerDto beerDto) {
-        return beerMapper.beerToBeerDto(beerRepository.save(beerMapper.beerDtoToBeer(beerDto)));
+        Beer savedBeer = beerRepository.save(beerMapper.beerDtoToBeer(beerDto));
+        beerCache.invalidate(savedBeer.getId(), savedBeer.getVersion());
+        return beerMapper.beerToBeerDto(savedBeer);
     }
 
     @Override
@@ -123,7 +164,8 @@ public class BeerServiceImpl implements BeerService {
             beer.setBeerStyle(beerDto.getBeerStyle());
             beer.setPrice(beerDto.getPrice());
             beer.setUpc(beerDto.getUpc());
-            beerRepository.save(beer);
+            Beer savedBeer = beerRepository.save(beer);
+            beerCache.invalidate(savedBeer.getId(), savedBeer.getVersion());
         }, () -> {
             throw new ResponseStatusException(HttpStatus.NOT_FOUND, "Not Found. UUID: " + beerId);
         });
@@ -132,10 +174,13 @@ public class BeerServiceImpl implements BeerService {
     @Override
     public void deleteById(UUID beerId) {
         beerRepository.deleteById(beerId);
+        beerCache.deleted(beerId);
     }
 
     @Override
     public BeerDto findBeerByUpc(String upc) {
-        return beerMapper.beerToBeerDto(beerRepository.findByUpc(upc));
+        return beerCache.getByUpc(upc, key -> beerRepository.findBeerSummaryByUpc(key, true)
+                .map(beerMapper::beerSummaryToBeerDto)
+                .orElse(null));
     }
 }
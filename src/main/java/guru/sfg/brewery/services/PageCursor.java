@@ -0,0 +1,77 @@
+package guru.sfg.brewery.services;
+
+import java.nio.charset.StandardCharsets;
+import java.sql.Timestamp;
+import java.time.Instant;
+import java.time.format.DateTimeParseException;
+import java.util.Base64;
+import java.util.UUID;
+
+import org.springframework.http.HttpStatus;
+import org.springframework.web.server.ResponseStatusException;
+
+import lombok.Getter;
+
+/**
+ * Continuation token for keyset listings: the sort key and id of the last row handed out. Clients treat it
+ * as opaque; the next page starts strictly after that row, so it is an index range scan however deep it is.
+ */
+@Getter
+public final class PageCursor {
+
+    private static final char SEPARATOR = '\n';
+
+    private final String sortKey;
+    private final UUID   id;
+
+    private PageCursor(String sortKey, UUID id) {
+        this.sortKey = sortKey;
+        this.id = id;
+    }
+
+    /**
+     * A {@code null} sort key is encoded as the id alone, so it never reads back as the string "null".
+     */
+    public static String encode(String sortKey, UUID id) {
+        String value = sortKey == null ? id.toString() : sortKey + SEPARATOR + id;
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(value.getBytes(StandardCharsets.UTF_8));
+    }
+
+    /**
+     * Timestamps keep their nanoseconds, a millisecond key could skip or repeat rows created in the same millisecond.
+     */
+    public static String encode(Timestamp sortKey, UUID id) {
+        return encode(sortKey.toInstant().toString(), id);
+    }
+
+    /**
+     * @return the decoded cursor, or {@code null} for a missing token (first page)
+     */
+    public static PageCursor decode(String token) {
+        if (token == null || token.isEmpty()) {
+            return null;
+        }
+
+        try {
+            String value = new String(Base64.getUrlDecoder().decode(token), StandardCharsets.UTF_8);
+            int separator = value.lastIndexOf(SEPARATOR);
+            if (separator < 0) {
+                return new PageCursor(null, UUID.fromString(value));
+            }
+            return new PageCursor(value.substring(0, separator), UUID.fromString(value.substring(separator + 1)));
+        } catch (IllegalArgumentException | IndexOutOfBoundsException e) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "Invalid cursor");
+        }
+    }
+
+    public Timestamp getSortKeyAsTimestamp() {
+        if (sortKey == null) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "Invalid cursor");
+        }
+        try {
+            return Timestamp.from(Instant.parse(sortKey));
+        } catch (DateTimeParseException e) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "Invalid cursor");
+        }
+    }
+}
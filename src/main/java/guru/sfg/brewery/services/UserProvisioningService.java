@@ -0,0 +1,17 @@
+package guru.sfg.brewery.services;
+
+import java.util.List;
+import java.util.UUID;
+import java.util.function.Consumer;
+
+import guru.sfg.brewery.web.model.UserProvisioningDto;
+import guru.sfg.brewery.web.model.UserProvisioningResultDto;
+
+public interface UserProvisioningService {
+
+    /**
+     * Creates customer users with ROLE_CUSTOMER. Results are handed to {@code results} in input order, one
+     * batch at a time, as soon as that batch is committed.
+     */
+    void provisionUsers(UUID customerId, List<UserProvisioningDto> users, Consumer<UserProvisioningResultDto> results);
+}
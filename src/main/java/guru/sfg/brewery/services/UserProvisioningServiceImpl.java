@@ -0,0 +1,272 @@
+package guru.sfg.brewery.services;
+
+import java.sql.Timestamp;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ForkJoinPool;
+import java.util.function.Consumer;
+import java.util.stream.Collectors;
+
+import javax.annotation.PreDestroy;
+import javax.persistence.EntityManagerFactory;
+
+import org.hibernate.StatelessSession;
+import org.hibernate.engine.spi.SessionFactoryImplementor;
+import org.hibernate.engine.spi.SharedSessionContractImplementor;
+import org.hibernate.id.IdentifierGenerator;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.dao.DuplicateKeyException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.security.crypto.password.PasswordEncoder;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+import org.springframework.util.StringUtils;
+
+import guru.sfg.brewery.bootstrap.DefaultBreweryLoader;
+import guru.sfg.brewery.domain.security.User;
+import guru.sfg.brewery.repositories.security.RoleRepository;
+import guru.sfg.brewery.repositories.security.UserRepository;
+import guru.sfg.brewery.security.hashing.PasswordHashingRejectedException;
+import guru.sfg.brewery.web.model.UserProvisioningDto;
+import guru.sfg.brewery.web.model.UserProvisioningResultDto;
+import guru.sfg.brewery.web.model.UserProvisioningStatusEnum;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Bulk user creation for onboarding. Each batch hashes its passwords in parallel on a dedicated fork-join
+ * pool and is then written with two JDBC batch inserts ({@code user}, {@code user_role}) in one transaction.
+ * The pool's parallelism caps how many hashes the bulk job has in the PasswordEncoder at once, leaving
+ * room in the hashing queue for logins. If the batch insert hits a constraint (a username created
+ * concurrently), the batch is retried row by row so only the offending rows are reported. Ids come from the
+ * id generator Hibernate uses for {@link User}, so they never collide with users saved through JPA.
+ */
+@Slf4j
+@Service
+public class UserProvisioningServiceImpl implements UserProvisioningService {
+
+    // @formatter:off
+    private static final String INSERT_USER      = "insert into user "
+            + "(id, username, password, account_non_expired, account_non_locked, credentials_non_expired, enabled, "
+            + "use_google2fa, customer_id, created_date, last_modified_date) "
+            + "values (?, ?, ?, true, true, true, true, false, ?, ?, ?)";
+    private static final String INSERT_USER_ROLE = "insert into user_role (user_id, role_id) values (?, ?)";
+    // @formatter:on
+
+    private final UserRepository            userRepository;
+    private final RoleRepository            roleRepository;
+    private final PasswordEncoder           passwordEncoder;
+    private final JdbcTemplate              jdbcTemplate;
+    private final TransactionTemplate       transactionTemplate;
+    private final SessionFactoryImplementor sessionFactory;
+    private final IdentifierGenerator       userIdGenerator;
+    private final ForkJoinPool              hashingPool;
+    private final int                       batchSize;
+
+    public UserProvisioningServiceImpl(UserRepository userRepository, RoleRepository roleRepository,
+            PasswordEncoder passwordEncoder, JdbcTemplate jdbcTemplate, PlatformTransactionManager transactionManager,
+            EntityManagerFactory entityManagerFactory,
+            @Value("${sfg.user-provisioning.parallelism:0}") int parallelism,
+            @Value("${sfg.user-provisioning.batch-size:200}") int batchSize,
+            @Value("${sfg.security.password-hashing.threads:0}") int hashingThreads) {
+        this.userRepository = userRepository;
+        this.roleRepository = roleRepository;
+        this.passwordEncoder = passwordEncoder;
+        this.jdbcTemplate = jdbcTemplate;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.sessionFactory = entityManagerFactory.unwrap(SessionFactoryImplementor.class);
+        this.userIdGenerator = sessionFactory.getMetamodel().entityPersister(User.class).getIdentifierGenerator();
+        // 0 = half the password hashing threads (sized as in SecurityBeans), so logins keep the other half.
+        int threads = hashingThreads > 0 ? hashingThreads : Runtime.getRuntime().availableProcessors();
+        this.hashingPool = new ForkJoinPool(parallelism > 0 ? parallelism : Math.max(1, threads / 2));
+        this.batchSize = batchSize;
+    }
+
+    @Override
+    public void provisionUsers(UUID customerId, List<UserProvisioningDto> users,
+            Consumer<UserProvisioningResultDto> results) {
+        Integer roleId = roleRepository.findByName(DefaultBreweryLoader.ROLE_CUSTOMER).orElseThrow().getId();
+        Set<String> seen = new HashSet<>();
+
+        for (int from = 0; from < users.size(); from += batchSize) {
+            List<UserProvisioningDto> batch = users.subList(from, Math.min(from + batchSize, users.size()));
+            provisionBatch(customerId, roleId, batch, seen).forEach(results);
+        }
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        hashingPool.shutdown();
+    }
+
+    private List<UserProvisioningResultDto> provisionBatch(UUID customerId, Integer roleId,
+            List<UserProvisioningDto> batch, Set<String> seen) {
+        UserProvisioningResultDto[] results = new UserProvisioningResultDto[batch.size()];
+
+        Set<String> usernames = batch.stream()
+                .map(UserProvisioningDto::getUsername)
+                .filter(StringUtils::hasText)
+                .collect(Collectors.toSet());
+        Set<String> existing = usernames.isEmpty() ? Set.of() : userRepository.findExistingUsernames(usernames);
+
+        List<Integer> accepted = new ArrayList<>();
+        for (int i = 0; i < batch.size(); i++) {
+            UserProvisioningDto user = batch.get(i);
+            if (!StringUtils.hasText(user.getUsername()) || !StringUtils.hasText(user.getPassword())) {
+                results[i] = result(user, UserProvisioningStatusEnum.INVALID, "Username and password are required");
+            } else if (existing.contains(user.getUsername()) || !seen.add(user.getUsername())) {
+                results[i] = result(user, UserProvisioningStatusEnum.DUPLICATE, "Username already exists");
+            } else {
+                accepted.add(i);
+            }
+        }
+
+        List<String> hashes = hash(accepted.stream().map(batch::get).collect(Collectors.toList()));
+
+        List<UserProvisioningDto> hashed = new ArrayList<>();
+        List<Object[]> userRows = new ArrayList<>();
+        List<Integer> created = new ArrayList<>();
+        for (int i = 0; i < accepted.size(); i++) {
+            UserProvisioningDto user = batch.get(accepted.get(i));
+            if (hashes.get(i) == null) {
+                // Not created, so the username is free for a retry later in the same request.
+                seen.remove(user.getUsername());
+                results[accepted.get(i)] = result(user, UserProvisioningStatusEnum.FAILED,
+                        "Password hashing unavailable, retry later");
+            } else {
+                created.add(accepted.get(i));
+                hashed.add(user);
+                userRows.add(new Object[] { user.getUsername(), hashes.get(i) });
+            }
+        }
+
+        if (!userRows.isEmpty()) {
+            List<UserProvisioningResultDto> inserted = insert(customerId, roleId, hashed, userRows);
+            for (int i = 0; i < created.size(); i++) {
+                results[created.get(i)] = inserted.get(i);
+            }
+        }
+
+        long provisioned = Arrays.stream(results)
+                .filter(result -> result.getStatus() == UserProvisioningStatusEnum.CREATED)
+                .count();
+        log.debug("Provisioned " + provisioned + " of " + batch.size() + " users for customer: " + customerId);
+        return List.of(results);
+    }
+
+    private List<String> hash(List<UserProvisioningDto> users) {
+        try {
+            return hashingPool.submit(() -> users.parallelStream()
+                    .map(this::encodeOrNull)
+                    .collect(Collectors.toList()))
+                    .get();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Interrupted while hashing passwords", e);
+        } catch (ExecutionException e) {
+            throw new IllegalStateException("Password hashing failed", e.getCause());
+        }
+    }
+
+    private String encodeOrNull(UserProvisioningDto user) {
+        try {
+            return passwordEncoder.encode(user.getPassword());
+        } catch (PasswordHashingRejectedException e) {
+            return null;
+        }
+    }
+
+    /**
+     * @param users the users being inserted
+     * @param userRows username and password hash per user
+     * @return one result per user, in row order
+     */
+    private List<UserProvisioningResultDto> insert(UUID customerId, Integer roleId, List<UserProvisioningDto> users,
+            List<Object[]> userRows) {
+        Timestamp now = new Timestamp(System.currentTimeMillis());
+        // Sequence values are not rolled back, so the ids stay valid for the row by row retry.
+        List<Integer> ids = nextIds(userRows.size());
+
+        List<Object[]> userArgs = new ArrayList<>(userRows.size());
+        List<Object[]> userRoleArgs = new ArrayList<>(userRows.size());
+        for (int i = 0; i < userRows.size(); i++) {
+            Object[] row = userRows.get(i);
+            userArgs.add(new Object[] { ids.get(i), row[0], row[1], customerId.toString(), now, now });
+            userRoleArgs.add(new Object[] { ids.get(i), roleId });
+        }
+
+        try {
+            transactionTemplate.executeWithoutResult(status -> {
+                jdbcTemplate.batchUpdate(INSERT_USER, userArgs);
+                jdbcTemplate.batchUpdate(INSERT_USER_ROLE, userRoleArgs);
+            });
+
+            List<UserProvisioningResultDto> results = new ArrayList<>(users.size());
+            for (int i = 0; i < users.size(); i++) {
+                results.add(created(users.get(i), ids.get(i)));
+            }
+            return results;
+        } catch (DataIntegrityViolationException e) {
+            log.debug("Batch insert rejected, retrying " + userRows.size() + " users one at a time: " + e.getMessage());
+        }
+
+        List<UserProvisioningResultDto> results = new ArrayList<>(users.size());
+        for (int i = 0; i < users.size(); i++) {
+            results.add(insertOne(users.get(i), ids.get(i), userArgs.get(i), userRoleArgs.get(i)));
+        }
+        return results;
+    }
+
+    private List<Integer> nextIds(int count) {
+        // A stateless session of its own: sequence values are drawn outside any transaction anyway.
+        StatelessSession session = sessionFactory.openStatelessSession();
+        try {
+            List<Integer> ids = new ArrayList<>(count);
+            for (int i = 0; i < count; i++) {
+                ids.add((Integer) userIdGenerator.generate((SharedSessionContractImplementor) session, null));
+            }
+            return ids;
+        } finally {
+            session.close();
+        }
+    }
+
+    private UserProvisioningResultDto insertOne(UserProvisioningDto user, Integer id, Object[] userArgs,
+            Object[] userRoleArgs) {
+        try {
+            transactionTemplate.executeWithoutResult(status -> {
+                jdbcTemplate.update(INSERT_USER, userArgs);
+                jdbcTemplate.update(INSERT_USER_ROLE, userRoleArgs);
+            });
+            return created(user, id);
+        } catch (DuplicateKeyException e) {
+            return result(user, UserProvisioningStatusEnum.DUPLICATE, "Username already exists");
+        } catch (DataIntegrityViolationException e) {
+            log.debug("Could not insert user: " + user.getUsername() + ", " + e.getMessage());
+            return result(user, UserProvisioningStatusEnum.INVALID, "User violates a database constraint");
+        }
+    }
+
+    private static UserProvisioningResultDto created(UserProvisioningDto user, Integer id) {
+        return UserProvisioningResultDto.builder()
+                .username(user.getUsername())
+                .status(UserProvisioningStatusEnum.CREATED)
+                .userId(id)
+                .build();
+    }
+
+    private static UserProvisioningResultDto result(UserProvisioningDto user, UserProvisioningStatusEnum status,
+            String message) {
+        return UserProvisioningResultDto.builder()
+                .username(user.getUsername())
+                .status(status)
+                .message(message)
+                .build();
+    }
+}
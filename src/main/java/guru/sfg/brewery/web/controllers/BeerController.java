@@ -40,6 +40,7 @@ import guru.sfg.brewery.repositories.BeerRepository;
 import guru.sfg.brewery.security.perms.BeerCreatePermission;
 import guru.sfg.brewery.security.perms.BeerReadPermission;
 import guru.sfg.brewery.security.perms.BeerUpdatePermission;
+import guru.sfg.brewery.services.BeerCache;
 import lombok.RequiredArgsConstructor;
 
 @RequiredArgsConstructor
@@ -50,6 +51,7 @@ public class BeerController {
     private final BeerRepository          beerRepository;
     @SuppressWarnings("unused")
     private final BeerInventoryRepository beerInventoryRepository;
+    private final BeerCache               beerCache;
 
     @GetMapping("/find")
     @BeerReadPermission
@@ -114,6 +116,7 @@ public class BeerController {
                 .build();
 
         Beer savedBeer = beerRepository.save(newBeer);
+        beerCache.invalidate(savedBeer.getId(), savedBeer.getVersion());
         return "redirect:/beers/" + savedBeer.getId();
     }
 
@@ -133,6 +136,7 @@ public class BeerController {
         } else {
             // ToDO: Add Service
             Beer savedBeer = beerRepository.save(beer);
+            beerCache.invalidate(savedBeer.getId(), savedBeer.getVersion());
             return "redirect:/beers/" + savedBeer.getId();
         }
     }
@@ -1,5 +1,8 @@
 package guru.sfg.brewery.web.controllers;
 
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.Authentication;
 import org.springframework.security.core.context.SecurityContextHolder;
 import org.springframework.stereotype.Controller;
 import org.springframework.ui.Model;
@@ -13,6 +16,9 @@ import com.warrenstrange.googleauth.GoogleAuthenticatorQRGenerator;
 
 import guru.sfg.brewery.domain.security.User;
 import guru.sfg.brewery.repositories.security.UserRepository;
+import guru.sfg.brewery.security.UserPrincipal;
+import guru.sfg.brewery.security.UserSecurityChangedEvent;
+import guru.sfg.brewery.security.google.TotpVerifier;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 
@@ -22,12 +28,14 @@ import lombok.extern.slf4j.Slf4j;
 @RequiredArgsConstructor
 public class UserController {
 
-    private final UserRepository      userRepository;
-    private final GoogleAuthenticator googleAuthenticator;
+    private final UserRepository            userRepository;
+    private final GoogleAuthenticator       googleAuthenticator;
+    private final TotpVerifier              totpVerifier;
+    private final ApplicationEventPublisher eventPublisher;
 
     @GetMapping("/register2fa")
     public String register2fa(Model model) {
-        User user = getUser();
+        UserPrincipal user = getUser();
 
         String url = GoogleAuthenticatorQRGenerator.getOtpAuthURL(
                 "SFG",
@@ -43,12 +51,13 @@ public class UserController {
     @PostMapping("/register2fa")
     public String confirm2FA(@RequestParam Integer verifyCode) {
         log.debug("confirm2FA(" + verifyCode + ")");
-        User user = getUser();
-        if (googleAuthenticator.authorizeUser(user.getUsername(), verifyCode)) {
+        UserPrincipal user = getUser();
+        if (totpVerifier.verify(user.getUsername(), verifyCode)) {
             log.debug("Verify code accepted.");
             User savedUser = userRepository.findById(user.getId()).orElseThrow();
             savedUser.setUseGoogle2FA(true);
             userRepository.save(savedUser);
+            eventPublisher.publishEvent(new UserSecurityChangedEvent(savedUser.getUsername()));
             return "/index";
         } else {
             log.debug("Bad verifyCode.");
@@ -63,10 +72,15 @@ public class UserController {
 
     @PostMapping("/verify2fa")
     public String verifyFa(@RequestParam Integer verifyCode) {
-        User user = getUser();
-        if (googleAuthenticator.authorizeUser(user.getUsername(), verifyCode)) {
+        UserPrincipal user = getUser();
+        if (totpVerifier.verify(user.getUsername(), verifyCode)) {
             log.debug("Verify code accepted.");
-            user.setGoogle2FARequired(false);
+            // The principal is immutable; swap in one marked as verified. The session picks it up with the context.
+            Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
+            UsernamePasswordAuthenticationToken verified = new UsernamePasswordAuthenticationToken(
+                    user.withGoogle2FAVerified(), null, authentication.getAuthorities());
+            verified.setDetails(authentication.getDetails());
+            SecurityContextHolder.getContext().setAuthentication(verified);
             return "/index";
         } else {
             log.debug("Bad verifyCode.");
@@ -74,8 +88,8 @@ public class UserController {
         }
     }
 
-    private User getUser() {
-        return (User) SecurityContextHolder.getContext().getAuthentication().getPrincipal();
+    private UserPrincipal getUser() {
+        return (UserPrincipal) SecurityContextHolder.getContext().getAuthentication().getPrincipal();
     }
     
     public static final void main(String[] argv) {
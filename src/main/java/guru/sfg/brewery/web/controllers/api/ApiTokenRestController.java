@@ -0,0 +1,38 @@
+package guru.sfg.brewery.web.controllers.api;
+
+import java.time.ZoneOffset;
+
+import org.springframework.security.core.Authentication;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+
+import guru.sfg.brewery.security.token.ApiTokenService;
+import guru.sfg.brewery.web.model.ApiTokenDto;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+
+@Slf4j
+@RestController
+@RequiredArgsConstructor
+@RequestMapping("/api/v1/")
+public class ApiTokenRestController {
+
+    private final ApiTokenService apiTokenService;
+
+    /**
+     * Exchanges any accepted API credential (HTTP Basic, API key or a still valid token) for a signed token.
+     */
+    @PostMapping("token")
+    public ApiTokenDto issueToken(Authentication authentication) {
+        log.debug("Issuing API token for: " + authentication.getName());
+
+        ApiTokenService.IssuedToken issued = apiTokenService.issue(authentication);
+
+        return ApiTokenDto.builder()
+                .token(issued.getToken())
+                .tokenType("Bearer")
+                .expiresAt(issued.getExpiresAt().atOffset(ZoneOffset.UTC))
+                .build();
+    }
+}
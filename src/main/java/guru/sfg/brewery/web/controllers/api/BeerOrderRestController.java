@@ -20,6 +20,8 @@ import guru.sfg.brewery.security.perms.OrderReadPermission;
 import guru.sfg.brewery.services.BeerOrderService;
 import guru.sfg.brewery.web.model.BeerOrderDto;
 import guru.sfg.brewery.web.model.BeerOrderPagedList;
+import guru.sfg.brewery.web.model.CursorPagedList;
+import guru.sfg.brewery.web.model.SlicedList;
 import lombok.RequiredArgsConstructor;
 
 @RequestMapping("/api/v1/customers/{customerId}/")
@@ -47,6 +49,35 @@ public class BeerOrderRestController {
         return beerOrderService.listOrders(customerId, PageRequest.of(pageNumber, pageSize));
     }
 
+    @GetMapping(path = "orders", params = "mode=slice")
+    @OrderReadPermission
+    // @formatter:off
+    public SlicedList<BeerOrderDto> listOrderSlice(@PathVariable("customerId")                            UUID    customerId,
+                                                   @RequestParam(value = "pageNumber", required = false)  Integer pageNumber,
+                                                   @RequestParam(value = "pageSize", required = false)    Integer pageSize) {
+        //@formatter:on
+        if (pageNumber == null || pageNumber < 0)
+            pageNumber = DEFAULT_PAGE_NUMBER;
+        if (pageSize == null || pageSize < 1)
+            pageSize = DEFAULT_PAGE_SIZE;
+
+        return beerOrderService.listOrderSlice(customerId, PageRequest.of(pageNumber, pageSize));
+    }
+
+    @GetMapping(path = "orders", params = "mode=cursor")
+    @OrderReadPermission
+    // @formatter:off
+    public CursorPagedList<BeerOrderDto> listOrdersByCursor(@PathVariable("customerId")                              UUID    customerId,
+                                                            @RequestParam(value = "cursor", required = false)        String  cursor,
+                                                            @RequestParam(value = "pageSize", required = false)      Integer pageSize,
+                                                            @RequestParam(value = "includeTotal", defaultValue = "false") boolean includeTotal) {
+        //@formatter:on
+        if (pageSize == null || pageSize < 1)
+            pageSize = DEFAULT_PAGE_SIZE;
+
+        return beerOrderService.listOrders(customerId, cursor, pageSize, includeTotal);
+    }
+
     @PostMapping("orders")
     @ResponseStatus(HttpStatus.CREATED)
     @OrderCreatePermission
@@ -4,7 +4,6 @@ import java.util.UUID;
 
 import org.springframework.data.domain.PageRequest;
 import org.springframework.http.HttpStatus;
-import org.springframework.security.core.annotation.AuthenticationPrincipal;
 import org.springframework.web.bind.annotation.GetMapping;
 import org.springframework.web.bind.annotation.PathVariable;
 import org.springframework.web.bind.annotation.RequestMapping;
@@ -12,11 +11,12 @@ import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.RestController;
 import org.springframework.web.server.ResponseStatusException;
 
-import guru.sfg.brewery.domain.security.User;
 import guru.sfg.brewery.security.perms.OrderReadPermissionV2;
 import guru.sfg.brewery.services.BeerOrderService;
 import guru.sfg.brewery.web.model.BeerOrderDto;
 import guru.sfg.brewery.web.model.BeerOrderPagedList;
+import guru.sfg.brewery.web.model.CursorPagedList;
+import guru.sfg.brewery.web.model.SlicedList;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 
@@ -34,8 +34,7 @@ public class BeerOrderRestControllerV2 {
     @OrderReadPermissionV2
     @GetMapping
     // @formatter:off
-    public BeerOrderPagedList listOrders(@AuthenticationPrincipal User user,
-                                         @RequestParam(value = "pageNumber", required = false) Integer pageNumber,
+    public BeerOrderPagedList listOrders(@RequestParam(value = "pageNumber", required = false) Integer pageNumber,
                                          @RequestParam(value = "pageSize", required = false) Integer pageSize) {
         // @formatter:on
         if (pageNumber == null || pageNumber < 0) {
@@ -46,11 +45,38 @@ public class BeerOrderRestControllerV2 {
             pageSize = DEFAULT_PAGE_SIZE;
         }
 
-        if (user.getCustomer() != null) {
-            return beerOrderService.listOrders(user.getCustomer().getId(), PageRequest.of(pageNumber, pageSize));
-        } else {
-            return beerOrderService.listOrders(PageRequest.of(pageNumber, pageSize));
+        return beerOrderService.listScopedOrders(PageRequest.of(pageNumber, pageSize));
+    }
+
+    @OrderReadPermissionV2
+    @GetMapping(params = "mode=slice")
+    // @formatter:off
+    public SlicedList<BeerOrderDto> listOrderSlice(@RequestParam(value = "pageNumber", required = false) Integer pageNumber,
+                                                   @RequestParam(value = "pageSize", required = false) Integer pageSize) {
+        // @formatter:on
+        if (pageNumber == null || pageNumber < 0) {
+            pageNumber = DEFAULT_PAGE_NUMBER;
+        }
+
+        if (pageSize == null || pageSize < 1) {
+            pageSize = DEFAULT_PAGE_SIZE;
         }
+
+        return beerOrderService.listScopedOrderSlice(PageRequest.of(pageNumber, pageSize));
+    }
+
+    @OrderReadPermissionV2
+    @GetMapping(params = "mode=cursor")
+    // @formatter:off
+    public CursorPagedList<BeerOrderDto> listOrdersByCursor(@RequestParam(value = "cursor", required = false) String cursor,
+                                                            @RequestParam(value = "pageSize", required = false) Integer pageSize,
+                                                            @RequestParam(value = "includeTotal", defaultValue = "false") boolean includeTotal) {
+        // @formatter:on
+        if (pageSize == null || pageSize < 1) {
+            pageSize = DEFAULT_PAGE_SIZE;
+        }
+
+        return beerOrderService.listScopedOrders(cursor, pageSize, includeTotal);
     }
 
     @OrderReadPermissionV2
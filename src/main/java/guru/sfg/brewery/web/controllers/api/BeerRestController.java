@@ -49,6 +49,8 @@ import guru.sfg.brewery.services.BeerService;
 import guru.sfg.brewery.web.model.BeerDto;
 import guru.sfg.brewery.web.model.BeerPagedList;
 import guru.sfg.brewery.web.model.BeerStyleEnum;
+import guru.sfg.brewery.web.model.CursorPagedList;
+import guru.sfg.brewery.web.model.SlicedList;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 
@@ -91,6 +93,53 @@ public class BeerRestController {
         return new ResponseEntity<>(beerList, HttpStatus.OK);
     }
 
+    /**
+     * {@link #listBeers} without totals, so without the count query: {@code hasNext} is all the client gets.
+     */
+    @BeerReadPermission
+    @GetMapping(produces = { "application/json" }, path = "beer", params = "mode=slice")
+    public ResponseEntity<SlicedList<BeerDto>> listBeerSlice(@RequestParam(value = "pageNumber", required = false) Integer pageNumber,
+                                                             @RequestParam(value = "pageSize", required = false) Integer pageSize,
+                                                             @RequestParam(value = "beerName", required = false) String beerName,
+                                                             @RequestParam(value = "beerStyle", required = false) BeerStyleEnum beerStyle,
+                                                             @RequestParam(value = "showInventoryOnHand", required = false) Boolean showInventoryOnHand){
+
+        log.debug("Listing Beer slice");
+
+        if (pageNumber == null || pageNumber < 0){
+            pageNumber = DEFAULT_PAGE_NUMBER;
+        }
+
+        if (pageSize == null || pageSize < 1) {
+            pageSize = DEFAULT_PAGE_SIZE;
+        }
+
+        return new ResponseEntity<>(beerService.listBeerSlice(beerName, beerStyle, PageRequest.of(pageNumber, pageSize),
+                Boolean.TRUE.equals(showInventoryOnHand)), HttpStatus.OK);
+    }
+
+    /**
+     * Keyset variant of {@link #listBeers}: follow {@code nextCursor} instead of page numbers. Totals only on request.
+     */
+    @BeerReadPermission
+    @GetMapping(produces = { "application/json" }, path = "beer", params = "mode=cursor")
+    public ResponseEntity<CursorPagedList<BeerDto>> listBeersByCursor(@RequestParam(value = "cursor", required = false) String cursor,
+                                                                      @RequestParam(value = "pageSize", required = false) Integer pageSize,
+                                                                      @RequestParam(value = "beerName", required = false) String beerName,
+                                                                      @RequestParam(value = "beerStyle", required = false) BeerStyleEnum beerStyle,
+                                                                      @RequestParam(value = "showInventoryOnHand", required = false) Boolean showInventoryOnHand,
+                                                                      @RequestParam(value = "includeTotal", defaultValue = "false") boolean includeTotal){
+
+        log.debug("Listing Beers by cursor");
+
+        if (pageSize == null || pageSize < 1) {
+            pageSize = DEFAULT_PAGE_SIZE;
+        }
+
+        return new ResponseEntity<>(beerService.listBeers(beerName, beerStyle, cursor, pageSize,
+                Boolean.TRUE.equals(showInventoryOnHand), includeTotal), HttpStatus.OK);
+    }
+
     @BeerReadPermission
     @GetMapping(path = {"beer/{beerId}"}, produces = { "application/json" })
     public ResponseEntity<BeerDto> getBeerById(@PathVariable("beerId") UUID beerId,
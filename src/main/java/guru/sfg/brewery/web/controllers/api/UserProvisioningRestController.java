@@ -0,0 +1,103 @@
+package guru.sfg.brewery.web.controllers.api;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.time.Duration;
+import java.util.List;
+import java.util.UUID;
+
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.task.TaskExecutor;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestBody;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.server.ResponseStatusException;
+import org.springframework.web.servlet.mvc.method.annotation.ResponseBodyEmitter;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectWriter;
+
+import guru.sfg.brewery.repositories.CustomerRepository;
+import guru.sfg.brewery.security.perms.CustomerCreatePermission;
+import guru.sfg.brewery.services.UserProvisioningService;
+import guru.sfg.brewery.web.model.UserProvisioningDto;
+import guru.sfg.brewery.web.model.UserProvisioningResultDto;
+import lombok.extern.slf4j.Slf4j;
+
+@Slf4j
+@RestController
+@RequestMapping("/api/v1/customers/{customerId}/")
+public class UserProvisioningRestController {
+
+    public static final String APPLICATION_NDJSON = "application/x-ndjson";
+
+    private static final MediaType NDJSON = MediaType.parseMediaType(APPLICATION_NDJSON);
+
+    private final UserProvisioningService userProvisioningService;
+    private final CustomerRepository      customerRepository;
+    private final ObjectWriter            resultWriter;
+    private final TaskExecutor            taskExecutor;
+    private final int                     maxUsers;
+    private final Duration                timeout;
+
+    public UserProvisioningRestController(UserProvisioningService userProvisioningService,
+            CustomerRepository customerRepository, ObjectMapper objectMapper,
+            @Qualifier("taskExecutor") TaskExecutor taskExecutor,
+            @Value("${sfg.user-provisioning.max-users:10000}") int maxUsers,
+            @Value("${sfg.user-provisioning.timeout:10m}") Duration timeout) {
+        this.userProvisioningService = userProvisioningService;
+        this.customerRepository = customerRepository;
+        this.resultWriter = objectMapper.writerFor(UserProvisioningResultDto.class);
+        this.taskExecutor = taskExecutor;
+        this.maxUsers = maxUsers;
+        this.timeout = timeout;
+    }
+
+    /**
+     * Creates the given users for the customer. One JSON result per line, in request order, streamed as
+     * each batch is committed. The response has its own timeout, {@code sfg.user-provisioning.timeout}, as a
+     * large request runs well past the default async request timeout.
+     */
+    @PostMapping(path = "users/bulk", produces = APPLICATION_NDJSON)
+    @CustomerCreatePermission
+    public ResponseEntity<ResponseBodyEmitter> provisionUsers(@PathVariable("customerId") UUID customerId,
+            @RequestBody List<UserProvisioningDto> users) {
+        if (!customerRepository.existsById(customerId)) {
+            throw new ResponseStatusException(HttpStatus.NOT_FOUND, "Customer Not Found");
+        }
+        if (users.size() > maxUsers) {
+            throw new ResponseStatusException(HttpStatus.PAYLOAD_TOO_LARGE,
+                    "At most " + maxUsers + " users per request");
+        }
+
+        ResponseBodyEmitter emitter = new ResponseBodyEmitter(timeout.toMillis());
+        taskExecutor.execute(() -> {
+            try {
+                userProvisioningService.provisionUsers(customerId, users, result -> send(emitter, result));
+                emitter.complete();
+            } catch (RuntimeException e) {
+                log.debug("Bulk user provisioning for customer " + customerId + " ended early: " + e.getMessage());
+                emitter.completeWithError(e);
+            }
+        });
+        return ResponseEntity.ok().contentType(NDJSON).body(emitter);
+    }
+
+    private void send(ResponseBodyEmitter emitter, UserProvisioningResultDto result) {
+        try {
+            ByteArrayOutputStream line = new ByteArrayOutputStream(128);
+            resultWriter.writeValue(line, result);
+            line.write('\n');
+            emitter.send(line.toByteArray(), NDJSON);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+}
@@ -18,15 +18,18 @@
 package guru.sfg.brewery.web.mappers;
 
 import guru.sfg.brewery.domain.Beer;
+import guru.sfg.brewery.repositories.BeerSummary;
 import guru.sfg.brewery.web.model.BeerDto;
-import org.mapstruct.DecoratedWith;
 import org.mapstruct.Mapper;
+import org.mapstruct.Mapping;
 
 @Mapper(uses = DateMapper.class)
-@DecoratedWith(BeerMapperDecorator.class)
 public interface BeerMapper {
 
     BeerDto beerToBeerDto(Beer beer);
 
+    @Mapping(target = "quantityOnHand", ignore = true)
     Beer beerDtoToBeer(BeerDto beerDto);
+
+    BeerDto beerSummaryToBeerDto(BeerSummary beerSummary);
 }
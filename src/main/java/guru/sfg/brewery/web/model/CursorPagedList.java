@@ -0,0 +1,24 @@
+package guru.sfg.brewery.web.model;
+
+import java.util.List;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * One page of a keyset listing. {@code nextCursor} is absent on the last page; {@code totalElements} only
+ * when the client asked for it, since it costs a count over the whole listing.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@JsonInclude(JsonInclude.Include.NON_NULL)
+public class CursorPagedList<T> {
+
+    private List<T> content;
+    private int     size;
+    private String  nextCursor;
+    private Long    totalElements;
+}
@@ -0,0 +1,22 @@
+package guru.sfg.brewery.web.model;
+
+import java.util.List;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * One page of a listing without totals, for clients that only page forward (infinite scroll). Unlike
+ * {@link BeerPagedList} and {@link BeerOrderPagedList} it costs no count query.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class SlicedList<T> {
+
+    private List<T> content;
+    private int     number;
+    private int     size;
+    private boolean hasNext;
+}
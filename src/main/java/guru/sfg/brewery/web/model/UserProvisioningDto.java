@@ -0,0 +1,18 @@
+package guru.sfg.brewery.web.model;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import lombok.ToString;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class UserProvisioningDto {
+    private String username;
+
+    @ToString.Exclude
+    private String password;
+}
@@ -0,0 +1,20 @@
+package guru.sfg.brewery.web.model;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+@JsonInclude(JsonInclude.Include.NON_NULL)
+public class UserProvisioningResultDto {
+    private String                     username;
+    private UserProvisioningStatusEnum status;
+    private Integer                    userId;
+    private String                     message;
+}
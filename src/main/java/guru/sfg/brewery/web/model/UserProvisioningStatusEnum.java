@@ -0,0 +1,5 @@
+package guru.sfg.brewery.web.model;
+
+public enum UserProvisioningStatusEnum {
+    CREATED, DUPLICATE, INVALID, FAILED
+}
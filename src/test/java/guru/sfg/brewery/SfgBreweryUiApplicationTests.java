@@ -20,8 +20,13 @@ package guru.sfg.brewery;
 
 import org.junit.jupiter.api.Test;
 import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.TestPropertySource;
+
+import guru.sfg.brewery.web.controllers.BaseIT;
 
 @SpringBootTest
+@TestPropertySource(properties = { "sfg.security.api-key.hash-key=" + BaseIT.TEST_API_KEY_HASH_KEY,
+        "sfg.security.api-token.signing-key=" + BaseIT.TEST_API_TOKEN_SIGNING_KEY })
 public class SfgBreweryUiApplicationTests {
 
     @Test
@@ -0,0 +1,20 @@
+package guru.sfg.brewery.security;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.time.Duration;
+
+import org.junit.jupiter.api.Test;
+
+class BCryptStrengthCalibratorTest {
+
+    @Test
+    void strengthClampedToConfiguredRange() {
+        // No host hashes at cost 10 in a nanosecond, and every host does cost 12 within an hour.
+        assertThat(new BCryptStrengthCalibrator(-1, Duration.ofNanos(1), 10, 14).getStrength()).isEqualTo(10);
+        assertThat(new BCryptStrengthCalibrator(-1, Duration.ofHours(1), 10, 12).getStrength()).isEqualTo(12);
+
+        // A fixed strength skips calibration altogether.
+        assertThat(new BCryptStrengthCalibrator(13, Duration.ofNanos(1), 10, 12).getStrength()).isEqualTo(13);
+    }
+}
@@ -0,0 +1,160 @@
+package guru.sfg.brewery.security;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.springframework.security.test.web.servlet.request.SecurityMockMvcRequestPostProcessors.httpBasic;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+import java.sql.Timestamp;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.UUID;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.security.core.GrantedAuthority;
+import org.springframework.security.core.userdetails.UserDetails;
+import org.springframework.security.crypto.password.PasswordEncoder;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import guru.sfg.brewery.domain.security.Authority;
+import guru.sfg.brewery.domain.security.Role;
+import guru.sfg.brewery.domain.security.User;
+import guru.sfg.brewery.repositories.security.AuthorityRepository;
+import guru.sfg.brewery.repositories.security.RoleRepository;
+import guru.sfg.brewery.repositories.security.UserRepository;
+import guru.sfg.brewery.security.google.GoogleCredentialsRepository;
+import guru.sfg.brewery.web.controllers.BaseIT;
+import io.micrometer.core.instrument.MeterRegistry;
+
+@SpringBootTest
+public class JpaUserDetailsServiceIT extends BaseIT {
+
+    private static final String PASSWORD = "cached-secret";
+
+    @Autowired
+    JpaUserDetailsService userDetailsService;
+
+    @Autowired
+    UserRepository userRepository;
+
+    @Autowired
+    RoleRepository roleRepository;
+
+    @Autowired
+    AuthorityRepository authorityRepository;
+
+    @Autowired
+    PasswordEncoder passwordEncoder;
+
+    @Autowired
+    PlatformTransactionManager transactionManager;
+
+    @Autowired
+    UserUnlockService userUnlockService;
+
+    @Autowired
+    GoogleCredentialsRepository googleCredentialsRepository;
+
+    @Autowired
+    MeterRegistry meterRegistry;
+
+    @Test
+    void repeatedLoadServedFromCache() {
+        String username = createUser();
+        userDetailsService.loadUserByUsername(username);
+
+        double hits = cacheHits();
+        userDetailsService.loadUserByUsername(username);
+        userDetailsService.loadUserByUsername(username);
+
+        assertThat(cacheHits() - hits).isEqualTo(2);
+    }
+
+    @Test
+    void lockAndUnlockInvalidateCachedUser() throws Exception {
+        String username = createUser();
+        assertThat(userDetailsService.loadUserByUsername(username).isAccountNonLocked()).isTrue();
+
+        for (int i = 0; i < 4; i++) {
+            mockMvc.perform(get("/api/v1/beer/").with(httpBasic(username, "wrong")))
+                    .andExpect(status().isUnauthorized());
+        }
+        assertThat(userDetailsService.loadUserByUsername(username).isAccountNonLocked()).isFalse();
+
+        // A lock from long ago is due on the next tick.
+        userUnlockService.scheduleUnlock(username, new Timestamp(0));
+        long deadline = System.currentTimeMillis() + 5000;
+        while (!userDetailsService.loadUserByUsername(username).isAccountNonLocked()
+                && System.currentTimeMillis() < deadline) {
+            Thread.sleep(100);
+        }
+        assertThat(userDetailsService.loadUserByUsername(username).isAccountNonLocked()).isTrue();
+    }
+
+    @Test
+    void google2FASetupInvalidatesCachedUser() {
+        String username = createUser();
+        assertThat(((UserPrincipal) userDetailsService.loadUserByUsername(username)).isUseGoogle2FA()).isFalse();
+
+        googleCredentialsRepository.saveUserCredentials(username, "JBSWY3DPEHPK3PXP", 0, Collections.emptyList());
+
+        assertThat(((UserPrincipal) userDetailsService.loadUserByUsername(username)).isUseGoogle2FA()).isTrue();
+    }
+
+    @Test
+    void returnedCopiesAreIndependent() {
+        String username = createUser();
+        UserDetails first = userDetailsService.loadUserByUsername(username);
+        UserDetails second = userDetailsService.loadUserByUsername(username);
+
+        assertThat(first).isNotSameAs(second);
+        ((UserPrincipal) first).eraseCredentials();
+
+        assertThat(first.getPassword()).isNull();
+        assertThat(second.getPassword()).isNotNull();
+        assertThat(userDetailsService.loadUserByUsername(username).getPassword()).isNotNull();
+    }
+
+    @Test
+    void roleAuthorityChangeReachesCachedUser() {
+        String permission = "test.permission." + UUID.randomUUID();
+        Authority authority = authorityRepository.saveAndFlush(Authority.builder().permission(permission).build());
+        Role role = roleRepository.saveAndFlush(Role.builder().name("CACHE_TEST_" + UUID.randomUUID()).build());
+        String username = createUser(role);
+        assertThat(userDetailsService.loadUserByUsername(username).getAuthorities()).isEmpty();
+
+        TransactionTemplate transactionTemplate = new TransactionTemplate(transactionManager);
+        transactionTemplate.executeWithoutResult(status ->
+                roleRepository.findById(role.getId()).orElseThrow().getAuthorities().add(authority));
+
+        assertThat(userDetailsService.loadUserByUsername(username).getAuthorities())
+                .extracting(GrantedAuthority::getAuthority)
+                .containsExactly(permission);
+
+        transactionTemplate.executeWithoutResult(status ->
+                roleRepository.findById(role.getId()).orElseThrow().getAuthorities().clear());
+
+        assertThat(userDetailsService.loadUserByUsername(username).getAuthorities()).isEmpty();
+    }
+
+    private String createUser(Role... roles) {
+        String username = "cache-" + UUID.randomUUID();
+        userRepository.saveAndFlush(User.builder()
+                .username(username)
+                .password(passwordEncoder.encode(PASSWORD))
+                .roles(Arrays.asList(roles))
+                .build());
+        return username;
+    }
+
+    private double cacheHits() {
+        return meterRegistry.get("cache.gets")
+                .tag("cache", "userDetails")
+                .tag("result", "hit")
+                .functionCounter()
+                .count();
+    }
+}
@@ -0,0 +1,64 @@
+package guru.sfg.brewery.security;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.springframework.security.test.web.servlet.request.SecurityMockMvcRequestPostProcessors.httpBasic;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+import java.util.UUID;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.security.crypto.password.PasswordEncoder;
+
+import guru.sfg.brewery.domain.security.User;
+import guru.sfg.brewery.repositories.security.UserRepository;
+import guru.sfg.brewery.web.controllers.BaseIT;
+import io.micrometer.core.instrument.MeterRegistry;
+
+@SpringBootTest
+public class LoginFailureCounterIT extends BaseIT {
+
+    @Autowired
+    UserRepository userRepository;
+
+    @Autowired
+    PasswordEncoder passwordEncoder;
+
+    @Autowired
+    MeterRegistry meterRegistry;
+
+    @Test
+    void unknownUsernameGetsNoWindow() throws Exception {
+        double windows = windowLookups();
+
+        for (int i = 0; i < 5; i++) {
+            mockMvc.perform(get("/api/v1/beer/").with(httpBasic("nobody-" + UUID.randomUUID(), "wrong")))
+                    .andExpect(status().isUnauthorized());
+        }
+
+        assertThat(windowLookups()).isEqualTo(windows);
+    }
+
+    @Test
+    void knownUsernameCounted() throws Exception {
+        String username = "failing-" + UUID.randomUUID();
+        userRepository.saveAndFlush(User.builder()
+                .username(username)
+                .password(passwordEncoder.encode("right"))
+                .build());
+        double windows = windowLookups();
+
+        mockMvc.perform(get("/api/v1/beer/").with(httpBasic(username, "wrong")))
+                .andExpect(status().isUnauthorized());
+
+        assertThat(windowLookups()).isEqualTo(windows + 1);
+    }
+
+    private double windowLookups() {
+        return meterRegistry.get("cache.gets").tag("cache", "loginFailureWindows").functionCounters().stream()
+                .mapToDouble(counter -> counter.count())
+                .sum();
+    }
+}
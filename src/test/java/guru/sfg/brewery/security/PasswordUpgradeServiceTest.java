@@ -0,0 +1,136 @@
+package guru.sfg.brewery.security;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.argThat;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.after;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.timeout;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.verifyNoInteractions;
+import static org.mockito.Mockito.when;
+
+import java.time.Duration;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.security.core.userdetails.UserDetails;
+import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
+import org.springframework.security.crypto.password.PasswordEncoder;
+
+import guru.sfg.brewery.repositories.security.UserRepository;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+
+@ExtendWith(MockitoExtension.class)
+class PasswordUpgradeServiceTest {
+
+    private static final int    STRENGTH = 11;
+    private static final String RAW      = "password";
+
+    @Mock
+    UserRepository userRepository;
+
+    @Mock
+    ApplicationEventPublisher eventPublisher;
+
+    PasswordEncoder        passwordEncoder;
+    SimpleMeterRegistry    meterRegistry;
+    PasswordUpgradeService passwordUpgradeService;
+
+    @BeforeEach
+    void setUp() {
+        passwordEncoder = SfgPasswordEncoderFactories.createDelegatingPasswordEncoder(STRENGTH);
+        meterRegistry = new SimpleMeterRegistry();
+        passwordUpgradeService = new PasswordUpgradeService(passwordEncoder, userRepository, eventPublisher,
+                new BCryptStrengthCalibrator(STRENGTH, Duration.ofMillis(250), 10, 14), meterRegistry, 1, 10);
+    }
+
+    @AfterEach
+    void tearDown() {
+        passwordUpgradeService.shutdown();
+    }
+
+    @Test
+    void bcryptBelowCurrentStrengthUpgraded() {
+        String stored = "{bcrypt}" + new BCryptPasswordEncoder(10).encode(RAW);
+        when(userRepository.updatePassword(eq("user"), eq(stored), anyString(), any())).thenReturn(1);
+
+        passwordUpgradeService.upgradeIfNeeded(user(stored), RAW);
+
+        verify(userRepository, timeout(5000)).updatePassword(eq("user"), eq(stored),
+                argThat(hash -> hash.startsWith("{bcrypt}$2a$" + STRENGTH + "$") && passwordEncoder.matches(RAW, hash)),
+                any());
+        verify(eventPublisher, timeout(5000)).publishEvent(any(Object.class));
+    }
+
+    @Test
+    void bcryptAtCurrentStrengthLeftAlone() {
+        String stored = "{bcrypt}" + new BCryptPasswordEncoder(STRENGTH).encode(RAW);
+
+        passwordUpgradeService.upgradeIfNeeded(user(stored), RAW);
+
+        verifyNoInteractions(userRepository, eventPublisher);
+    }
+
+    @Test
+    void strongerBcryptIdNeverDowngraded() {
+        // Only inspected, never verified, so a syntactically valid cost 15 hash is enough.
+        String stored = "{bcrypt15}$2a$15$abcdefghijklmnopqrstuvwxyzABCDEFGHIJKLMNOPQRSTUVWXYZ0";
+
+        passwordUpgradeService.upgradeIfNeeded(user(stored), RAW);
+
+        verifyNoInteractions(userRepository, eventPublisher);
+    }
+
+    @Test
+    void ldapHashUpgradedToBcrypt() {
+        assertLegacyUpgraded("{ldap}" + SfgPasswordEncoderFactories.createEncoders().get("ldap").encode(RAW));
+    }
+
+    @Test
+    void sha256HashUpgradedToBcrypt() {
+        assertLegacyUpgraded("{sha256}" + SfgPasswordEncoderFactories.createEncoders().get("sha256").encode(RAW));
+    }
+
+    @Test
+    void passwordChangedBeforeUpgradeSkipped() {
+        String stored = "{bcrypt}" + new BCryptPasswordEncoder(10).encode(RAW);
+        when(userRepository.updatePassword(eq("user"), eq(stored), anyString(), any())).thenReturn(0);
+
+        passwordUpgradeService.upgradeIfNeeded(user(stored), RAW);
+
+        verify(userRepository, timeout(5000)).updatePassword(eq("user"), eq(stored), anyString(), any());
+        verify(eventPublisher, after(200).never()).publishEvent(any(Object.class));
+        assertThat(meterRegistry.get("sfg.security.password-upgrade").tag("result", "stale").counter().count())
+                .isEqualTo(1);
+    }
+
+    @Test
+    void updatePasswordReturnsUnchangedUserWhenStale() {
+        UserDetails user = user("{noop}old");
+        when(userRepository.updatePassword(eq("user"), eq("{noop}old"), eq("{noop}new"), any())).thenReturn(0);
+
+        assertThat(passwordUpgradeService.updatePassword(user, "{noop}new")).isSameAs(user);
+        verify(eventPublisher, never()).publishEvent(any(Object.class));
+    }
+
+    private void assertLegacyUpgraded(String stored) {
+        when(userRepository.updatePassword(eq("user"), eq(stored), anyString(), any())).thenReturn(1);
+
+        passwordUpgradeService.upgradeIfNeeded(user(stored), RAW);
+
+        verify(userRepository, timeout(5000)).updatePassword(eq("user"), eq(stored),
+                argThat(hash -> hash.startsWith("{bcrypt}") && passwordEncoder.matches(RAW, hash)), any());
+    }
+
+    private static UserDetails user(String encodedPassword) {
+        return UserPrincipal.builder().username("user").password(encodedPassword).build();
+    }
+}
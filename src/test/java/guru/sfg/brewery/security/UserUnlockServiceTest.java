@@ -0,0 +1,137 @@
+package guru.sfg.brewery.security;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyCollection;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.atLeastOnce;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.verifyNoInteractions;
+import static org.mockito.Mockito.when;
+
+import java.sql.Timestamp;
+import java.time.Duration;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.stream.Collectors;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.context.ApplicationEventPublisher;
+
+import guru.sfg.brewery.repositories.security.UserRepository;
+
+@ExtendWith(MockitoExtension.class)
+class UserUnlockServiceTest {
+
+    private static final Duration LOCK_DURATION = Duration.ofSeconds(1);
+
+    @Mock
+    UserRepository userRepository;
+
+    @Mock
+    ApplicationEventPublisher eventPublisher;
+
+    UserUnlockService userUnlockService;
+
+    @BeforeEach
+    void setUp() {
+        userUnlockService = new UserUnlockService(userRepository, eventPublisher, LOCK_DURATION, 8);
+    }
+
+    @Test
+    void expiredLockUnlockedOnNextTick() {
+        userUnlockService.scheduleUnlock("expired", lockedAgo(Duration.ofSeconds(5)));
+
+        userUnlockService.unlockAccounts();
+
+        verify(userRepository).unlockByUsernames(eq(Collections.singletonList("expired")), any());
+        assertThat(publishedUsernames()).containsExactly("expired");
+    }
+
+    @Test
+    void deadlineFiresOnceDue() throws Exception {
+        userUnlockService.scheduleUnlock("fresh", lockedAgo(Duration.ZERO));
+
+        userUnlockService.unlockAccounts();
+        verify(userRepository, never()).unlockByUsernames(anyCollection(), any());
+        verifyNoInteractions(eventPublisher);
+
+        Thread.sleep(LOCK_DURATION.toMillis() + 1100);
+        userUnlockService.unlockAccounts();
+        verify(userRepository).unlockByUsernames(eq(Collections.singletonList("fresh")), any());
+    }
+
+    @Test
+    void laterLockSupersedesEarlierDeadline() {
+        userUnlockService.scheduleUnlock("relocked", lockedAgo(Duration.ofSeconds(5)));
+        userUnlockService.scheduleUnlock("relocked", lockedAgo(Duration.ZERO));
+
+        userUnlockService.unlockAccounts();
+
+        verify(userRepository, never()).unlockByUsernames(anyCollection(), any());
+    }
+
+    @Test
+    void deadlineBeyondWheelSizeWaitsForItsRound() {
+        // 8 one second slots: a deadline exactly one round ahead shares the current slot but is not due yet.
+        UserUnlockService longLocks = new UserUnlockService(userRepository, eventPublisher, Duration.ofSeconds(20), 8);
+        long nowTick = System.currentTimeMillis() / 1000;
+        longLocks.scheduleUnlock("long", new Timestamp((nowTick - 12) * 1000));
+
+        longLocks.unlockAccounts();
+
+        verify(userRepository, never()).unlockByUsernames(anyCollection(), any());
+    }
+
+    @Test
+    void rebuildSchedulesLockedAccountsFromDatabase() {
+        when(userRepository.findLockedUsernamesAndLastModifiedDates()).thenReturn(Arrays.asList(
+                new Object[] { "lockedLongAgo", lockedAgo(Duration.ofMinutes(5)) },
+                new Object[] { "lockedJustNow", lockedAgo(Duration.ZERO) }));
+
+        userUnlockService.rebuild();
+        userUnlockService.unlockAccounts();
+
+        verify(userRepository).unlockByUsernames(eq(Collections.singletonList("lockedLongAgo")), any());
+        assertThat(publishedUsernames()).containsExactly("lockedLongAgo");
+    }
+
+    @Test
+    void sweepUnlocksAccountsUnknownToWheel() {
+        when(userRepository.findUsernamesLockedBefore(any())).thenReturn(Collections.singletonList("otherNode"));
+
+        userUnlockService.sweep();
+
+        verify(userRepository).unlockByUsernamesLockedBefore(eq(Collections.singletonList("otherNode")), any(), any());
+        assertThat(publishedUsernames()).containsExactly("otherNode");
+    }
+
+    @Test
+    void sweepWithNothingExpiredWritesNothing() {
+        when(userRepository.findUsernamesLockedBefore(any())).thenReturn(Collections.emptyList());
+
+        userUnlockService.sweep();
+
+        verify(userRepository, never()).unlockByUsernamesLockedBefore(anyCollection(), any(), any());
+        verifyNoInteractions(eventPublisher);
+    }
+
+    private static Timestamp lockedAgo(Duration ago) {
+        return new Timestamp(System.currentTimeMillis() - ago.toMillis());
+    }
+
+    private List<String> publishedUsernames() {
+        ArgumentCaptor<Object> events = ArgumentCaptor.forClass(Object.class);
+        verify(eventPublisher, atLeastOnce()).publishEvent(events.capture());
+        return events.getAllValues().stream()
+                .map(event -> ((UserSecurityChangedEvent) event).getUsername())
+                .collect(Collectors.toList());
+    }
+}
@@ -0,0 +1,67 @@
+package guru.sfg.brewery.security.apikey;
+
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+import java.util.UUID;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.mock.env.MockEnvironment;
+import org.springframework.test.web.servlet.request.MockHttpServletRequestBuilder;
+
+import guru.sfg.brewery.domain.Customer;
+import guru.sfg.brewery.repositories.CustomerRepository;
+import guru.sfg.brewery.web.controllers.BaseIT;
+
+@SpringBootTest
+public class ApiKeyIndexIT extends BaseIT {
+
+    private static final String SECRET = "delete-me-secret";
+
+    @Autowired
+    ApiKeyIndex apiKeyIndex;
+
+    @Autowired
+    ApiKeyHasher apiKeyHasher;
+
+    @Autowired
+    CustomerRepository customerRepository;
+
+    @Test
+    void deletedCustomerKeyStopsAuthenticating() throws Exception {
+        Customer customer = customerRepository.saveAndFlush(Customer.builder()
+                .customerName("Delete Me Distributing")
+                .apiKey(UUID.randomUUID())
+                .apiSecret(apiKeyHasher.encode(SECRET))
+                .build());
+        apiKeyIndex.refresh();
+
+        mockMvc.perform(withApiKey(customer)).andExpect(status().isOk());
+
+        customerRepository.delete(customer);
+        customerRepository.flush();
+        apiKeyIndex.refresh(); // cannot see the delete
+        apiKeyIndex.reconcile();
+        mockMvc.perform(withApiKey(customer)).andExpect(status().isUnauthorized());
+    }
+
+    @Test
+    void placeholderHashKeyRejectedOutsideDevProfile() {
+        assertThrows(IllegalStateException.class,
+                () -> new ApiKeyHasher(ApiKeyHasher.PLACEHOLDER_HASH_KEY, new MockEnvironment()));
+
+        MockEnvironment dev = new MockEnvironment();
+        dev.setActiveProfiles("dev");
+        new ApiKeyHasher(ApiKeyHasher.PLACEHOLDER_HASH_KEY, dev);
+        new ApiKeyHasher("a-real-key", new MockEnvironment());
+    }
+
+    private static MockHttpServletRequestBuilder withApiKey(Customer customer) {
+        return get("/api/v1/beer/")
+                .header("Api-Key", customer.getApiKey().toString())
+                .header("Api-Secret", SECRET);
+    }
+}
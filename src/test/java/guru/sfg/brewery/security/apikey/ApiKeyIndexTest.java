@@ -0,0 +1,88 @@
+package guru.sfg.brewery.security.apikey;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.when;
+
+import java.util.List;
+import java.util.Optional;
+import java.util.Set;
+import java.util.UUID;
+import java.util.stream.Collectors;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.mock.env.MockEnvironment;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.GrantedAuthority;
+
+import guru.sfg.brewery.bootstrap.DefaultBreweryLoader;
+import guru.sfg.brewery.domain.Customer;
+import guru.sfg.brewery.domain.security.Authority;
+import guru.sfg.brewery.domain.security.AuthoritySets;
+import guru.sfg.brewery.domain.security.Role;
+import guru.sfg.brewery.repositories.CustomerRepository;
+import guru.sfg.brewery.repositories.security.RoleRepository;
+
+@ExtendWith(MockitoExtension.class)
+class ApiKeyIndexTest {
+
+    private static final String SECRET = "secret";
+
+    @Mock
+    CustomerRepository customerRepository;
+
+    @Mock
+    RoleRepository roleRepository;
+
+    ApiKeyHasher apiKeyHasher = new ApiKeyHasher("a-real-key", new MockEnvironment());
+    ApiKeyIndex  apiKeyIndex;
+    Role         customerRole;
+    Customer     customer;
+
+    @BeforeEach
+    void setUp() {
+        apiKeyIndex = new ApiKeyIndex(customerRepository, roleRepository, apiKeyHasher);
+        // An id of its own, so no other test shares the compiled set.
+        customerRole = Role.builder()
+                .id(9001)
+                .name(DefaultBreweryLoader.ROLE_CUSTOMER)
+                .authorities(Set.of(Authority.builder().id(9001).permission("customer.beer.read").build()))
+                .build();
+        customer = Customer.builder()
+                .id(UUID.randomUUID())
+                .customerName("Index Distributing")
+                .apiKey(UUID.randomUUID())
+                .apiSecret(apiKeyHasher.encode(SECRET))
+                .build();
+
+        when(roleRepository.findByName(DefaultBreweryLoader.ROLE_CUSTOMER)).thenReturn(Optional.of(customerRole));
+        when(customerRepository.findAll()).thenReturn(List.of(customer));
+        apiKeyIndex.load();
+    }
+
+    @Test
+    void roleAuthorityChangeReachesIndexedKeys() {
+        assertThat(permissions()).containsExactly("customer.beer.read");
+
+        customerRole.setAuthorities(Set.of(Authority.builder().id(9002).permission("customer.order.read").build()));
+        AuthoritySets.invalidate();
+
+        assertThat(permissions()).containsExactly("customer.order.read");
+    }
+
+    @Test
+    void wrongSecretRejected() {
+        assertThat(apiKeyIndex.authenticate(customer.getApiKey().toString(), "wrong")).isEmpty();
+    }
+
+    private List<String> permissions() {
+        Authentication authentication = apiKeyIndex.authenticate(customer.getApiKey().toString(), SECRET)
+                .orElseThrow();
+        return authentication.getAuthorities().stream()
+                .map(GrantedAuthority::getAuthority)
+                .collect(Collectors.toList());
+    }
+}
@@ -0,0 +1,136 @@
+package guru.sfg.brewery.security.audit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.ArgumentMatchers.startsWith;
+import static org.mockito.Mockito.atLeastOnce;
+import static org.mockito.Mockito.lenient;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Captor;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.dao.DataAccessResourceFailureException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+
+@ExtendWith(MockitoExtension.class)
+class LoginAuditWriterTest {
+
+    private static final String INSERT_SUCCESS = "insert into login_success";
+    private static final String INSERT_FAILURE = "insert into login_failure";
+
+    @Mock
+    JdbcTemplate jdbcTemplate;
+
+    @Mock
+    PlatformTransactionManager transactionManager;
+
+    @Captor
+    ArgumentCaptor<List<Object[]>> rows;
+
+    SimpleMeterRegistry meterRegistry;
+
+    @BeforeEach
+    void setUp() {
+        meterRegistry = new SimpleMeterRegistry();
+    }
+
+    @Test
+    void dropNewestDiscardsTheEventThatDoesNotFit() {
+        LoginAuditWriter writer = writer(LoginAuditOverflowPolicy.DROP_NEWEST);
+
+        submitFailures(writer, "first", "second", "third");
+        writer.flush();
+
+        assertThat(writtenFailures()).containsExactly("first", "second");
+        assertThat(count("sfg.security.login-audit.dropped")).isEqualTo(1);
+    }
+
+    @Test
+    void dropOldestMakesRoomForTheNewEvent() {
+        LoginAuditWriter writer = writer(LoginAuditOverflowPolicy.DROP_OLDEST);
+
+        submitFailures(writer, "first", "second", "third");
+        writer.flush();
+
+        assertThat(writtenFailures()).containsExactly("second", "third");
+        assertThat(count("sfg.security.login-audit.dropped")).isEqualTo(1);
+    }
+
+    @Test
+    void callerRunsFlushesOnTheSubmittingThread() {
+        LoginAuditWriter writer = writer(LoginAuditOverflowPolicy.CALLER_RUNS);
+
+        submitFailures(writer, "first", "second", "third");
+        // The full queue was written by submit itself, before any scheduled flush.
+        verify(jdbcTemplate).batchUpdate(startsWith(INSERT_FAILURE), anyList(), any(int[].class));
+
+        writer.flush();
+        assertThat(writtenFailures()).containsExactly("first", "second", "third");
+        assertThat(count("sfg.security.login-audit.dropped")).isZero();
+    }
+
+    @Test
+    void shutdownFlushesQueuedEvents() {
+        LoginAuditWriter writer = writer(LoginAuditOverflowPolicy.DROP_NEWEST);
+
+        writer.submit(LoginAuditEvent.success(1, "spring", "127.0.0.1"));
+        submitFailures(writer, "wrong");
+        writer.shutdown();
+
+        verify(jdbcTemplate).batchUpdate(startsWith(INSERT_SUCCESS), anyList(), any(int[].class));
+        assertThat(writtenFailures()).containsExactly("wrong");
+    }
+
+    @Test
+    void failedWriteRolledBackAndCountedApartFromDrops() {
+        LoginAuditWriter writer = writer(LoginAuditOverflowPolicy.DROP_NEWEST);
+        // Lenient: the successes go through the same method with another statement.
+        lenient().when(jdbcTemplate.batchUpdate(startsWith(INSERT_FAILURE), anyList(), any(int[].class)))
+                .thenThrow(new DataAccessResourceFailureException("database down"));
+
+        writer.submit(LoginAuditEvent.success(1, "spring", "127.0.0.1"));
+        submitFailures(writer, "wrong");
+        writer.flush();
+
+        // The successes were written first, and rolled back with the failures.
+        verify(jdbcTemplate).batchUpdate(startsWith(INSERT_SUCCESS), anyList(), any(int[].class));
+        verify(transactionManager).rollback(any());
+        verify(transactionManager, never()).commit(any());
+        assertThat(count("sfg.security.login-audit.failed")).isEqualTo(2);
+        assertThat(count("sfg.security.login-audit.dropped")).isZero();
+    }
+
+    private LoginAuditWriter writer(LoginAuditOverflowPolicy overflowPolicy) {
+        return new LoginAuditWriter(jdbcTemplate, transactionManager, meterRegistry, 2, 10, overflowPolicy);
+    }
+
+    private static void submitFailures(LoginAuditWriter writer, String... usernames) {
+        for (String username : usernames) {
+            writer.submit(LoginAuditEvent.failure(username, "127.0.0.1"));
+        }
+    }
+
+    private List<String> writtenFailures() {
+        verify(jdbcTemplate, atLeastOnce()).batchUpdate(startsWith(INSERT_FAILURE), rows.capture(), any(int[].class));
+        List<String> usernames = new ArrayList<>();
+        rows.getAllValues().forEach(batch -> batch.forEach(row -> usernames.add((String) row[0])));
+        return usernames;
+    }
+
+    private double count(String name) {
+        return meterRegistry.get(name).counter().count();
+    }
+}
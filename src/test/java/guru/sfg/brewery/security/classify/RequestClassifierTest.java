@@ -0,0 +1,80 @@
+package guru.sfg.brewery.security.classify;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.CsvSource;
+import org.springframework.mock.web.MockHttpServletRequest;
+
+class RequestClassifierTest {
+
+    private final RequestClassifier requestClassifier = new RequestClassifier();
+
+    @ParameterizedTest(name = "{0} -> {1}")
+    @CsvSource({
+            // prefixes cover the bare segment and everything below it
+            "/resources,                STATIC",
+            "/resources/,               STATIC",
+            "/resources/css/style.css,  STATIC",
+            "/webjars/jquery/jquery.js, STATIC",
+            "/css/site.css,             STATIC",
+            "/js/app.js,                STATIC",
+            "/images/logo.png,          STATIC",
+            "resources/no-leading-slash.css, STATIC",
+            // Boot's remaining common locations
+            "/favicon.ico,              STATIC",
+            "/favicon.png,              STATIC",
+            "/brand/icon-192.png,       STATIC",
+            "/brand/nested/icon-192.png, UI",
+            "/icon-192.png,             UI",
+            // api
+            "/api,                      API",
+            "/api/v1/beer,              API",
+            "/api/v1/beer/,             API",
+            // 2FA page is an exact match
+            "/user/verify2fa,           TWO_FACTOR",
+            "/user/verify2fa/,          UI",
+            "/user/verify2fa/extra,     UI",
+            "/user/register2fa,         UI",
+            "/user,                     UI",
+            // segments must match whole
+            "/resourcesx/a.css,         UI",
+            "/apis,                     UI",
+            "/cssx,                     UI",
+            "/beers/api/v1,             UI",
+            // h2 console
+            "/h2-console,               H2_CONSOLE",
+            "/h2-console/login.do,      H2_CONSOLE",
+            "/h2-consolex,              UI",
+            // everything else
+            "/,                         UI",
+            "'',                        UI",
+            "/login,                    UI",
+            "/beers/find,               UI" })
+    void classifiesPath(String path, RequestCategory category) {
+        assertThat(requestClassifier.classify(path)).isEqualTo(category);
+    }
+
+    @Test
+    void classificationCachedPerPath() {
+        MockHttpServletRequest request = new MockHttpServletRequest();
+        request.setServletPath("/api/v1/beer");
+        assertThat(requestClassifier.classify(request)).isEqualTo(RequestCategory.API);
+
+        // A forward to another path is classified again.
+        request.setServletPath("/resources/site.css");
+        assertThat(requestClassifier.classify(request)).isEqualTo(RequestCategory.STATIC);
+    }
+
+    @Test
+    void pathInfoIsPartOfThePath() {
+        MockHttpServletRequest request = new MockHttpServletRequest();
+        request.setServletPath("/user");
+        request.setPathInfo("/verify2fa");
+
+        assertThat(requestClassifier.classify(request)).isEqualTo(RequestCategory.TWO_FACTOR);
+        assertThat(requestClassifier.matcher(RequestCategory.TWO_FACTOR).matches(request)).isTrue();
+        assertThat(requestClassifier.matcher(RequestCategory.UI).matches(request)).isFalse();
+    }
+}
@@ -0,0 +1,56 @@
+package guru.sfg.brewery.security.google;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.when;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.mock.env.MockEnvironment;
+
+import com.warrenstrange.googleauth.GoogleAuthenticator;
+import com.warrenstrange.googleauth.GoogleAuthenticatorConfig;
+import com.warrenstrange.googleauth.ICredentialRepository;
+
+import guru.sfg.brewery.config.MeteredCacheFactory;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+
+@ExtendWith(MockitoExtension.class)
+class TotpVerifierTest {
+
+    @Mock
+    ICredentialRepository credentialRepository;
+
+    GoogleAuthenticator googleAuthenticator;
+    TotpVerifier        totpVerifier;
+    String              secret;
+
+    @BeforeEach
+    void setUp() {
+        GoogleAuthenticatorConfig config = new GoogleAuthenticatorConfig();
+        googleAuthenticator = new GoogleAuthenticator(config);
+        secret = googleAuthenticator.createCredentials().getKey();
+        totpVerifier = new TotpVerifier(new MeteredCacheFactory(new SimpleMeterRegistry(), new MockEnvironment()),
+                googleAuthenticator, config, credentialRepository, 100);
+
+        when(credentialRepository.getSecretKey("spring")).thenReturn(secret);
+    }
+
+    @Test
+    void codeAcceptedOnce() {
+        int code = googleAuthenticator.getTotpPassword(secret);
+
+        assertThat(totpVerifier.verify("spring", code)).isTrue();
+        // Replayed within the same time step.
+        assertThat(totpVerifier.verify("spring", code)).isFalse();
+    }
+
+    @Test
+    void wrongCodeRejected() {
+        int code = googleAuthenticator.getTotpPassword(secret);
+
+        assertThat(totpVerifier.verify("spring", (code + 1) % 1_000_000)).isFalse();
+    }
+}
@@ -0,0 +1,119 @@
+package guru.sfg.brewery.security.hashing;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+import java.time.Duration;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.security.crypto.password.PasswordEncoder;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+
+class BoundedPasswordEncoderTest {
+
+    private final CountDownLatch      release       = new CountDownLatch(1);
+    private final CountDownLatch      hashing       = new CountDownLatch(1);
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+
+    private BoundedPasswordEncoder encoder;
+
+    @BeforeEach
+    void setUp() {
+        // One hashing thread, one queued hash; every hash blocks until released.
+        encoder = new BoundedPasswordEncoder(new BlockingPasswordEncoder(), 1, 1, Duration.ofSeconds(1), meterRegistry);
+    }
+
+    @AfterEach
+    void tearDown() {
+        release.countDown();
+        encoder.shutdown();
+    }
+
+    @Test
+    void hashesOnPoolAndReturnsResult() {
+        release.countDown();
+
+        assertThat(encoder.encode("secret")).isEqualTo("{hashed}secret");
+        assertThat(encoder.matches("secret", "{hashed}secret")).isTrue();
+        assertThat(encoder.matches("wrong", "{hashed}secret")).isFalse();
+    }
+
+    @Test
+    void fullQueueRejectedImmediately() throws Exception {
+        CompletableFuture<String> running = CompletableFuture.supplyAsync(() -> encoder.encode("running"));
+        assertThat(hashing.await(5, TimeUnit.SECONDS)).isTrue();
+        CompletableFuture<String> queued = CompletableFuture.supplyAsync(() -> encoder.encode("queued"));
+        awaitQueued(1);
+
+        long start = System.nanoTime();
+        assertThatThrownBy(() -> encoder.encode("rejected"))
+                .isInstanceOf(PasswordHashingRejectedException.class)
+                .hasMessageContaining("full");
+        assertThat(Duration.ofNanos(System.nanoTime() - start)).isLessThan(Duration.ofSeconds(1));
+        assertThat(rejected("saturated")).isEqualTo(1);
+
+        release.countDown();
+        assertThat(running.get(5, TimeUnit.SECONDS)).isEqualTo("{hashed}running");
+        assertThat(queued.get(5, TimeUnit.SECONDS)).isEqualTo("{hashed}queued");
+    }
+
+    @Test
+    void slowHashTimesOut() {
+        assertThatThrownBy(() -> encoder.matches("secret", "{hashed}secret"))
+                .isInstanceOf(PasswordHashingRejectedException.class)
+                .hasMessageContaining("in time");
+        assertThat(rejected("timeout")).isEqualTo(1);
+    }
+
+    @Test
+    void timedOutQueuedHashLeavesQueue() throws Exception {
+        CompletableFuture.runAsync(() -> encoder.encode("running"));
+        assertThat(hashing.await(5, TimeUnit.SECONDS)).isTrue();
+
+        assertThatThrownBy(() -> encoder.encode("queued")).isInstanceOf(PasswordHashingRejectedException.class);
+
+        assertThat(meterRegistry.get("sfg.security.password-hashing.queue").gauge().value()).isZero();
+    }
+
+    private void awaitQueued(int size) throws InterruptedException {
+        long deadline = System.currentTimeMillis() + 5000;
+        while (meterRegistry.get("sfg.security.password-hashing.queue").gauge().value() < size
+                && System.currentTimeMillis() < deadline) {
+            Thread.sleep(10);
+        }
+    }
+
+    private double rejected(String reason) {
+        return meterRegistry.get("sfg.security.password-hashing.rejected").tag("reason", reason).counter().count();
+    }
+
+    private class BlockingPasswordEncoder implements PasswordEncoder {
+
+        @Override
+        public String encode(CharSequence rawPassword) {
+            block();
+            return "{hashed}" + rawPassword;
+        }
+
+        @Override
+        public boolean matches(CharSequence rawPassword, String encodedPassword) {
+            block();
+            return encodedPassword.equals("{hashed}" + rawPassword);
+        }
+
+        private void block() {
+            hashing.countDown();
+            try {
+                release.await();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        }
+    }
+}
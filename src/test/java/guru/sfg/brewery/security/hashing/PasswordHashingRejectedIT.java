@@ -0,0 +1,140 @@
+package guru.sfg.brewery.security.hashing;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.springframework.security.test.web.servlet.request.SecurityMockMvcRequestPostProcessors.httpBasic;
+import static org.springframework.security.test.web.servlet.setup.SecurityMockMvcConfigurers.springSecurity;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+import java.util.UUID;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.context.TestConfiguration;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Primary;
+import org.springframework.security.crypto.password.PasswordEncoder;
+import org.springframework.test.web.servlet.setup.MockMvcBuilders;
+
+import guru.sfg.brewery.domain.security.User;
+import guru.sfg.brewery.repositories.security.UserRepository;
+import guru.sfg.brewery.security.JpaUserDetailsService;
+import guru.sfg.brewery.security.SfgPasswordEncoderFactories;
+import guru.sfg.brewery.web.controllers.BaseIT;
+
+@SpringBootTest
+public class PasswordHashingRejectedIT extends BaseIT {
+
+    private static final String PASSWORD = "hash-me";
+
+    @Autowired
+    PasswordHashingRejectedFilter passwordHashingRejectedFilter;
+
+    @Autowired
+    RejectingPasswordEncoder rejectingPasswordEncoder;
+
+    @Autowired
+    UserRepository userRepository;
+
+    @Autowired
+    JpaUserDetailsService userDetailsService;
+
+    @BeforeEach
+    @Override
+    protected void setUp() {
+        // The 503 mapping sits outside springSecurityFilterChain, as in the servlet container.
+        mockMvc = MockMvcBuilders
+                .webAppContextSetup(wac)
+                .addFilters(passwordHashingRejectedFilter)
+                .apply(springSecurity())
+                .build();
+    }
+
+    @AfterEach
+    void accept() {
+        rejectingPasswordEncoder.rejecting = false;
+    }
+
+    @Test
+    void rejectedHashAnswers503WithRetryAfter() throws Exception {
+        String username = createUser();
+        rejectingPasswordEncoder.rejecting = true;
+
+        mockMvc.perform(get("/api/v1/beer/").with(httpBasic(username, PASSWORD)))
+                .andExpect(status().isServiceUnavailable())
+                .andExpect(header().string("Retry-After", "1"));
+    }
+
+    @Test
+    void rejectedHashesNotCountedAsLoginFailures() throws Exception {
+        String username = createUser();
+        rejectingPasswordEncoder.rejecting = true;
+
+        // More than max-failures (3) rejected attempts with a wrong password.
+        for (int i = 0; i < 5; i++) {
+            mockMvc.perform(get("/api/v1/beer/").with(httpBasic(username, "wrong")))
+                    .andExpect(status().isServiceUnavailable());
+        }
+        rejectingPasswordEncoder.rejecting = false;
+
+        assertThat(userDetailsService.loadUserByUsername(username).isAccountNonLocked()).isTrue();
+        mockMvc.perform(get("/api/v1/beer/").with(httpBasic(username, PASSWORD)))
+                .andExpect(status().isOk());
+    }
+
+    private String createUser() {
+        String username = "hashing-" + UUID.randomUUID();
+        userRepository.saveAndFlush(User.builder()
+                .username(username)
+                .password(rejectingPasswordEncoder.encode(PASSWORD))
+                .build());
+        return username;
+    }
+
+    /**
+     * Stands in for a saturated {@link BoundedPasswordEncoder} while {@link #rejecting} is set.
+     */
+    static class RejectingPasswordEncoder implements PasswordEncoder {
+
+        private final PasswordEncoder delegate = SfgPasswordEncoderFactories.createDelegatingPasswordEncoder();
+
+        volatile boolean rejecting;
+
+        @Override
+        public String encode(CharSequence rawPassword) {
+            reject();
+            return delegate.encode(rawPassword);
+        }
+
+        @Override
+        public boolean matches(CharSequence rawPassword, String encodedPassword) {
+            reject();
+            return delegate.matches(rawPassword, encodedPassword);
+        }
+
+        @Override
+        public boolean upgradeEncoding(String encodedPassword) {
+            return delegate.upgradeEncoding(encodedPassword);
+        }
+
+        private void reject() {
+            if (rejecting) {
+                throw new PasswordHashingRejectedException("Password hashing queue is full");
+            }
+        }
+    }
+
+    @TestConfiguration
+    static class RejectingPasswordEncoderConfig {
+
+        @Bean
+        @Primary
+        RejectingPasswordEncoder rejectingPasswordEncoder() {
+            return new RejectingPasswordEncoder();
+        }
+    }
+}
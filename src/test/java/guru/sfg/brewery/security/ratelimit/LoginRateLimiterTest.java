@@ -0,0 +1,95 @@
+package guru.sfg.brewery.security.ratelimit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.mock.env.MockEnvironment;
+
+import guru.sfg.brewery.config.MeteredCacheFactory;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+
+class LoginRateLimiterTest {
+
+    private static final int CAPACITY = 3;
+
+    SimpleMeterRegistry meterRegistry;
+    LoginRateLimiter    loginRateLimiter;
+
+    @BeforeEach
+    void setUp() {
+        meterRegistry = new SimpleMeterRegistry();
+        // Refills one token in 100 seconds, so nothing refills during a test.
+        loginRateLimiter = new LoginRateLimiter(new MeteredCacheFactory(meterRegistry, new MockEnvironment()),
+                meterRegistry, CAPACITY, 0.01, 1000);
+    }
+
+    @Test
+    void newClientLimitedAfterCapacity() {
+        for (int i = 0; i < CAPACITY; i++) {
+            assertThat(loginRateLimiter.tryAcquire("10.0.0.1")).isTrue();
+        }
+
+        assertThat(loginRateLimiter.tryAcquire("10.0.0.1")).isFalse();
+        assertThat(loginRateLimiter.tryAcquire("10.0.0.2")).isTrue();
+        assertThat(meterRegistry.get("sfg.security.login-rate-limit.rejected").counter().count()).isEqualTo(1);
+    }
+
+    @Test
+    void concurrentBurstGetsOnlyCapacityThrough() throws Exception {
+        int attempts = 20;
+        ExecutorService executor = Executors.newFixedThreadPool(attempts);
+        CountDownLatch start = new CountDownLatch(1);
+        try {
+            List<Future<Boolean>> results = new ArrayList<>();
+            for (int i = 0; i < attempts; i++) {
+                Callable<Boolean> attempt = () -> {
+                    start.await();
+                    return loginRateLimiter.tryAcquire("10.0.0.3");
+                };
+                results.add(executor.submit(attempt));
+            }
+            start.countDown();
+
+            int admitted = 0;
+            for (Future<Boolean> result : results) {
+                admitted += result.get() ? 1 : 0;
+            }
+            assertThat(admitted).isEqualTo(CAPACITY);
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    @Test
+    void refundedTokenCanBeTakenAgain() {
+        for (int i = 0; i < CAPACITY; i++) {
+            loginRateLimiter.tryAcquire("10.0.0.4");
+        }
+
+        loginRateLimiter.refund("10.0.0.4");
+
+        assertThat(loginRateLimiter.tryAcquire("10.0.0.4")).isTrue();
+        assertThat(loginRateLimiter.tryAcquire("10.0.0.4")).isFalse();
+    }
+
+    @Test
+    void refundNeverExceedsCapacity() {
+        loginRateLimiter.tryAcquire("10.0.0.5");
+        loginRateLimiter.refund("10.0.0.5");
+        loginRateLimiter.refund("10.0.0.5");
+
+        for (int i = 0; i < CAPACITY; i++) {
+            assertThat(loginRateLimiter.tryAcquire("10.0.0.5")).isTrue();
+        }
+        assertThat(loginRateLimiter.tryAcquire("10.0.0.5")).isFalse();
+    }
+}
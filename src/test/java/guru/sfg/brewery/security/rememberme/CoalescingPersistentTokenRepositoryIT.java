@@ -0,0 +1,179 @@
+package guru.sfg.brewery.security.rememberme;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+import java.sql.Timestamp;
+import java.time.Duration;
+import java.util.Date;
+import java.util.UUID;
+
+import javax.sql.DataSource;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.core.env.Environment;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.security.web.authentication.rememberme.CookieTheftException;
+import org.springframework.security.web.authentication.rememberme.PersistentRememberMeToken;
+
+import guru.sfg.brewery.config.MeteredCacheFactory;
+import guru.sfg.brewery.web.controllers.BaseIT;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+
+@SpringBootTest
+public class CoalescingPersistentTokenRepositoryIT extends BaseIT {
+
+    @Autowired
+    CoalescingPersistentTokenRepository tokenRepository;
+
+    @Autowired
+    JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    DataSource dataSource;
+
+    @Autowired
+    Environment environment;
+
+    @Test
+    void rotationWrittenImmediatelyLastUsedOnFlush() {
+        Date created = ago(Duration.ofHours(1));
+        String series = createToken("rotating", "t1", created);
+
+        Date used = new Date();
+        tokenRepository.updateToken(series, "t2", used);
+
+        assertThat(storedToken(series)).isEqualTo("t2");
+        assertThat(storedLastUsed(series)).isEqualTo(created.getTime());
+        assertThat(tokenRepository.getTokenForSeries(series).getTokenValue()).isEqualTo("t2");
+
+        tokenRepository.flush();
+        assertThat(storedLastUsed(series)).isEqualTo(used.getTime());
+    }
+
+    @Test
+    void flushRacingRotationsKeepsLatest() throws Exception {
+        String series = createToken("racing", "t0", ago(Duration.ofHours(1)));
+        long start = System.currentTimeMillis();
+
+        Thread flusher = new Thread(() -> {
+            for (int i = 0; i < 200; i++) {
+                tokenRepository.flush();
+            }
+        });
+        flusher.start();
+        for (int i = 1; i <= 200; i++) {
+            tokenRepository.updateToken(series, "t" + i, new Date(start + i));
+        }
+        flusher.join();
+        tokenRepository.flush();
+
+        assertThat(storedToken(series)).isEqualTo("t200");
+        assertThat(storedLastUsed(series)).isEqualTo(start + 200);
+    }
+
+    @Test
+    void removeUserTokensDropsPendingUpdates() {
+        String series = createToken("leaving", "t1", ago(Duration.ofHours(1)));
+        tokenRepository.updateToken(series, "t2", new Date());
+
+        tokenRepository.removeUserTokens("leaving");
+        tokenRepository.flush();
+
+        assertThat(tokenRepository.getTokenForSeries(series)).isNull();
+        assertThat(rows(series)).isZero();
+    }
+
+    @Test
+    void rotationOfSeriesRemovedElsewhereFails() {
+        String series = createToken("elsewhere", "t1", ago(Duration.ofHours(1)));
+        tokenRepository.getTokenForSeries(series);
+
+        // Another node logs the user out.
+        jdbcTemplate.update("delete from persistent_logins where series = ?", series);
+
+        assertThatThrownBy(() -> tokenRepository.updateToken(series, "t2", new Date()))
+                .isInstanceOf(CookieTheftException.class);
+        assertThat(tokenRepository.getTokenForSeries(series)).isNull();
+    }
+
+    @Test
+    void rotationFromStaleCachedTokenFails() {
+        String series = createToken("twoNodes", "t1", ago(Duration.ofHours(1)));
+        // Node A has t1 cached.
+        tokenRepository.getTokenForSeries(series);
+
+        // Node B shares the table and rotates the series first.
+        CoalescingPersistentTokenRepository otherNode = otherNode();
+        otherNode.updateToken(series, "t2", new Date());
+
+        assertThatThrownBy(() -> tokenRepository.updateToken(series, "t3", new Date()))
+                .isInstanceOf(CookieTheftException.class);
+        assertThat(storedToken(series)).isEqualTo("t2");
+        assertThat(tokenRepository.getTokenForSeries(series).getTokenValue()).isEqualTo("t2");
+        otherNode.shutdown();
+    }
+
+    @Test
+    void staleCachedTokenReReadFromTable() {
+        String series = createToken("shared", "t1", ago(Duration.ofHours(1)));
+        tokenRepository.getTokenForSeries(series);
+
+        // Another node rotates the series.
+        jdbcTemplate.update("update persistent_logins set token = ? where series = ?", "t2", series);
+
+        tokenRepository.refreshIfStale(series, "t1");
+        assertThat(tokenRepository.getTokenForSeries(series).getTokenValue()).isEqualTo("t1");
+
+        tokenRepository.refreshIfStale(series, "t2");
+        assertThat(tokenRepository.getTokenForSeries(series).getTokenValue()).isEqualTo("t2");
+    }
+
+    @Test
+    void purgeRemovesOnlyExpiredSeries() {
+        String expired = createToken("expired", "t1", ago(Duration.ofDays(15)));
+        String live = createToken("live", "t1", ago(Duration.ofDays(1)));
+        // Stale in the table but used just now: the pending last_used is written before purging.
+        String justUsed = createToken("justUsed", "t1", ago(Duration.ofDays(15)));
+        tokenRepository.updateToken(justUsed, "t2", new Date());
+
+        tokenRepository.purgeExpiredTokens();
+
+        assertThat(rows(expired)).isZero();
+        assertThat(tokenRepository.getTokenForSeries(expired)).isNull();
+        assertThat(rows(live)).isOne();
+        assertThat(rows(justUsed)).isOne();
+    }
+
+    private String createToken(String username, String tokenValue, Date lastUsed) {
+        String series = UUID.randomUUID().toString();
+        tokenRepository.createNewToken(new PersistentRememberMeToken(username, series, tokenValue, lastUsed));
+        return series;
+    }
+
+    private CoalescingPersistentTokenRepository otherNode() {
+        SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+        return new CoalescingPersistentTokenRepository(dataSource, jdbcTemplate,
+                new MeteredCacheFactory(meterRegistry, environment), meterRegistry, Duration.ofDays(14));
+    }
+
+    private String storedToken(String series) {
+        return jdbcTemplate.queryForObject("select token from persistent_logins where series = ?", String.class, series);
+    }
+
+    private long storedLastUsed(String series) {
+        return jdbcTemplate.queryForObject("select last_used from persistent_logins where series = ?",
+                Timestamp.class, series).getTime();
+    }
+
+    private int rows(String series) {
+        return jdbcTemplate.queryForObject("select count(*) from persistent_logins where series = ?", Integer.class,
+                series);
+    }
+
+    private static Date ago(Duration duration) {
+        return new Date(System.currentTimeMillis() - duration.toMillis());
+    }
+}
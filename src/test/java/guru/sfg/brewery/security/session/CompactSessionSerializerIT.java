@@ -0,0 +1,89 @@
+package guru.sfg.brewery.security.session;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.core.convert.ConversionService;
+import org.springframework.core.convert.TypeDescriptor;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.context.SecurityContext;
+import org.springframework.security.core.context.SecurityContextImpl;
+import org.springframework.security.core.userdetails.UserDetailsService;
+import org.springframework.security.web.authentication.WebAuthenticationDetails;
+
+import guru.sfg.brewery.bootstrap.DefaultBreweryLoader;
+import guru.sfg.brewery.security.UserPrincipal;
+import guru.sfg.brewery.web.controllers.BaseIT;
+
+@SpringBootTest
+public class CompactSessionSerializerIT extends BaseIT {
+
+    @Autowired
+    @Qualifier("springSessionConversionService")
+    ConversionService conversionService;
+
+    @Autowired
+    UserDetailsService userDetailsService;
+
+    @Test
+    void securityContextRoundTrip() {
+        UserPrincipal principal = (UserPrincipal) userDetailsService.loadUserByUsername(DefaultBreweryLoader.STPETE_USER);
+        principal.eraseCredentials();
+        SecurityContext context = new SecurityContextImpl(
+                new UsernamePasswordAuthenticationToken(principal, null, principal.getAuthorities()));
+
+        byte[] bytes = serialize(context);
+        assertEquals('S', bytes[0]);
+
+        SecurityContext restored = (SecurityContext) deserialize(bytes);
+        UserPrincipal restoredPrincipal = (UserPrincipal) restored.getAuthentication().getPrincipal();
+        assertEquals(principal.getId(), restoredPrincipal.getId());
+        assertEquals(principal.getUsername(), restoredPrincipal.getUsername());
+        assertEquals(principal.getCustomerId(), restoredPrincipal.getCustomerId());
+        assertEquals(principal.getAuthorities(), restoredPrincipal.getAuthorities());
+        assertEquals(principal.isGoogle2FARequired(), restoredPrincipal.isGoogle2FARequired());
+        assertTrue(restored.getAuthentication().isAuthenticated());
+    }
+
+    @Test
+    void requestDetailsRoundTrip() {
+        UserPrincipal principal = (UserPrincipal) userDetailsService.loadUserByUsername(DefaultBreweryLoader.STPETE_USER);
+        principal.eraseCredentials();
+        MockHttpServletRequest request = new MockHttpServletRequest();
+        request.setRemoteAddr("10.0.0.7");
+        String sessionId = request.getSession().getId();
+        UsernamePasswordAuthenticationToken token = new UsernamePasswordAuthenticationToken(principal, null,
+                principal.getAuthorities());
+        token.setDetails(new WebAuthenticationDetails(request));
+
+        SecurityContext restored = (SecurityContext) deserialize(serialize(new SecurityContextImpl(token)));
+        assertEquals(new SessionAuthenticationDetails("10.0.0.7", sessionId),
+                restored.getAuthentication().getDetails());
+
+        // A restored context stays compact when it is written again.
+        byte[] rewritten = serialize(restored);
+        assertEquals('S', rewritten[0]);
+        assertEquals(restored.getAuthentication().getDetails(),
+                ((SecurityContext) deserialize(rewritten)).getAuthentication().getDetails());
+    }
+
+    @Test
+    void otherAttributesUseJavaSerialization() {
+        assertEquals("some value", deserialize(serialize("some value")));
+    }
+
+    private byte[] serialize(Object value) {
+        return (byte[]) conversionService.convert(value, TypeDescriptor.valueOf(Object.class),
+                TypeDescriptor.valueOf(byte[].class));
+    }
+
+    private Object deserialize(byte[] bytes) {
+        return conversionService.convert(bytes, TypeDescriptor.valueOf(byte[].class),
+                TypeDescriptor.valueOf(Object.class));
+    }
+}
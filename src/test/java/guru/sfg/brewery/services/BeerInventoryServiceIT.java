@@ -0,0 +1,96 @@
+package guru.sfg.brewery.services;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.math.BigDecimal;
+import java.util.UUID;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import guru.sfg.brewery.domain.Beer;
+import guru.sfg.brewery.domain.BeerInventory;
+import guru.sfg.brewery.repositories.BeerRepository;
+import guru.sfg.brewery.web.controllers.BaseIT;
+import guru.sfg.brewery.web.model.BeerStyleEnum;
+import io.micrometer.core.instrument.MeterRegistry;
+
+@SpringBootTest
+public class BeerInventoryServiceIT extends BaseIT {
+
+    @Autowired
+    BeerInventoryService beerInventoryService;
+
+    @Autowired
+    BeerQuantityReconciler beerQuantityReconciler;
+
+    @Autowired
+    BeerService beerService;
+
+    @Autowired
+    BeerRepository beerRepository;
+
+    @Autowired
+    PlatformTransactionManager transactionManager;
+
+    @Autowired
+    MeterRegistry meterRegistry;
+
+    Beer beer;
+
+    @BeforeEach
+    protected void setUp() {
+        super.setUp();
+        beer = beerRepository.saveAndFlush(Beer.builder()
+                .beerName("Inventory " + UUID.randomUUID())
+                .beerStyle(BeerStyleEnum.IPA)
+                .upc(UUID.randomUUID().toString())
+                .minOnHand(12)
+                .quantityToBrew(200)
+                .price(new BigDecimal("9.99"))
+                .build());
+    }
+
+    @Test
+    void inventoryWritesKeepQuantityOnHand() {
+        BeerInventory first = beerInventoryService.addInventory(beer, 10);
+        BeerInventory second = beerInventoryService.addInventory(beer, 5);
+        assertThat(quantityOnHand()).isEqualTo(15);
+
+        beerInventoryService.updateInventory(first.getId(), 3);
+        assertThat(quantityOnHand()).isEqualTo(8);
+
+        beerInventoryService.deleteInventory(second.getId());
+        assertThat(quantityOnHand()).isEqualTo(3);
+
+        assertThat(beerRepository.findBeerIdsWithQuantityDrift()).doesNotContain(beer.getId());
+    }
+
+    @Test
+    void reconcilerRecomputesDriftedBeer() {
+        beerInventoryService.addInventory(beer, 10);
+
+        // A writer that bypasses the inventory rows.
+        new TransactionTemplate(transactionManager).executeWithoutResult(
+                status -> beerRepository.adjustQuantityOnHand(beer.getId(), 7));
+        assertThat(beerRepository.findBeerIdsWithQuantityDrift()).contains(beer.getId());
+        assertThat(beerService.findBeerById(beer.getId(), true).getQuantityOnHand()).isEqualTo(17);
+        double drifted = meterRegistry.get("sfg.inventory.quantity-drift").counter().count();
+
+        beerQuantityReconciler.reconcile();
+
+        assertThat(quantityOnHand()).isEqualTo(10);
+        assertThat(beerRepository.findBeerIdsWithQuantityDrift()).doesNotContain(beer.getId());
+        assertThat(meterRegistry.get("sfg.inventory.quantity-drift").counter().count()).isGreaterThan(drifted);
+        // The cached copy is dropped on commit.
+        assertThat(beerService.findBeerById(beer.getId(), true).getQuantityOnHand()).isEqualTo(10);
+    }
+
+    private Integer quantityOnHand() {
+        return beerRepository.findById(beer.getId()).orElseThrow().getQuantityOnHand();
+    }
+}
@@ -0,0 +1,146 @@
+package guru.sfg.brewery.services;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyCollection;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.isNull;
+import static org.mockito.ArgumentMatchers.startsWith;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+import java.util.Set;
+import java.util.UUID;
+import java.util.stream.Collectors;
+
+import javax.persistence.EntityManagerFactory;
+
+import org.hibernate.StatelessSession;
+import org.hibernate.engine.spi.SessionFactoryImplementor;
+import org.hibernate.engine.spi.SharedSessionContractImplementor;
+import org.hibernate.id.IdentifierGenerator;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Answers;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.dao.DuplicateKeyException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.security.crypto.password.PasswordEncoder;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import guru.sfg.brewery.bootstrap.DefaultBreweryLoader;
+import guru.sfg.brewery.domain.security.Role;
+import guru.sfg.brewery.domain.security.User;
+import guru.sfg.brewery.repositories.security.RoleRepository;
+import guru.sfg.brewery.repositories.security.UserRepository;
+import guru.sfg.brewery.web.model.UserProvisioningDto;
+import guru.sfg.brewery.web.model.UserProvisioningResultDto;
+import guru.sfg.brewery.web.model.UserProvisioningStatusEnum;
+
+@ExtendWith(MockitoExtension.class)
+class UserProvisioningServiceImplTest {
+
+    private static final String INSERT_USER = "insert into user ";
+
+    @Mock
+    UserRepository userRepository;
+
+    @Mock
+    RoleRepository roleRepository;
+
+    @Mock
+    PasswordEncoder passwordEncoder;
+
+    @Mock
+    JdbcTemplate jdbcTemplate;
+
+    @Mock
+    PlatformTransactionManager transactionManager;
+
+    @Mock
+    EntityManagerFactory entityManagerFactory;
+
+    @Mock(answer = Answers.RETURNS_DEEP_STUBS)
+    SessionFactoryImplementor sessionFactory;
+
+    @Mock(extraInterfaces = SharedSessionContractImplementor.class)
+    StatelessSession statelessSession;
+
+    @Mock
+    IdentifierGenerator userIdGenerator;
+
+    UserProvisioningServiceImpl userProvisioningService;
+
+    @BeforeEach
+    void setUp() {
+        when(entityManagerFactory.unwrap(SessionFactoryImplementor.class)).thenReturn(sessionFactory);
+        when(sessionFactory.getMetamodel().entityPersister(User.class).getIdentifierGenerator())
+                .thenReturn(userIdGenerator);
+        userProvisioningService = new UserProvisioningServiceImpl(userRepository, roleRepository, passwordEncoder,
+                jdbcTemplate, transactionManager, entityManagerFactory, 2, 200, 4);
+
+        when(roleRepository.findByName(DefaultBreweryLoader.ROLE_CUSTOMER))
+                .thenReturn(Optional.of(Role.builder().id(3).build()));
+        when(userRepository.findExistingUsernames(anyCollection())).thenReturn(Set.of());
+        when(passwordEncoder.encode(anyString())).thenReturn("{noop}secret");
+        when(sessionFactory.openStatelessSession()).thenReturn(statelessSession);
+        when(userIdGenerator.generate(any(), isNull())).thenReturn(1, 2, 3);
+    }
+
+    @AfterEach
+    void tearDown() {
+        userProvisioningService.shutdown();
+    }
+
+    @Test
+    void batchInsertedInOneGo() {
+        List<UserProvisioningResultDto> results = provision("a", "b", "c");
+
+        assertThat(statuses(results)).containsOnly(UserProvisioningStatusEnum.CREATED);
+        assertThat(results).extracting(UserProvisioningResultDto::getUserId).containsExactly(1, 2, 3);
+        verify(jdbcTemplate, never()).update(startsWith(INSERT_USER), (Object[]) any());
+    }
+
+    @Test
+    void usernameTakenConcurrentlyReportedAsDuplicate() {
+        // "b" passes the existence check but is created by another request before the insert.
+        when(jdbcTemplate.batchUpdate(startsWith(INSERT_USER), anyList()))
+                .thenThrow(new DuplicateKeyException("user_username_idx"));
+        when(jdbcTemplate.update(startsWith(INSERT_USER), (Object[]) any())).thenAnswer(invocation -> {
+            if ("b".equals(invocation.getArgument(2))) {
+                throw new DuplicateKeyException("user_username_idx");
+            }
+            return 1;
+        });
+
+        List<UserProvisioningResultDto> results = provision("a", "b", "c");
+
+        assertThat(statuses(results)).containsExactly(UserProvisioningStatusEnum.CREATED,
+                UserProvisioningStatusEnum.DUPLICATE, UserProvisioningStatusEnum.CREATED);
+        assertThat(results.get(0).getUserId()).isEqualTo(1);
+        assertThat(results.get(2).getUserId()).isEqualTo(3);
+    }
+
+    private List<UserProvisioningResultDto> provision(String... usernames) {
+        List<UserProvisioningDto> users = new ArrayList<>();
+        for (String username : usernames) {
+            users.add(UserProvisioningDto.builder().username(username).password("secret").build());
+        }
+
+        List<UserProvisioningResultDto> results = new ArrayList<>();
+        userProvisioningService.provisionUsers(UUID.randomUUID(), users, results::add);
+        return results;
+    }
+
+    private static List<UserProvisioningStatusEnum> statuses(List<UserProvisioningResultDto> results) {
+        return results.stream().map(UserProvisioningResultDto::getStatus).collect(Collectors.toList());
+    }
+}
@@ -7,12 +7,21 @@ import java.util.stream.Stream;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.params.provider.Arguments;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.test.context.TestPropertySource;
 import org.springframework.test.web.servlet.MockMvc;
 import org.springframework.test.web.servlet.setup.MockMvcBuilders;
 import org.springframework.web.context.WebApplicationContext;
 
+// Every test request comes from 127.0.0.1; keep the login rate limit out of the way (see LoginRateLimitIT).
+@TestPropertySource(properties = { "sfg.security.login-rate-limit.capacity=1000000", "sfg.security.bcrypt.strength=10",
+        "sfg.security.api-key.hash-key=" + BaseIT.TEST_API_KEY_HASH_KEY,
+        "sfg.security.api-token.signing-key=" + BaseIT.TEST_API_TOKEN_SIGNING_KEY })
 public class BaseIT {
 
+    // The committed keys are development placeholders, refused without the dev profile.
+    public static final String TEST_API_KEY_HASH_KEY      = "sfg-test-api-key-hash-key";
+    public static final String TEST_API_TOKEN_SIGNING_KEY = "sfg-test-api-token-signing-key";
+
     @Autowired
     WebApplicationContext wac;
 
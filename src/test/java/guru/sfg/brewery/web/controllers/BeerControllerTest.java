@@ -19,6 +19,7 @@ package guru.sfg.brewery.web.controllers;
 
 import guru.sfg.brewery.domain.Beer;
 import guru.sfg.brewery.repositories.BeerRepository;
+import guru.sfg.brewery.services.BeerCache;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
@@ -50,6 +51,9 @@ class BeerControllerTest {
     @Mock
     BeerRepository beerRepository;
 
+    @Mock
+    BeerCache beerCache;
+
     @InjectMocks
     BeerController controller;
     List<Beer> beerList;
@@ -0,0 +1,75 @@
+package guru.sfg.brewery.web.controllers;
+
+import static org.springframework.security.test.web.servlet.request.SecurityMockMvcRequestPostProcessors.csrf;
+import static org.springframework.security.test.web.servlet.request.SecurityMockMvcRequestPostProcessors.httpBasic;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.TestPropertySource;
+import org.springframework.test.web.servlet.request.RequestPostProcessor;
+
+@SpringBootTest
+@TestPropertySource(properties = {
+        "sfg.security.login-rate-limit.capacity=3",
+        "sfg.security.login-rate-limit.refill-per-second=0.01" })
+public class LoginRateLimitIT extends BaseIT {
+
+    // Failed attempts use an unknown username, so no real account gets locked along the way.
+    @Test
+    void httpBasicRateLimited() throws Exception {
+        for (int i = 0; i < 3; i++) {
+            mockMvc.perform(get("/api/v1/beer/").with(httpBasic("intruder", "wrong")).with(from("10.0.0.1")))
+                    .andExpect(status().isUnauthorized());
+        }
+
+        // Even valid credentials are not checked once the bucket is empty.
+        mockMvc.perform(get("/api/v1/beer/").with(httpBasic("spring", "guru")).with(from("10.0.0.1")))
+                .andExpect(status().isTooManyRequests())
+                .andExpect(header().exists("Retry-After"));
+
+        // Other clients keep their own bucket.
+        mockMvc.perform(get("/api/v1/beer/").with(httpBasic("spring", "guru")).with(from("10.0.0.2")))
+                .andExpect(status().isOk());
+    }
+
+    @Test
+    void formLoginRateLimited() throws Exception {
+        for (int i = 0; i < 3; i++) {
+            mockMvc.perform(post("/login").param("username", "intruder").param("password", "wrong")
+                    .with(csrf()).with(from("10.0.0.3")))
+                    .andExpect(status().is3xxRedirection());
+        }
+
+        mockMvc.perform(post("/login").param("username", "spring").param("password", "guru")
+                .with(csrf()).with(from("10.0.0.3")))
+                .andExpect(status().isTooManyRequests());
+    }
+
+    @Test
+    void cachedValidCallerNotLimited() throws Exception {
+        // Every call takes a token up front; only the first misses the credential cache and keeps it.
+        for (int i = 0; i < 10; i++) {
+            mockMvc.perform(get("/api/v1/beer/").with(httpBasic("scott", "tiger")).with(from("10.0.0.5")))
+                    .andExpect(status().isOk());
+        }
+    }
+
+    @Test
+    void anonymousRequestsNotLimited() throws Exception {
+        for (int i = 0; i < 5; i++) {
+            mockMvc.perform(get("/").with(from("10.0.0.4")))
+                    .andExpect(status().isOk());
+        }
+    }
+
+    private static RequestPostProcessor from(String remoteAddress) {
+        return request -> {
+            request.setRemoteAddr(remoteAddress);
+            return request;
+        };
+    }
+}
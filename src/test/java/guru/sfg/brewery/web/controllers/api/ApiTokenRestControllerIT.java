@@ -0,0 +1,164 @@
+package guru.sfg.brewery.web.controllers.api;
+
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.springframework.security.test.web.servlet.request.SecurityMockMvcRequestPostProcessors.httpBasic;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.delete;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+import java.sql.Timestamp;
+import java.util.List;
+import java.util.UUID;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.test.web.servlet.MvcResult;
+import org.springframework.test.web.servlet.request.MockHttpServletRequestBuilder;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import guru.sfg.brewery.bootstrap.DefaultBreweryLoader;
+import guru.sfg.brewery.domain.Customer;
+import guru.sfg.brewery.repositories.CustomerRepository;
+import guru.sfg.brewery.repositories.security.UserRepository;
+import guru.sfg.brewery.security.UserSecurityChangedEvent;
+import guru.sfg.brewery.security.apikey.ApiKeyHasher;
+import guru.sfg.brewery.security.apikey.ApiKeyIndex;
+import guru.sfg.brewery.web.controllers.BaseIT;
+import guru.sfg.brewery.web.model.ApiTokenDto;
+
+@SpringBootTest
+public class ApiTokenRestControllerIT extends BaseIT {
+
+    public static final String TOKEN_URL = "/api/v1/token";
+
+    private static final String API_SECRET = "token-exchange-secret";
+
+    @Autowired
+    ObjectMapper objectMapper;
+
+    @Autowired
+    UserRepository userRepository;
+
+    @Autowired
+    ApplicationEventPublisher eventPublisher;
+
+    @Autowired
+    CustomerRepository customerRepository;
+
+    @Autowired
+    ApiKeyIndex apiKeyIndex;
+
+    @Autowired
+    ApiKeyHasher apiKeyHasher;
+
+    @Test
+    void issueTokenNoAuth() throws Exception {
+        mockMvc.perform(post(TOKEN_URL))
+                .andExpect(status().isUnauthorized());
+    }
+
+    @Test
+    void findBeersWithToken() throws Exception {
+        String token = issueToken("spring", "guru");
+
+        MvcResult result = mockMvc.perform(get("/api/v1/beer/").header("Authorization", "Bearer " + token))
+                .andExpect(status().isOk())
+                .andReturn();
+
+        assertNull(result.getRequest().getSession(false));
+    }
+
+    @Test
+    void deleteBeerWithCustomerToken() throws Exception {
+        String token = issueToken("scott", "tiger");
+
+        mockMvc.perform(get("/api/v1/beer/").header("Authorization", "Bearer " + token))
+                .andExpect(status().isOk());
+        mockMvc.perform(delete("/api/v1/beer/" + UUID.randomUUID()).header("Authorization", "Bearer " + token))
+                .andExpect(status().isForbidden());
+    }
+
+    @Test
+    void findBeersWithTamperedToken() throws Exception {
+        String token = issueToken("user", "password");
+
+        mockMvc.perform(get("/api/v1/beer/").header("Authorization", "Bearer x" + token))
+                .andExpect(status().isUnauthorized());
+    }
+
+    @Test
+    void tokenOfLockedUserRejected() throws Exception {
+        String token = issueToken("user", "password");
+        mockMvc.perform(get("/api/v1/beer/").header("Authorization", "Bearer " + token))
+                .andExpect(status().isOk());
+
+        Timestamp now = new Timestamp(System.currentTimeMillis());
+        userRepository.lockByUsername("user", now);
+        eventPublisher.publishEvent(new UserSecurityChangedEvent("user"));
+        try {
+            mockMvc.perform(get("/api/v1/beer/").header("Authorization", "Bearer " + token))
+                    .andExpect(status().isUnauthorized());
+        } finally {
+            userRepository.unlockByUsernames(List.of("user"), now);
+            eventPublisher.publishEvent(new UserSecurityChangedEvent("user"));
+        }
+
+        mockMvc.perform(get("/api/v1/beer/").header("Authorization", "Bearer " + token))
+                .andExpect(status().isOk());
+    }
+
+    @Test
+    void apiKeyExchangedForToken() throws Exception {
+        Customer stPete = customerRepository.findAllByCustomerName(DefaultBreweryLoader.ST_PETE_DISTRIBUTING)
+                .orElseThrow();
+        String token = issueToken(post(TOKEN_URL)
+                .header("Api-Key", stPete.getApiKey().toString())
+                .header("Api-Secret", DefaultBreweryLoader.CUSTOMER_API_SECRET));
+
+        mockMvc.perform(get("/api/v1/beer/").header("Authorization", "Bearer " + token))
+                .andExpect(status().isOk());
+        mockMvc.perform(delete("/api/v1/beer/" + UUID.randomUUID()).header("Authorization", "Bearer " + token))
+                .andExpect(status().isForbidden());
+
+        // A token exchanged for that token is still bound to the API key.
+        String renewed = issueToken(post(TOKEN_URL).header("Authorization", "Bearer " + token));
+        mockMvc.perform(get("/api/v1/beer/").header("Authorization", "Bearer " + renewed))
+                .andExpect(status().isOk());
+    }
+
+    @Test
+    void apiKeyTokenNotBoundToUserOfSameName() throws Exception {
+        // A customer named like the admin user.
+        Customer customer = customerRepository.saveAndFlush(Customer.builder()
+                .customerName("spring")
+                .apiKey(UUID.randomUUID())
+                .apiSecret(apiKeyHasher.encode(API_SECRET))
+                .build());
+        apiKeyIndex.refresh();
+
+        String token = issueToken(post(TOKEN_URL)
+                .header("Api-Key", customer.getApiKey().toString())
+                .header("Api-Secret", API_SECRET));
+        mockMvc.perform(delete("/api/v1/beer/" + UUID.randomUUID()).header("Authorization", "Bearer " + token))
+                .andExpect(status().isForbidden());
+
+        apiKeyIndex.evict(customer.getId());
+        mockMvc.perform(get("/api/v1/beer/").header("Authorization", "Bearer " + token))
+                .andExpect(status().isUnauthorized());
+    }
+
+    private String issueToken(String user, String pwd) throws Exception {
+        return issueToken(post(TOKEN_URL).with(httpBasic(user, pwd)));
+    }
+
+    private String issueToken(MockHttpServletRequestBuilder request) throws Exception {
+        MvcResult result = mockMvc.perform(request)
+                .andExpect(status().isOk())
+                .andReturn();
+        return objectMapper.readValue(result.getResponse().getContentAsString(), ApiTokenDto.class).getToken();
+    }
+}
@@ -0,0 +1,175 @@
+package guru.sfg.brewery.web.controllers.api;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.springframework.security.test.web.servlet.request.SecurityMockMvcRequestPostProcessors.httpBasic;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+import java.sql.Timestamp;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.stream.Collectors;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.security.crypto.password.PasswordEncoder;
+import org.springframework.test.web.servlet.request.MockHttpServletRequestBuilder;
+
+import com.jayway.jsonpath.JsonPath;
+
+import guru.sfg.brewery.bootstrap.DefaultBreweryLoader;
+import guru.sfg.brewery.domain.BeerOrder;
+import guru.sfg.brewery.domain.Customer;
+import guru.sfg.brewery.domain.OrderStatusEnum;
+import guru.sfg.brewery.domain.security.User;
+import guru.sfg.brewery.repositories.BeerOrderRepository;
+import guru.sfg.brewery.repositories.CustomerRepository;
+import guru.sfg.brewery.repositories.security.RoleRepository;
+import guru.sfg.brewery.repositories.security.UserRepository;
+import guru.sfg.brewery.web.controllers.BaseIT;
+
+/**
+ * Cursor listings of the v1 customer orders and the v2 scoped orders: every order exactly once, newest first,
+ * with orders sharing a created date split across pages by id, and never another customer's orders.
+ */
+@SpringBootTest
+public class BeerOrderCursorIT extends BaseIT {
+
+    private static final String PASSWORD  = "password";
+    private static final int    PAGE_SIZE = 2;
+
+    @Autowired
+    CustomerRepository customerRepository;
+
+    @Autowired
+    BeerOrderRepository beerOrderRepository;
+
+    @Autowired
+    UserRepository userRepository;
+
+    @Autowired
+    RoleRepository roleRepository;
+
+    @Autowired
+    PasswordEncoder passwordEncoder;
+
+    @Autowired
+    JdbcTemplate jdbcTemplate;
+
+    Customer        customer;
+    Customer        otherCustomer;
+    String          username;
+    List<BeerOrder> orders;
+
+    @BeforeEach
+    protected void setUp() {
+        super.setUp();
+        customer = createCustomer();
+        otherCustomer = createCustomer();
+
+        long now = System.currentTimeMillis();
+        Timestamp recent = new Timestamp(now - 60_000);
+        Timestamp older = new Timestamp(now - 120_000);
+
+        // Three orders share a created date, so at least one page boundary falls between equal dates.
+        orders = new ArrayList<>();
+        for (int i = 0; i < 3; i++) {
+            orders.add(createOrder(customer, recent));
+        }
+        for (int i = 0; i < 2; i++) {
+            orders.add(createOrder(customer, older));
+        }
+        // Same created date as the customer's newest orders.
+        createOrder(otherCustomer, recent);
+        createOrder(otherCustomer, recent);
+
+        username = "cursor-" + UUID.randomUUID();
+        userRepository.saveAndFlush(User.builder()
+                .username(username)
+                .password(passwordEncoder.encode(PASSWORD))
+                .customer(customer)
+                .role(roleRepository.findByName(DefaultBreweryLoader.ROLE_CUSTOMER).orElseThrow())
+                .build());
+    }
+
+    @Test
+    void customerOrdersByCursor() throws Exception {
+        assertThat(listAll("/api/v1/customers/" + customer.getId() + "/orders")).isEqualTo(expectedIds());
+    }
+
+    @Test
+    void otherCustomerOrdersByCursorForbidden() throws Exception {
+        mockMvc.perform(get("/api/v1/customers/" + otherCustomer.getId() + "/orders")
+                .with(httpBasic(username, PASSWORD))
+                .param("mode", "cursor"))
+                .andExpect(status().isForbidden());
+    }
+
+    @Test
+    void scopedOrdersByCursor() throws Exception {
+        assertThat(listAll("/api/v2/orders/")).isEqualTo(expectedIds());
+    }
+
+    private List<String> listAll(String url) throws Exception {
+        List<String> ids = new ArrayList<>();
+        String cursor = null;
+        int pages = 0;
+
+        do {
+            MockHttpServletRequestBuilder request = get(url)
+                    .with(httpBasic(username, PASSWORD))
+                    .param("mode", "cursor")
+                    .param("pageSize", String.valueOf(PAGE_SIZE));
+            if (cursor != null) {
+                request.param("cursor", cursor);
+            }
+
+            String body = mockMvc.perform(request)
+                    .andExpect(status().isOk())
+                    .andReturn().getResponse().getContentAsString();
+            ids.addAll(JsonPath.<List<String>>read(body, "$.content[*].id"));
+            // Absent on the last page.
+            cursor = (String) JsonPath.<Map<String, Object>>read(body, "$").get("nextCursor");
+        } while (cursor != null && ++pages < 10);
+
+        return ids;
+    }
+
+    /**
+     * Newest first, then by id descending; ids are stored and compared as strings.
+     */
+    private List<String> expectedIds() {
+        return orders.stream()
+                .sorted(Comparator.comparing(BeerOrder::getCreatedDate)
+                        .thenComparing(order -> order.getId().toString())
+                        .reversed())
+                .map(order -> order.getId().toString())
+                .collect(Collectors.toList());
+    }
+
+    private Customer createCustomer() {
+        return customerRepository.saveAndFlush(Customer.builder()
+                .customerName("Cursor " + UUID.randomUUID())
+                .apiKey(UUID.randomUUID())
+                .build());
+    }
+
+    private BeerOrder createOrder(Customer owner, Timestamp createdDate) {
+        BeerOrder beerOrder = beerOrderRepository.saveAndFlush(BeerOrder.builder()
+                .customer(owner)
+                .orderStatus(OrderStatusEnum.NEW)
+                .build());
+
+        // createdDate is set by Hibernate on insert; pin it to build ties.
+        jdbcTemplate.update("update beer_order set created_date = ? where id = ?", createdDate,
+                beerOrder.getId().toString());
+        beerOrder.setCreatedDate(createdDate);
+        return beerOrder;
+    }
+}
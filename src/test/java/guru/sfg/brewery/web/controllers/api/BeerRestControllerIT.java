@@ -1,11 +1,18 @@
 package guru.sfg.brewery.web.controllers.api;
 
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.hamcrest.Matchers.not;
 import static org.springframework.security.test.web.servlet.request.SecurityMockMvcRequestPostProcessors.httpBasic;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.delete;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
 
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
 import java.util.Random;
+import java.util.UUID;
 
 import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.Nested;
@@ -15,8 +22,13 @@ import org.junit.jupiter.params.provider.MethodSource;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.context.SpringBootTest;
 
+import com.jayway.jsonpath.JsonPath;
+
+import guru.sfg.brewery.bootstrap.DefaultBreweryLoader;
 import guru.sfg.brewery.domain.Beer;
+import guru.sfg.brewery.domain.Customer;
 import guru.sfg.brewery.repositories.BeerRepository;
+import guru.sfg.brewery.repositories.CustomerRepository;
 import guru.sfg.brewery.web.controllers.BaseIT;
 import guru.sfg.brewery.web.model.BeerStyleEnum;
 
@@ -25,6 +37,9 @@ public class BeerRestControllerIT extends BaseIT {
     @Autowired
     BeerRepository beerRepository;
 
+    @Autowired
+    CustomerRepository customerRepository;
+
     @DisplayName("Delete Tests")
     @Nested
     class DeleteTests {
@@ -115,6 +130,98 @@ public class BeerRestControllerIT extends BaseIT {
             mockMvc.perform(get("/api/v1/beer/").with(httpBasic(user, pwd)))
                     .andExpect(status().isOk());
         }
+
+        @Test
+        void findBeersApiKey() throws Exception {
+            Customer customer = customerRepository.findAllByCustomerName(DefaultBreweryLoader.ST_PETE_DISTRIBUTING)
+                    .orElseThrow();
+            mockMvc.perform(get("/api/v1/beer/")
+                    .header("Api-Key", customer.getApiKey().toString())
+                    .header("Api-Secret", DefaultBreweryLoader.CUSTOMER_API_SECRET))
+                    .andExpect(status().isOk());
+        }
+
+        @Test
+        void findBeersApiKeyBadSecret() throws Exception {
+            Customer customer = customerRepository.findAllByCustomerName(DefaultBreweryLoader.ST_PETE_DISTRIBUTING)
+                    .orElseThrow();
+            mockMvc.perform(get("/api/v1/beer/")
+                    .header("Api-Key", customer.getApiKey().toString())
+                    .header("Api-Secret", "guruXXXX"))
+                    .andExpect(status().isUnauthorized());
+        }
+
+        @Test
+        void findBeersByCursor() throws Exception {
+            String body = mockMvc.perform(get("/api/v1/beer/").with(httpBasic("spring", "guru"))
+                    .param("mode", "cursor")
+                    .param("pageSize", "1"))
+                    .andExpect(status().isOk())
+                    .andExpect(jsonPath("$.content.length()").value(1))
+                    .andExpect(jsonPath("$.nextCursor").exists())
+                    .andExpect(jsonPath("$.totalElements").doesNotExist())
+                    .andReturn().getResponse().getContentAsString();
+            String firstId = JsonPath.read(body, "$.content[0].id");
+
+            mockMvc.perform(get("/api/v1/beer/").with(httpBasic("spring", "guru"))
+                    .param("mode", "cursor")
+                    .param("pageSize", "1")
+                    .param("includeTotal", "true")
+                    .param("cursor", JsonPath.<String>read(body, "$.nextCursor")))
+                    .andExpect(status().isOk())
+                    .andExpect(jsonPath("$.content[0].id").value(not(firstId)))
+                    .andExpect(jsonPath("$.totalElements").isNumber());
+        }
+
+        @Test
+        void findBeersByCursorIncludesBeersWithoutName() throws Exception {
+            List<String> unnamed = new ArrayList<>();
+            for (int i = 0; i < 3; i++) {
+                unnamed.add(beerRepository.saveAndFlush(Beer.builder()
+                        .beerStyle(BeerStyleEnum.IPA)
+                        .upc(UUID.randomUUID().toString())
+                        .build()).getId().toString());
+            }
+
+            // Small pages, so page boundaries fall among the unnamed beers.
+            List<String> ids = new ArrayList<>();
+            String cursor = "";
+            long total;
+            do {
+                String body = mockMvc.perform(get("/api/v1/beer/").with(httpBasic("spring", "guru"))
+                        .param("mode", "cursor")
+                        .param("pageSize", "2")
+                        .param("includeTotal", "true")
+                        .param("cursor", cursor))
+                        .andExpect(status().isOk())
+                        .andReturn().getResponse().getContentAsString();
+                ids.addAll(JsonPath.<List<String>>read(body, "$.content[*].id"));
+                total = JsonPath.<Number>read(body, "$.totalElements").longValue();
+                // Absent on the last page.
+                cursor = (String) JsonPath.<Map<String, Object>>read(body, "$").get("nextCursor");
+            } while (cursor != null);
+
+            assertThat(ids).containsAll(unnamed).doesNotHaveDuplicates().hasSize((int) total);
+        }
+
+        @Test
+        void findBeerSlice() throws Exception {
+            mockMvc.perform(get("/api/v1/beer/").with(httpBasic("spring", "guru"))
+                    .param("mode", "slice")
+                    .param("pageSize", "1"))
+                    .andExpect(status().isOk())
+                    .andExpect(jsonPath("$.content.length()").value(1))
+                    .andExpect(jsonPath("$.hasNext").value(true))
+                    .andExpect(jsonPath("$.totalElements").doesNotExist());
+        }
+
+        @Test
+        void findBeersByCursorInvalidCursor() throws Exception {
+            mockMvc.perform(get("/api/v1/beer/").with(httpBasic("spring", "guru"))
+                    .param("mode", "cursor")
+                    .param("cursor", "not-a-cursor"))
+                    .andExpect(status().isBadRequest());
+        }
     }
 
     @DisplayName("Find Beer By ID")
@@ -0,0 +1,89 @@
+package guru.sfg.brewery.web.controllers.api;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.springframework.security.test.web.servlet.request.SecurityMockMvcRequestPostProcessors.httpBasic;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.asyncDispatch;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.request;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+import java.util.List;
+import java.util.UUID;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.MediaType;
+import org.springframework.test.web.servlet.MvcResult;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import guru.sfg.brewery.bootstrap.DefaultBreweryLoader;
+import guru.sfg.brewery.domain.Customer;
+import guru.sfg.brewery.repositories.CustomerRepository;
+import guru.sfg.brewery.web.controllers.BaseIT;
+import guru.sfg.brewery.web.model.UserProvisioningDto;
+
+@SpringBootTest
+public class UserProvisioningRestControllerIT extends BaseIT {
+
+    @Autowired
+    CustomerRepository customerRepository;
+
+    @Autowired
+    ObjectMapper objectMapper;
+
+    Customer stPeteCustomer;
+
+    @BeforeEach
+    protected void setUp() {
+        super.setUp();
+        stPeteCustomer = customerRepository.findAllByCustomerName(DefaultBreweryLoader.ST_PETE_DISTRIBUTING).orElseThrow();
+    }
+
+    @Test
+    void provisionUsersAdmin() throws Exception {
+        String newUser = "bulk-" + UUID.randomUUID();
+        List<UserProvisioningDto> users = List.of(
+                UserProvisioningDto.builder().username(newUser).password("secret").build(),
+                UserProvisioningDto.builder().username("spring").password("secret").build(),
+                UserProvisioningDto.builder().username(newUser).password("secret").build(),
+                UserProvisioningDto.builder().username("").password("secret").build());
+
+        MvcResult started = mockMvc.perform(post(bulkUrl())
+                .with(httpBasic("spring", "guru"))
+                .contentType(MediaType.APPLICATION_JSON)
+                .content(objectMapper.writeValueAsString(users)))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+
+        String body = mockMvc.perform(asyncDispatch(started))
+                .andExpect(status().isOk())
+                .andReturn().getResponse().getContentAsString();
+
+        String[] lines = body.split("\n");
+        assertThat(lines).hasSize(4);
+        assertThat(lines[0]).contains("\"CREATED\"").contains("\"userId\"");
+        assertThat(lines[1]).contains("\"DUPLICATE\"");
+        assertThat(lines[2]).contains("\"DUPLICATE\"");
+        assertThat(lines[3]).contains("\"INVALID\"");
+
+        mockMvc.perform(get("/api/v1/beer/").with(httpBasic(newUser, "secret")))
+                .andExpect(status().isOk());
+    }
+
+    @Test
+    void provisionUsersCustomerForbidden() throws Exception {
+        mockMvc.perform(post(bulkUrl())
+                .with(httpBasic("scott", "tiger"))
+                .contentType(MediaType.APPLICATION_JSON)
+                .content("[]"))
+                .andExpect(status().isForbidden());
+    }
+
+    private String bulkUrl() {
+        return "/api/v1/customers/" + stPeteCustomer.getId() + "/users/bulk";
+    }
+}